@@ -0,0 +1,296 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates synthetic PSI-MITAB files, so benchmarks can run offline. Lines imitate the content of
+ * IntAct files: a limited number of interactors and controlled vocabulary terms, long lists of
+ * cross references, and quoted free text containing reserved symbols. The output is deterministic
+ * for a given seed.
+ * <p>
+ * Usage: <code>CorpusGenerator version lines output</code>, where version is one of TAB_25, TAB_26,
+ * TAB_27 or TAB_28 and output ends with .txt, .gz or .zip.
+ */
+public class CorpusGenerator {
+
+	private static final String[] METHODS = {
+			"psi-mi:\"MI:0018\"(two hybrid)",
+			"psi-mi:\"MI:0006\"(anti bait coimmunoprecipitation)",
+			"psi-mi:\"MI:0007\"(anti tag coimmunoprecipitation)",
+			"psi-mi:\"MI:0096\"(pull down)",
+			"psi-mi:\"MI:0397\"(two hybrid array)",
+			"psi-mi:\"MI:0084\"(phage display)",
+			"psi-mi:\"MI:0047\"(far western blotting)",
+			"psi-mi:\"MI:0676\"(tandem affinity purification)"};
+	private static final String[] TYPES = {
+			"psi-mi:\"MI:0915\"(physical association)",
+			"psi-mi:\"MI:0914\"(association)",
+			"psi-mi:\"MI:0407\"(direct interaction)",
+			"psi-mi:\"MI:0217\"(phosphorylation reaction)"};
+	private static final String[] DATABASES = {
+			"psi-mi:\"MI:0469\"(IntAct)",
+			"psi-mi:\"MI:0471\"(MINT)",
+			"psi-mi:\"MI:0463\"(biogrid)"};
+	private static final String[] ORGANISMS = {
+			"taxid:9606(human)|taxid:9606(Homo sapiens)",
+			"taxid:10090(mouse)|taxid:10090(Mus musculus)",
+			"taxid:559292(yeast)|taxid:559292(\"Saccharomyces cerevisiae (strain ATCC 204508 / S288c)\")",
+			"taxid:7227(drome)|taxid:7227(Drosophila melanogaster)"};
+	private static final String[] HOSTS = {
+			"taxid:-1(in vitro)|taxid:-1(\"in vitro\")",
+			"taxid:9606(human-hek293)|taxid:9606(\"Homo sapiens (cell line HEK293)\")",
+			"taxid:4932(yeast)|taxid:4932(Saccharomyces cerevisiae)"};
+	private static final String[] BIOLOGICAL_ROLES = {
+			"psi-mi:\"MI:0499\"(unspecified role)",
+			"psi-mi:\"MI:0501\"(enzyme)",
+			"psi-mi:\"MI:0502\"(enzyme target)"};
+	private static final String[] EXPERIMENTAL_ROLES = {
+			"psi-mi:\"MI:0496\"(bait)",
+			"psi-mi:\"MI:0498\"(prey)",
+			"psi-mi:\"MI:0497\"(neutral component)"};
+	private static final String[] INTERACTOR_TYPES = {
+			"psi-mi:\"MI:0326\"(protein)",
+			"psi-mi:\"MI:0328\"(small molecule)",
+			"psi-mi:\"MI:0250\"(gene)"};
+	private static final String[] EXPANSIONS = {
+			"-",
+			"psi-mi:\"MI:1060\"(spoke expansion)"};
+	private static final String[] IDENTIFICATION_METHODS = {
+			"psi-mi:\"MI:0396\"(predetermined participant)",
+			"psi-mi:\"MI:0102\"(sequence tag identification)"};
+	private static final String[] GO_TERMS = {
+			"go:\"GO:0005737\"(cytoplasm)",
+			"go:\"GO:0005634\"(nucleus)",
+			"go:\"GO:0005886\"(plasma membrane)",
+			"go:\"GO:0007268\"(chemical synaptic transmission)",
+			"go:\"GO:0006897\"(endocytosis)",
+			"go:\"GO:0005515\"(protein binding)"};
+	private static final String[] COMMENTS = {
+			"comment:\"Interacts (via SH3 domain) with DNM1 | and with SYNJ1\"",
+			"comment:\"Phosphorylated on serine residues: role unknown\"",
+			"function:\"May participate in mechanisms of regulated exocytosis\"",
+			"caution:\"The sequence differs from that shown because of a \\\"frameshift\\\"\""};
+
+	private final Random random;
+	private final PsiMitabVersion version;
+	private final int columns;
+	private final int interactors;
+
+	/**
+	 * @param version     MITAB version of the generated lines
+	 * @param interactors number of distinct interactors
+	 * @param seed        seed for the random generator
+	 */
+	public CorpusGenerator(PsiMitabVersion version, int interactors, long seed) {
+		this.random = new Random(seed);
+		this.version = version;
+		this.columns = version.getColumns();
+		this.interactors = interactors;
+	}
+
+	public CorpusGenerator(PsiMitabVersion version) {
+		this(version, 20_000, 42);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 3) {
+			System.err.println("Usage: CorpusGenerator TAB_25|TAB_26|TAB_27|TAB_28 lines output");
+			System.exit(1);
+		}
+		final PsiMitabVersion version = PsiMitabVersion.valueOf(args[0]);
+		final long lines = Long.parseLong(args[1]);
+		final File output = new File(args[2]);
+		try (OutputStream out = open(new FileOutputStream(output), output.getName())) {
+			new CorpusGenerator(version).write(lines, out);
+		}
+	}
+
+	/**
+	 * Gets a generated file from the cache directory (<code>target/corpus</code>, or the value of
+	 * the system property <em>mitab.corpus</em>), generating it if it does not exist.
+	 *
+	 * @param version     MITAB version
+	 * @param lines       number of interactions
+	 * @param compression one of txt, gz or zip
+	 * @return a file with lines interactions plus the header
+	 */
+	public static File corpus(PsiMitabVersion version, long lines, String compression) throws IOException {
+		final File directory = new File(System.getProperty("mitab.corpus", "target/corpus"));
+		if (!directory.exists() && !directory.mkdirs())
+			throw new IOException("cannot create " + directory);
+		final File file = new File(directory, String.format("%s-%d.%s", version, lines, compression));
+		if (!file.exists()) {
+			final File tmp = new File(directory, file.getName() + ".tmp");
+			try (OutputStream out = open(new FileOutputStream(tmp), file.getName())) {
+				new CorpusGenerator(version).write(lines, out);
+			}
+			if (!tmp.renameTo(file)) throw new IOException("cannot create " + file);
+		}
+		return file;
+	}
+
+	/**
+	 * Wraps out with the compression given by the extension of name.
+	 */
+	private static OutputStream open(OutputStream out, String name) throws IOException {
+		final OutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+		if (name.endsWith(".gz")) return new GZIPOutputStream(buffered, 1 << 16);
+		if (name.endsWith(".zip")) {
+			final ZipOutputStream zip = new ZipOutputStream(buffered);
+			zip.putNextEntry(new ZipEntry(name.substring(0, name.length() - ".zip".length()) + ".txt"));
+			return zip;
+		}
+		return buffered;
+	}
+
+	/**
+	 * Writes a header and lines interactions into out.
+	 */
+	public void write(long lines, OutputStream out) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+		writer.write("#");
+		writer.write(PsiInteractionParser.instance(version).headerLine());
+		writer.write(System.lineSeparator());
+		for (long i = 0; i < lines; i++) {
+			writer.write(line());
+			writer.write(System.lineSeparator());
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Generates count lines in memory.
+	 */
+	public List<String> lines(int count) {
+		final List<String> lines = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) lines.add(line());
+		return lines;
+	}
+
+	/**
+	 * @return a new random MITAB line, without line separator
+	 */
+	public String line() {
+		final int a = random.nextInt(interactors);
+		final int b = random.nextInt(interactors);
+		final int organism = random.nextInt(ORGANISMS.length);
+		final int interaction = random.nextInt(Integer.MAX_VALUE);
+		final List<String> line = new ArrayList<>(columns);
+		// MITAB 2.5
+		line.add(uniprot(a));
+		line.add(uniprot(b));
+		line.add(alternativeIdentifiers(a));
+		line.add(alternativeIdentifiers(b));
+		line.add(aliases(a));
+		line.add(aliases(b));
+		line.add(pick(METHODS));
+		line.add(String.format("Smith%d et al.(%d)", random.nextInt(500), 1990 + random.nextInt(30)));
+		line.add(String.format("pubmed:%d|imex:IM-%d", 10_000_000 + random.nextInt(20_000_000), random.nextInt(30_000)));
+		line.add(ORGANISMS[organism]);
+		line.add(ORGANISMS[random.nextInt(4) == 0 ? random.nextInt(ORGANISMS.length) : organism]);
+		line.add(pick(TYPES));
+		line.add(pick(DATABASES));
+		line.add(String.format("intact:EBI-%d|imex:IM-%d-%d", interaction, random.nextInt(30_000), 1 + random.nextInt(20)));
+		line.add(String.format("intact-miscore:0.%02d|author score:%s", random.nextInt(100), random.nextBoolean() ? "A" : "\"High\""));
+		if (columns > line.size()) {
+			// MITAB 2.6
+			line.add(pick(EXPANSIONS));
+			line.add(pick(BIOLOGICAL_ROLES));
+			line.add(pick(BIOLOGICAL_ROLES));
+			line.add(EXPERIMENTAL_ROLES[0]);
+			line.add(pick(EXPERIMENTAL_ROLES));
+			line.add(pick(INTERACTOR_TYPES));
+			line.add(pick(INTERACTOR_TYPES));
+			line.add(crossReferences(a));
+			line.add(crossReferences(b));
+			line.add(random.nextInt(3) == 0 ? String.format("imex:IM-%d", random.nextInt(30_000)) : "-");
+			line.add(annotations());
+			line.add(annotations());
+			line.add(random.nextBoolean() ? "figure legend:\"Fig. 3 (a|b)\"|comment:\"kd: 1.2 x 10^-6\"" : "-");
+			line.add(pick(HOSTS));
+			line.add(random.nextInt(5) == 0 ? String.format("kd:%d.%dx10^-6(molar)", random.nextInt(10), random.nextInt(10)) : "-");
+			line.add(date());
+			line.add(date());
+			line.add(String.format("rogid:%08X%s", a, ORGANISMS[organism].substring(6, ORGANISMS[organism].indexOf('('))));
+			line.add(String.format("rogid:%08X%s", b, ORGANISMS[organism].substring(6, ORGANISMS[organism].indexOf('('))));
+			line.add(String.format("intact-crc:%016X", random.nextLong()));
+			line.add("false");
+		}
+		if (columns > line.size()) {
+			// MITAB 2.7
+			line.add(features());
+			line.add(features());
+			line.add(random.nextInt(10) == 0 ? "2" : "-");
+			line.add(random.nextInt(10) == 0 ? "2" : "-");
+			line.add(pick(IDENTIFICATION_METHODS));
+			line.add(pick(IDENTIFICATION_METHODS));
+		}
+		if (columns > line.size()) {
+			// MITAB 2.8
+			line.add("-");
+			line.add("-");
+			line.add("psi-mi:\"MI:2249\"(direct interaction)");
+			line.add(random.nextBoolean() ? "psi-mi:\"MI:2240\"(up-regulates)" : "psi-mi:\"MI:2241\"(down-regulates)");
+		}
+		return String.join("\t", line);
+	}
+
+	private String pick(String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private String uniprot(int interactor) {
+		return String.format("uniprotkb:%s%05d", (char) ('O' + interactor % 4), interactor);
+	}
+
+	private String alternativeIdentifiers(int interactor) {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("intact:EBI-").append(7_000_000 + interactor);
+		final int n = interactor % 8;
+		for (int i = 0; i < n; i++) builder.append("|uniprotkb:Q").append(10_000 + interactor * 7 + i);
+		return builder.toString();
+	}
+
+	private String aliases(int interactor) {
+		final String gene = "G" + Integer.toString(interactor, 36).toUpperCase();
+		return String.format("psi-mi:%s_human(display_long)|uniprotkb:%s(gene name)|psi-mi:%s(display_short)|uniprotkb:\"%s (isoform 1)\"(gene name synonym)",
+				gene.toLowerCase(), gene, gene, gene);
+	}
+
+	private String crossReferences(int interactor) {
+		final StringBuilder builder = new StringBuilder();
+		final int n = 2 + interactor % 30;
+		for (int i = 0; i < n; i++) {
+			if (i > 0) builder.append('|');
+			builder.append(GO_TERMS[(interactor + i) % GO_TERMS.length]);
+		}
+		builder.append("|interpro:IPR").append(String.format("%06d", interactor % 50_000)).append("(SH3 domain)");
+		return builder.toString();
+	}
+
+	private String annotations() {
+		if (random.nextInt(3) > 0) return "-";
+		return pick(COMMENTS) + "|" + pick(COMMENTS);
+	}
+
+	private String features() {
+		if (random.nextBoolean()) return "-";
+		final int start = 1 + random.nextInt(500);
+		return String.format("binding-associated region:%d-%d(\"MINT-%d\")|sufficient to bind:%d..%d-%d..%d",
+				start, start + random.nextInt(100), random.nextInt(1_000_000), start, start + 1, start + 10, start + 12);
+	}
+
+	private String date() {
+		return String.format("%d/%02d/%02d", 2003 + random.nextInt(17), 1 + random.nextInt(12), 1 + random.nextInt(28));
+	}
+}
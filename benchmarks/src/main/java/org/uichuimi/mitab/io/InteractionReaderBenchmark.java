@@ -0,0 +1,55 @@
+package org.uichuimi.mitab.io;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end reading of a generated file, from the file system to {@link Interaction} objects,
+ * with the same readers as the command line: {@link ArchiveInteractionReader} for zip archives and
+ * {@link InteractionReader#InteractionReader(File, PsiMitabVersion)} for the rest, so plain files
+ * are memory mapped. Files are generated once and cached (see {@link CorpusGenerator#corpus(PsiMitabVersion, long,
+ * String)}). Use <code>-p lines=10000000</code> for large runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InteractionReaderBenchmark {
+
+	@Param({"100000"})
+	public long lines;
+
+	@Param({"TAB_27"})
+	public PsiMitabVersion version;
+
+	@Param({"txt", "gz", "zip"})
+	public String compression;
+
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		file = CorpusGenerator.corpus(version, lines, compression);
+	}
+
+	@Benchmark
+	public void read(Blackhole blackhole) throws Exception {
+		if (compression.equals("zip")) {
+			try (ArchiveInteractionReader reader = new ArchiveInteractionReader(file, version)) {
+				for (Interaction interaction : reader) blackhole.consume(interaction);
+			}
+		} else {
+			try (InteractionReader reader = new InteractionReader(file, version)) {
+				for (Interaction interaction : reader) blackhole.consume(interaction);
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.uichuimi.mitab.io;
+
+import org.openjdk.jmh.annotations.*;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of interactions with {@link InteractionWriter}, discarding the output, so only the
+ * cost of formatting and buffering is measured. Each invocation writes one interaction, cycling
+ * over a fixed set of parsed lines. Throughput is given in lines per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InteractionWriterBenchmark {
+
+	private static final int LINES = 4096;
+
+	@Param({"TAB_27", "TAB_28"})
+	public PsiMitabVersion version;
+
+	private Interaction[] interactions;
+	private InteractionWriter writer;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final PsiInteractionParser parser = PsiInteractionParser.instance(version);
+		interactions = new CorpusGenerator(version).lines(LINES).stream()
+				.map(parser::toInteraction)
+				.toArray(Interaction[]::new);
+		writer = new InteractionWriter(OutputStream.nullOutputStream(), version);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		writer.close();
+	}
+
+	@Benchmark
+	public void write() {
+		index = (index + 1) & (LINES - 1);
+		writer.write(interactions[index]);
+	}
+}
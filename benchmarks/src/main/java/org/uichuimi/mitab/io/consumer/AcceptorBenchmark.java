@@ -0,0 +1,67 @@
+package org.uichuimi.mitab.io.consumer;
+
+import org.openjdk.jmh.annotations.*;
+import org.uichuimi.mitab.io.CorpusGenerator;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+import org.uichuimi.mitab.io.output.TsvWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of each {@link Acceptor} in isolation. Interactions are parsed before the benchmark, so
+ * only the work done by the acceptor (from start to close) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AcceptorBenchmark {
+
+	@Param({"100000"})
+	public int lines;
+
+	private List<Interaction> interactions;
+	private File directory;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final PsiInteractionParser parser = PsiInteractionParser.instance(PsiMitabVersion.TAB_27);
+		interactions = new CorpusGenerator(PsiMitabVersion.TAB_27).lines(lines).stream()
+				.map(parser::toInteraction)
+				.collect(Collectors.toList());
+		directory = Files.createTempDirectory("mitab-benchmark").toFile();
+	}
+
+	@Benchmark
+	public Acceptor<Interaction> stats() {
+		return run(new Stats(new PrintStream(OutputStream.nullOutputStream())));
+	}
+
+	@Benchmark
+	public Acceptor<Interaction> neo4j() throws IOException {
+		return run(new Neo4jWriter(directory));
+	}
+
+	@Benchmark
+	public Acceptor<Interaction> tsv() {
+		return run(new TsvWriter(OutputStream.nullOutputStream()));
+	}
+
+	private Acceptor<Interaction> run(Acceptor<Interaction> acceptor) {
+		acceptor.start();
+		for (Interaction interaction : interactions) acceptor.accept(interaction);
+		acceptor.close();
+		return acceptor;
+	}
+}
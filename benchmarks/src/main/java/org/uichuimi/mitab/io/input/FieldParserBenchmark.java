@@ -0,0 +1,38 @@
+package org.uichuimi.mitab.io.input;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uichuimi.mitab.io.model.Field;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of single fields, covering the unquoted, quoted and escaped cases of the MITAB syntax.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldParserBenchmark {
+
+	@Param({"uniprotkb:P49418",
+			"psi-mi:\"MI:0018\"(two hybrid)",
+			"uniprotkb:AMPH(gene name)",
+			"comment:\"Interacts (via SH3 domain) with DNM1 | and with \\\"SYNJ1\\\"\"",
+			"Smith et al.(2005)"})
+	public String field;
+
+	@Benchmark
+	public Field parse() {
+		return FieldParser.parse(field);
+	}
+
+	@Benchmark
+	public void locate(Blackhole blackhole) {
+		final int[] bounds = new int[FieldParser.BOUNDS];
+		FieldParser.locate(field, 0, field.length(), bounds);
+		blackhole.consume(bounds);
+	}
+}
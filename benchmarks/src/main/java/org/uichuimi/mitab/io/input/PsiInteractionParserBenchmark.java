@@ -0,0 +1,53 @@
+package org.uichuimi.mitab.io.input;
+
+import org.openjdk.jmh.annotations.*;
+import org.uichuimi.mitab.io.CorpusGenerator;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing of lines into {@link Interaction} and serialization back to text, for every MITAB
+ * version. Each invocation processes one line, cycling over a fixed set of generated lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PsiInteractionParserBenchmark {
+
+	private static final int LINES = 4096;
+
+	@Param({"TAB_25", "TAB_26", "TAB_27", "TAB_28"})
+	public PsiMitabVersion version;
+
+	private PsiInteractionParser parser;
+	private String[] lines;
+	private Interaction[] interactions;
+	private int index;
+
+	@Setup
+	public void setup() {
+		parser = PsiInteractionParser.instance(version);
+		final List<String> lines = new CorpusGenerator(version).lines(LINES);
+		this.lines = lines.toArray(new String[0]);
+		this.interactions = lines.stream().map(parser::toInteraction).collect(Collectors.toList()).toArray(new Interaction[0]);
+	}
+
+	@Benchmark
+	public Interaction toInteraction() {
+		index = (index + 1) & (LINES - 1);
+		return parser.toInteraction(lines[index]);
+	}
+
+	@Benchmark
+	public String toText() {
+		index = (index + 1) & (LINES - 1);
+		return parser.toString(interactions[index]);
+	}
+}
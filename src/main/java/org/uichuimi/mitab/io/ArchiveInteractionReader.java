@@ -0,0 +1,317 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.LineFilter;
+import org.uichuimi.mitab.io.input.ParseError;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.metrics.Counter;
+import org.uichuimi.mitab.io.metrics.CountingInputStream;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the interactions of every entry of a zip archive as a single stream, such as the
+ * organism-split MITAB archives of BioGRID. Every entry is a MITAB file with its own header line.
+ * The name of the entry is set as the source of every interaction (see {@link
+ * Interaction#getSource()}).
+ * <p>
+ * Interactions are parsed by a pool of workers. When ordered, a dedicated thread inflates the
+ * entries one after the other and splits them into batches of lines, which the workers parse
+ * concurrently, as {@link InteractionReader#withThreads(int)} does, so a single large entry uses
+ * every worker. When unordered, every worker inflates and parses a whole entry, and interactions
+ * are returned as soon as they are parsed. The number of batches in memory is bounded, so a slow
+ * consumer stops the workers.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ArchiveInteractionReader implements AutoCloseable, Iterable<Interaction>, Iterator<Interaction> {
+
+	/**
+	 * Number of batches in the results queue per thread.
+	 */
+	private static final int QUEUE_SIZE = 4;
+	/**
+	 * Marks the end of the archive in ordered mode, and the end of an entry in unordered mode.
+	 */
+	private static final Future<List<Interaction>> END = CompletableFuture.completedFuture(Collections.emptyList());
+
+	private final ZipFile zipFile;
+	private final List<ZipEntry> entries;
+	private PsiInteractionParser parser;
+	private int threads = 1;
+	private boolean ordered = true;
+	private Rejections rejections = new Rejections(ErrorPolicy.FAIL, null);
+	private LineFilter filter;
+	private final Counter bytes = new Counter();
+	private ExecutorService workers;
+	private Thread producer;
+	private BlockingQueue<Future<List<Interaction>>> results;
+	/**
+	 * Number of {@link #END} marks not received yet.
+	 */
+	private int remaining;
+	private Iterator<Interaction> batch = Collections.emptyIterator();
+
+	public ArchiveInteractionReader(File file) throws IOException {
+		this(file, PsiMitabVersion.getDefault());
+	}
+
+	public ArchiveInteractionReader(File file, PsiMitabVersion version) throws IOException {
+		this.zipFile = new ZipFile(file);
+		this.entries = zipFile.stream().filter(entry -> !entry.isDirectory()).collect(Collectors.toList());
+		this.parser = PsiInteractionParser.instance(version);
+	}
+
+	/**
+	 * @return names of the entries that are read, in archive order
+	 */
+	public List<String> getEntries() {
+		return entries.stream().map(ZipEntry::getName).collect(Collectors.toList());
+	}
+
+	/**
+	 * Parses with threads workers. Must be called before reading any interaction.
+	 *
+	 * @param threads number of parsing threads
+	 * @param ordered if true, interactions are returned in archive order, and the lines of every
+	 *                entry are parsed in parallel. If false, they are returned as soon as they are
+	 *                parsed, and up to threads entries are inflated and parsed at the same time.
+	 * @return this reader
+	 */
+	public ArchiveInteractionReader withThreads(int threads, boolean ordered) {
+		if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+		if (workers != null) throw new IllegalStateException("threads must be set before reading");
+		this.threads = threads;
+		this.ordered = ordered;
+		return this;
+	}
+
+	/**
+	 * Parses only the given columns. Must be called before reading any interaction.
+	 *
+	 * @see InteractionReader#withColumns(Set)
+	 */
+	public ArchiveInteractionReader withColumns(Set<MitabColumn> columns) {
+		if (workers != null) throw new IllegalStateException("columns must be set before reading");
+		parser = parser.withColumns(columns);
+		return this;
+	}
+
+	/**
+	 * Reads only the lines that match filter. Must be called before reading any interaction.
+	 *
+	 * @see InteractionReader#withFilter(LineFilter)
+	 */
+	public ArchiveInteractionReader withFilter(LineFilter filter) {
+		if (workers != null) throw new IllegalStateException("filter must be set before reading");
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * Sets what to do with lines that do not match MITAB syntax. Rejected lines are numbered
+	 * within their entry, and the reason starts with the name of the entry. Must be called before
+	 * reading any interaction.
+	 *
+	 * @see InteractionReader#withErrorPolicy(ErrorPolicy, Quarantine)
+	 */
+	public ArchiveInteractionReader withErrorPolicy(ErrorPolicy policy, Quarantine quarantine) {
+		if (workers != null) throw new IllegalStateException("error policy must be set before reading");
+		this.rejections = new Rejections(policy, quarantine);
+		return this;
+	}
+
+	/**
+	 * @return number of lines rejected by the error policy
+	 */
+	public long getRejected() {
+		return rejections.count();
+	}
+
+	/**
+	 * @return number of bytes read from all the entries, after decompression. Can be called from
+	 * any thread while reading
+	 */
+	public long getBytesRead() {
+		return bytes.get();
+	}
+
+	private void start() {
+		workers = Executors.newFixedThreadPool(threads, new ParallelParser.NamedThreadFactory("mitab-archive"));
+		results = new ArrayBlockingQueue<>(QUEUE_SIZE * threads);
+		if (ordered) {
+			remaining = 1;
+			producer = new Thread(this::produce, "mitab-archive-reader");
+			producer.setDaemon(true);
+			producer.start();
+		} else {
+			remaining = entries.size();
+			for (ZipEntry entry : entries) workers.execute(() -> read(entry));
+		}
+	}
+
+	/**
+	 * Ordered mode: submits the batches of every entry, in archive order, to the workers. The
+	 * results queue is bounded, so the thread stops when the consumer is behind.
+	 */
+	private void produce() {
+		try {
+			for (ZipEntry entry : entries) {
+				try {
+					split(entry, (lines, number) -> {
+						final FutureTask<List<Interaction>> task = new FutureTask<>(() -> parse(entry, lines, number));
+						results.put(task);
+						workers.execute(task);
+					});
+				} catch (IOException e) {
+					results.put(CompletableFuture.failedFuture(new UncheckedIOException(entry.getName(), e)));
+					return;
+				}
+			}
+			results.put(END);
+		} catch (InterruptedException | RejectedExecutionException ignored) {
+			// closed
+		}
+	}
+
+	/**
+	 * Unordered mode: parses a whole entry in the current worker.
+	 */
+	private void read(ZipEntry entry) {
+		try {
+			try {
+				split(entry, (lines, number) -> results.put(CompletableFuture.completedFuture(parse(entry, lines, number))));
+			} catch (IOException e) {
+				results.put(CompletableFuture.failedFuture(new UncheckedIOException(entry.getName(), e)));
+			} catch (RuntimeException e) {
+				results.put(CompletableFuture.failedFuture(e));
+			}
+			results.put(END);
+		} catch (InterruptedException ignored) {
+			// closed
+		}
+	}
+
+	/**
+	 * Splits the lines of entry, after the header, into batches of {@link ParallelParser#BATCH_SIZE}
+	 * lines.
+	 */
+	private void split(ZipEntry entry, BatchConsumer consumer) throws IOException, InterruptedException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new CountingInputStream(zipFile.getInputStream(entry), bytes), StandardCharsets.UTF_8), 1 << 16)) {
+			reader.readLine(); // skip header
+			List<String> lines = new ArrayList<>(ParallelParser.BATCH_SIZE);
+			long number = 2;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+				if (lines.size() == ParallelParser.BATCH_SIZE) {
+					consumer.accept(lines, number);
+					number += lines.size();
+					lines = new ArrayList<>(ParallelParser.BATCH_SIZE);
+				}
+			}
+			if (!lines.isEmpty()) consumer.accept(lines, number);
+		}
+	}
+
+	/**
+	 * @param number number of the first line in the entry
+	 */
+	private List<Interaction> parse(ZipEntry entry, List<String> lines, long number) {
+		final List<Interaction> interactions = new ArrayList<>(lines.size());
+		final ParseError error = new ParseError();
+		long n = number;
+		for (String line : lines) {
+			final long current = n++;
+			if (filter != null && !filter.test(line)) continue;
+			final Interaction interaction = rejections.parse(parser, line, entry.getName(), current, error);
+			if (interaction == null) continue;
+			interaction.setSource(entry.getName());
+			interactions.add(interaction);
+		}
+		return interactions;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (workers == null) start();
+		while (!batch.hasNext()) {
+			if (remaining == 0) return false;
+			final Future<List<Interaction>> future;
+			try {
+				future = results.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for interactions", e);
+			}
+			if (future == END) {
+				remaining -= 1;
+				continue;
+			}
+			batch = get(future).iterator();
+		}
+		return true;
+	}
+
+	private List<Interaction> get(Future<List<Interaction>> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for interactions", e);
+		} catch (ExecutionException e) {
+			// the workers are stopped, so later calls must not wait for them
+			remaining = 0;
+			stop();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public Interaction next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		return batch.next();
+	}
+
+	@Override
+	public Iterator<Interaction> iterator() {
+		return this;
+	}
+
+	public Stream<Interaction> interactions() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+	}
+
+	public List<Interaction> readAll() {
+		return interactions().collect(Collectors.toList());
+	}
+
+	private void stop() {
+		if (producer != null) producer.interrupt();
+		workers.shutdownNow();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (workers != null) stop();
+		zipFile.close();
+	}
+
+	private interface BatchConsumer {
+
+		/**
+		 * @param number number of the first line in the entry
+		 */
+		void accept(List<String> lines, long number) throws InterruptedException;
+	}
+}
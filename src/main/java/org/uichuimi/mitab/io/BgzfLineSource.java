@@ -0,0 +1,66 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.compress.BgzfInputStream;
+import org.uichuimi.mitab.io.metrics.Counter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Lines of a BGZF compressed file. The position of every line is its virtual offset, so the source
+ * can be moved to any line with {@link BgzfLineSource#seek(long)}. Like {@link MappedLineSource},
+ * lines are returned as {@link ByteLine} and are not decoded.
+ */
+class BgzfLineSource implements LineSource {
+
+	private static final int NEW_LINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	private final BgzfInputStream in;
+	private final Counter bytes = new Counter();
+	private byte[] buffer = new byte[4096];
+
+	BgzfLineSource(File file) throws IOException {
+		this.in = new BgzfInputStream(file);
+	}
+
+	/**
+	 * @return virtual offset of the next line
+	 */
+	long position() {
+		return in.getVirtualOffset();
+	}
+
+	/**
+	 * @param virtualOffset virtual offset of the start of a line
+	 */
+	void seek(long virtualOffset) throws IOException {
+		in.seek(virtualOffset);
+	}
+
+	@Override
+	public CharSequence readLine() throws IOException {
+		int length = 0;
+		int b;
+		while ((b = in.read()) != -1 && b != NEW_LINE) {
+			if (length == buffer.length) buffer = Arrays.copyOf(buffer, 2 * length);
+			buffer[length++] = (byte) b;
+		}
+		if (b == -1 && length == 0) return null;
+		bytes.add(b == -1 ? length : length + 1);
+		if (length > 0 && buffer[length - 1] == CARRIAGE_RETURN) length -= 1;
+		// lines are kept by lazy interactions, so the buffer cannot be shared
+		return new ByteLine(Arrays.copyOf(buffer, length), 0, length);
+	}
+
+	@Override
+	public long bytesRead() {
+		return bytes.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
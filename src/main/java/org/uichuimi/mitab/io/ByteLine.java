@@ -0,0 +1,51 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.ByteView;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A region of a byte array seen as a CharSequence, without copying or decoding it. Every byte is
+ * one char, so positions are byte positions. This is safe for UTF-8 MITAB files, since all the
+ * symbols with meaning in MITAB (tab, pipe, quotes, parenthesis, colon and backslash) are ASCII,
+ * and bytes of multi-byte UTF-8 characters are never ASCII. Only {@link ByteLine#toString()}
+ * decodes the bytes as UTF-8.
+ * <p>
+ * The array is never modified once lines are created over it, so lines can be read from different
+ * threads.
+ */
+final class ByteLine implements ByteView {
+
+	private final byte[] bytes;
+	private final int offset;
+	private final int length;
+
+	ByteLine(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		Objects.checkIndex(index, length);
+		return (char) (bytes[offset + index] & 0xff);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		Objects.checkFromToIndex(start, end, length);
+		return new ByteLine(bytes, offset + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(bytes, offset, length, StandardCharsets.UTF_8);
+	}
+}
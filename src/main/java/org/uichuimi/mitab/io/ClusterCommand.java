@@ -0,0 +1,64 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.consumer.InteractionClusterer;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+/**
+ * Clusters the interactions of a MITAB file by pair of interactors with {@link
+ * InteractionClusterer}, and writes one MITAB line per pair.
+ */
+@Command(name = "cluster",
+		description = "merge the interactions of every pair of interactors into one MITAB line")
+class ClusterCommand implements Callable<Integer> {
+
+	static final String EXTENSION = ".clusters.mitab27";
+
+	@Option(names = {"-h", "--help"}, usageHelp = true, description = "display this help message")
+	boolean usageHelpRequested;
+
+	@Parameters(index = "0", description = "MITAB file")
+	private File input;
+
+	@Option(names = {"-o", "--output"}, description = "MITAB file, compressed if it ends with .gz (default: <input>" + EXTENSION + ")")
+	private File output;
+
+	@Option(names = {"-t", "--threads"}, description = "number of parsing threads (default: ${DEFAULT-VALUE})")
+	private int threads = 1;
+
+	@Option(names = {"--max-pairs"}, description = "maximum number of pairs kept in memory before spilling to temporary files (default: ${DEFAULT-VALUE})")
+	private int maxPairs = 1 << 22;
+
+	@Option(names = {"--spill-dir"}, description = "directory for temporary files (default: system temporary directory)")
+	private File spillDirectory;
+
+	@Override
+	public Integer call() throws Exception {
+		final File file = output == null ? new File(input.getPath() + EXTENSION) : output;
+		final PsiMitabVersion version = PsiMitabVersion.getDefault();
+		if (maxPairs < 1) throw new CommandLine.ParameterException(new CommandLine(this), "--max-pairs must be at least 1");
+		final InteractionClusterer clusterer = new InteractionClusterer(new InteractionWriter(FileUtils.getOutputStream(file), version))
+				.withSpill(spillDirectory, maxPairs);
+		long count = 0;
+		// the clusterer is closed after the reader, even on errors, so the output is closed and the runs are deleted
+		try (clusterer; InteractionReader reader = new InteractionReader(input, version).withThreads(threads)
+				.withColumns(clusterer.columns())) {
+			clusterer.start();
+			for (Interaction interaction : reader) {
+				clusterer.accept(interaction);
+				count++;
+			}
+		}
+		System.err.printf("%,d interactions clustered into %,d pairs in %s%n", count - clusterer.getSkipped(), clusterer.getClusters(), file);
+		if (clusterer.getSkipped() > 0)
+			System.err.printf("%,d interactions without primary identifier skipped%n", clusterer.getSkipped());
+		return 0;
+	}
+}
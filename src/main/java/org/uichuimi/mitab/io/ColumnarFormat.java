@@ -0,0 +1,113 @@
+package org.uichuimi.mitab.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of the columnar MITAB files written by {@link ColumnarInteractionWriter} and read by
+ * {@link ColumnarInteractionReader}:
+ * <pre>
+ * header:    magic, format version, MITAB version name, number of columns
+ * chunks:    one deflated chunk per column and row group
+ * footer:    number of row groups, and for every row group its number of rows and the
+ *            metadata of every chunk: offset, length, raw length, dictionary size, min, max
+ * trailer:   offset of the footer, magic
+ * </pre>
+ * A chunk contains the dictionary of the column in the row group, with the distinct values of the
+ * column as MITAB text, followed by the code of every row in the dictionary, in 1, 2 or 4 bytes
+ * depending on the size of the dictionary. Min and max are the smallest and largest values of the
+ * dictionary, so readers can skip row groups that cannot contain a value.
+ */
+final class ColumnarFormat {
+
+	/**
+	 * "MTBC"
+	 */
+	static final int MAGIC = 0x4d544243;
+	static final int VERSION = 1;
+	static final int TRAILER_SIZE = 12;
+
+	private ColumnarFormat() {
+	}
+
+	static int codeWidth(int dictionarySize) {
+		return dictionarySize <= 1 << 8 ? 1 : dictionarySize <= 1 << 16 ? 2 : 4;
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInput in) throws IOException {
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeFooter(DataOutput out, List<RowGroup> rowGroups) throws IOException {
+		out.writeInt(rowGroups.size());
+		for (RowGroup rowGroup : rowGroups) {
+			out.writeInt(rowGroup.rows);
+			for (Chunk chunk : rowGroup.chunks) {
+				out.writeLong(chunk.offset);
+				out.writeInt(chunk.length);
+				out.writeInt(chunk.rawLength);
+				out.writeInt(chunk.dictionarySize);
+				writeString(out, chunk.min);
+				writeString(out, chunk.max);
+			}
+		}
+	}
+
+	static List<RowGroup> readFooter(DataInput in, int columns) throws IOException {
+		final int size = in.readInt();
+		final List<RowGroup> rowGroups = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final int rows = in.readInt();
+			final Chunk[] chunks = new Chunk[columns];
+			for (int c = 0; c < columns; c++)
+				chunks[c] = new Chunk(in.readLong(), in.readInt(), in.readInt(), in.readInt(), readString(in), readString(in));
+			rowGroups.add(new RowGroup(rows, chunks));
+		}
+		return rowGroups;
+	}
+
+	static class RowGroup {
+		final int rows;
+		final Chunk[] chunks;
+
+		RowGroup(int rows, Chunk[] chunks) {
+			this.rows = rows;
+			this.chunks = chunks;
+		}
+	}
+
+	static class Chunk {
+		final long offset;
+		final int length;
+		final int rawLength;
+		final int dictionarySize;
+		final String min;
+		final String max;
+
+		Chunk(long offset, int length, int rawLength, int dictionarySize, String min, String max) {
+			this.offset = offset;
+			this.length = length;
+			this.rawLength = rawLength;
+			this.dictionarySize = dictionarySize;
+			this.min = min;
+			this.max = max;
+		}
+
+		/**
+		 * @return false if value is not in the dictionary for sure
+		 */
+		boolean mayContain(String value) {
+			return min.compareTo(value) <= 0 && max.compareTo(value) >= 0;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.metrics.Counter;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads interactions from a columnar file written by {@link ColumnarInteractionWriter}. Only the
+ * chunks of the requested columns are read, and every distinct value of a column in a row group is
+ * parsed once: interactions with the same value share the same, unmodifiable, lists of fields.
+ * Since most MITAB columns are very repetitive, this is much faster than parsing text.
+ * <p>
+ * With {@link ColumnarInteractionReader#withFilter(MitabColumn, String)}, row groups that cannot
+ * contain the value are not read at all, and rows are filtered by their dictionary code before
+ * creating any interaction.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ColumnarInteractionReader implements AutoCloseable, Iterable<Interaction>, Iterator<Interaction> {
+
+	public static final String EXTENSION = ".mitabc";
+
+	private final FileChannel channel;
+	private final PsiMitabVersion version;
+	private final PsiInteractionParser parser;
+	private final int numberOfColumns;
+	private final List<ColumnarFormat.RowGroup> rowGroups;
+	private final Inflater inflater = new Inflater(true);
+	private final Counter bytes = new Counter();
+	private Set<MitabColumn> columns;
+	private MitabColumn filterColumn;
+	private String filterValue;
+	private boolean started;
+	private int group;
+	private ColumnarFormat.RowGroup rowGroup;
+	private Decoded[] decoded;
+	private Decoded filter;
+	private int filterCode;
+	private int row;
+	private Interaction next;
+
+	public ColumnarInteractionReader(File file) throws IOException {
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			final long size = channel.size();
+			if (size < ColumnarFormat.TRAILER_SIZE) throw new IOException(file + " is not a columnar MITAB file");
+			final ByteBuffer trailer = read(size - ColumnarFormat.TRAILER_SIZE, ColumnarFormat.TRAILER_SIZE);
+			final long footer = trailer.getLong();
+			if (trailer.getInt() != ColumnarFormat.MAGIC) throw new IOException(file + " is not a columnar MITAB file");
+			final DataInputStream header = new DataInputStream(new ByteArrayInputStream(read(0, (int) Math.min(footer, 1024)).array()));
+			if (header.readInt() != ColumnarFormat.MAGIC || header.readInt() != ColumnarFormat.VERSION)
+				throw new IOException(file + " is not a columnar MITAB file of version " + ColumnarFormat.VERSION);
+			this.version = PsiMitabVersion.valueOf(header.readUTF());
+			this.numberOfColumns = header.readInt();
+			final DataInputStream in = new DataInputStream(new ByteArrayInputStream(read(footer, (int) (size - ColumnarFormat.TRAILER_SIZE - footer)).array()));
+			this.rowGroups = ColumnarFormat.readFooter(in, numberOfColumns);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		this.parser = PsiInteractionParser.instance(version);
+		this.columns = EnumSet.allOf(MitabColumn.class);
+	}
+
+	/**
+	 * Reads only the given columns. The rest of properties of the interactions are left empty. Must
+	 * be called before reading any interaction.
+	 *
+	 * @return this reader
+	 */
+	public ColumnarInteractionReader withColumns(Set<MitabColumn> columns) {
+		if (started) throw new IllegalStateException("columns must be set before reading");
+		this.columns = EnumSet.noneOf(MitabColumn.class);
+		this.columns.addAll(columns);
+		return this;
+	}
+
+	/**
+	 * Returns only the interactions whose column, written as MITAB text, is equal to value. For
+	 * instance, <code>withFilter(MitabColumn.ID_A, "uniprotkb:P04637")</code>. The column does not
+	 * need to be one of the read columns. Must be called before reading any interaction.
+	 *
+	 * @return this reader
+	 */
+	public ColumnarInteractionReader withFilter(MitabColumn column, String value) {
+		if (started) throw new IllegalStateException("filter must be set before reading");
+		this.filterColumn = column;
+		this.filterValue = value;
+		return this;
+	}
+
+	public PsiMitabVersion getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return total number of interactions in the file, without filtering
+	 */
+	public long size() {
+		return rowGroups.stream().mapToLong(rowGroup -> rowGroup.rows).sum();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next != null) return true;
+		started = true;
+		try {
+			while (true) {
+				if (rowGroup != null) {
+					while (row < rowGroup.rows) {
+						final int current = row++;
+						if (filter != null && filter.codes[current] != filterCode) continue;
+						next = interaction(current);
+						return true;
+					}
+				}
+				if (!nextRowGroup()) return false;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public Interaction next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		final Interaction interaction = next;
+		next = null;
+		return interaction;
+	}
+
+	private Interaction interaction(int row) {
+		final Interaction interaction = new Interaction();
+		for (Decoded column : decoded)
+			if (column != null) parser.copyColumn(column.parsed(row), interaction, column.column);
+		return interaction;
+	}
+
+	/**
+	 * Loads the chunks of the next row group that may contain rows that pass the filter.
+	 *
+	 * @return false if there are no more row groups
+	 */
+	private boolean nextRowGroup() throws IOException {
+		rowGroup = null;
+		while (group < rowGroups.size()) {
+			final ColumnarFormat.RowGroup candidate = rowGroups.get(group++);
+			if (filterColumn != null) {
+				if (filterColumn.ordinal() >= numberOfColumns) return false;
+				final ColumnarFormat.Chunk chunk = candidate.chunks[filterColumn.ordinal()];
+				if (!chunk.mayContain(filterValue)) continue;
+				filter = decode(filterColumn, chunk, candidate.rows);
+				filterCode = Arrays.asList(filter.dictionary).indexOf(filterValue);
+				if (filterCode < 0) continue;
+			}
+			decoded = new Decoded[numberOfColumns];
+			for (MitabColumn column : columns) {
+				if (column.ordinal() >= numberOfColumns) continue;
+				decoded[column.ordinal()] = column == filterColumn
+						? filter
+						: decode(column, candidate.chunks[column.ordinal()], candidate.rows);
+			}
+			rowGroup = candidate;
+			row = 0;
+			return true;
+		}
+		return false;
+	}
+
+	private Decoded decode(MitabColumn column, ColumnarFormat.Chunk chunk, int rows) throws IOException {
+		final ByteBuffer compressed = read(chunk.offset, chunk.length);
+		final byte[] raw = new byte[chunk.rawLength];
+		inflater.reset();
+		inflater.setInput(compressed.array(), 0, chunk.length);
+		try {
+			if (inflater.inflate(raw) != chunk.rawLength)
+				throw new IOException("corrupted chunk at " + chunk.offset);
+		} catch (DataFormatException e) {
+			throw new IOException("corrupted chunk at " + chunk.offset, e);
+		}
+		bytes.add(chunk.rawLength);
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+		final String[] dictionary = new String[in.readInt()];
+		for (int i = 0; i < dictionary.length; i++) dictionary[i] = ColumnarFormat.readString(in);
+		final int width = ColumnarFormat.codeWidth(dictionary.length);
+		final int[] codes = new int[rows];
+		for (int i = 0; i < rows; i++)
+			codes[i] = width == 1 ? in.readUnsignedByte() : width == 2 ? in.readUnsignedShort() : in.readInt();
+		return new Decoded(column, dictionary, codes);
+	}
+
+	private ByteBuffer read(long position, int length) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new EOFException("truncated file at " + (position + buffer.position()));
+		return buffer.flip();
+	}
+
+	/**
+	 * @return number of bytes of the column chunks read, after decompression. Can be called from
+	 * any thread while reading
+	 */
+	public long getBytesRead() {
+		return bytes.get();
+	}
+
+	@Override
+	public Iterator<Interaction> iterator() {
+		return this;
+	}
+
+	public Stream<Interaction> interactions() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+	}
+
+	public List<Interaction> readAll() {
+		return interactions().collect(Collectors.toList());
+	}
+
+	@Override
+	public void close() throws IOException {
+		inflater.end();
+		channel.close();
+	}
+
+	/**
+	 * A column of the current row group. Every value of the dictionary is parsed on first use
+	 * into an interaction that only has this column.
+	 */
+	private class Decoded {
+		private final MitabColumn column;
+		private final String[] dictionary;
+		private final int[] codes;
+		private final Interaction[] parsed;
+
+		Decoded(MitabColumn column, String[] dictionary, int[] codes) {
+			this.column = column;
+			this.dictionary = dictionary;
+			this.codes = codes;
+			this.parsed = new Interaction[dictionary.length];
+		}
+
+		Interaction parsed(int row) {
+			final int code = codes[row];
+			if (parsed[code] == null) {
+				parsed[code] = new Interaction();
+				parser.parseColumn(parsed[code], column, dictionary[code]);
+			}
+			return parsed[code];
+		}
+	}
+}
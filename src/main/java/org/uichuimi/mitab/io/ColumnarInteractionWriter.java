@@ -0,0 +1,193 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.consumer.Acceptor;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.Deflater;
+
+/**
+ * Writes interactions in a columnar binary format (see {@link ColumnarFormat}), that can be read
+ * much faster than MITAB text with {@link ColumnarInteractionReader}. Interactions are grouped in
+ * row groups, and every column of a row group is dictionary encoded and deflated independently.
+ * Values are stored as MITAB text, so any interaction can be written, and reading it back gives
+ * the same MITAB line.
+ * <p>
+ * Interactions of a whole row group are kept in memory, as MITAB text of every column, until the
+ * row group is complete. Lazy interactions are the cheapest to write, since the columns that were
+ * not accessed are copied from the line.
+ */
+public class ColumnarInteractionWriter implements Acceptor<Interaction>, AutoCloseable {
+
+	public static final int ROW_GROUP_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final PsiMitabVersion version;
+	private final PsiInteractionParser parser;
+	private final int rowGroupSize;
+	private final ColumnBuffer[] columns;
+	private final List<ColumnarFormat.RowGroup> rowGroups = new ArrayList<>();
+	private final StringBuilder builder = new StringBuilder();
+	private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	private final DataOutputStream data = new DataOutputStream(bytes);
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+	private byte[] compressed = new byte[1 << 16];
+	private int rows;
+
+	public ColumnarInteractionWriter(File file, PsiMitabVersion version) throws IOException {
+		this(file, version, ROW_GROUP_SIZE);
+	}
+
+	/**
+	 * @param file         output file
+	 * @param version      MITAB version, which gives the number of columns
+	 * @param rowGroupSize number of interactions in every row group
+	 */
+	public ColumnarInteractionWriter(File file, PsiMitabVersion version, int rowGroupSize) throws IOException {
+		if (rowGroupSize < 1) throw new IllegalArgumentException("rowGroupSize must be at least 1");
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.version = version;
+		this.parser = PsiInteractionParser.instance(version);
+		this.rowGroupSize = rowGroupSize;
+		this.columns = new ColumnBuffer[version.getColumns()];
+		for (int i = 0; i < columns.length; i++) columns[i] = new ColumnBuffer(MitabColumn.values()[i], rowGroupSize);
+		data.writeInt(ColumnarFormat.MAGIC);
+		data.writeInt(ColumnarFormat.VERSION);
+		data.writeUTF(version.name());
+		data.writeInt(columns.length);
+		writeBytes();
+	}
+
+	@Override
+	public void start() {
+	}
+
+	@Override
+	public void accept(Interaction interaction) {
+		write(interaction);
+	}
+
+	/**
+	 * @throws UncheckedIOException if the output cannot be written
+	 */
+	public void write(Interaction interaction) {
+		for (ColumnBuffer column : columns) {
+			builder.setLength(0);
+			parser.appendColumn(interaction, column.column, builder);
+			column.add(builder);
+		}
+		if (++rows == rowGroupSize) {
+			try {
+				writeRowGroup();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private void writeRowGroup() throws IOException {
+		final ColumnarFormat.Chunk[] chunks = new ColumnarFormat.Chunk[columns.length];
+		for (int i = 0; i < columns.length; i++) chunks[i] = writeChunk(columns[i]);
+		rowGroups.add(new ColumnarFormat.RowGroup(rows, chunks));
+		rows = 0;
+	}
+
+	private ColumnarFormat.Chunk writeChunk(ColumnBuffer column) throws IOException {
+		final List<String> dictionary = column.dictionary;
+		data.writeInt(dictionary.size());
+		String min = null;
+		String max = null;
+		for (String value : dictionary) {
+			ColumnarFormat.writeString(data, value);
+			if (min == null || value.compareTo(min) < 0) min = value;
+			if (max == null || value.compareTo(max) > 0) max = value;
+		}
+		final int width = ColumnarFormat.codeWidth(dictionary.size());
+		for (int row = 0; row < rows; row++) {
+			final int code = column.codes[row];
+			if (width == 1) data.writeByte(code);
+			else if (width == 2) data.writeShort(code);
+			else data.writeInt(code);
+		}
+		final int rawLength = bytes.size();
+		deflater.reset();
+		deflater.setInput(bytes.toByteArray());
+		deflater.finish();
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == compressed.length) compressed = Arrays.copyOf(compressed, 2 * length);
+			length += deflater.deflate(compressed, length, compressed.length - length);
+		}
+		bytes.reset();
+		final long offset = channel.position();
+		write(ByteBuffer.wrap(compressed, 0, length));
+		column.clear();
+		return new ColumnarFormat.Chunk(offset, length, rawLength, dictionary.size(), min, max);
+	}
+
+	private void writeBytes() throws IOException {
+		write(ByteBuffer.wrap(bytes.toByteArray()));
+		bytes.reset();
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) channel.write(buffer);
+	}
+
+	@Override
+	public void close() {
+		// the channel is closed even if the last row group or the footer cannot be written
+		try (channel) {
+			if (rows > 0) writeRowGroup();
+			final long footer = channel.position();
+			ColumnarFormat.writeFooter(data, rowGroups);
+			data.writeLong(footer);
+			data.writeInt(ColumnarFormat.MAGIC);
+			writeBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Dictionary and codes of a column in the current row group.
+	 */
+	private static class ColumnBuffer {
+		private final MitabColumn column;
+		private final Map<String, Integer> codesByValue = new HashMap<>();
+		private final List<String> dictionary = new ArrayList<>();
+		private final int[] codes;
+		private int size;
+
+		ColumnBuffer(MitabColumn column, int rowGroupSize) {
+			this.column = column;
+			this.codes = new int[rowGroupSize];
+		}
+
+		void add(CharSequence text) {
+			final String value = text.toString();
+			Integer code = codesByValue.get(value);
+			if (code == null) {
+				code = dictionary.size();
+				codesByValue.put(value, code);
+				dictionary.add(value);
+			}
+			codes[size++] = code;
+		}
+
+		void clear() {
+			codesByValue.clear();
+			dictionary.clear();
+			size = 0;
+		}
+	}
+}
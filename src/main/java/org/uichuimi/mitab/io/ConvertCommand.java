@@ -0,0 +1,47 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+/**
+ * Converts a MITAB file into the columnar format read by {@link ColumnarInteractionReader}.
+ */
+@Command(name = "convert",
+		description = "convert a MITAB file into columnar format, which is much faster to read")
+class ConvertCommand implements Callable<Integer> {
+
+	@Option(names = {"-h", "--help"}, usageHelp = true, description = "display this help message")
+	boolean usageHelpRequested;
+
+	@Parameters(index = "0", description = "MITAB file")
+	private File input;
+
+	@Option(names = {"-o", "--output"}, description = "columnar file (default: <input>" + ColumnarInteractionReader.EXTENSION + ")")
+	private File output;
+
+	@Option(names = {"--row-group-size"}, description = "interactions per row group (default: ${DEFAULT-VALUE})")
+	private int rowGroupSize = ColumnarInteractionWriter.ROW_GROUP_SIZE;
+
+	@Override
+	public Integer call() throws Exception {
+		final File file = output == null ? new File(input.getPath() + ColumnarInteractionReader.EXTENSION) : output;
+		final PsiMitabVersion version = PsiMitabVersion.getDefault();
+		long count = 0;
+		// lazy interactions are written without parsing them
+		try (InteractionReader reader = new InteractionReader(input, version).withLazyParsing();
+		     ColumnarInteractionWriter writer = new ColumnarInteractionWriter(file, version, rowGroupSize)) {
+			for (Interaction interaction : reader) {
+				writer.write(interaction);
+				count++;
+			}
+		}
+		System.err.printf("%,d interactions written to %s%n", count, file);
+		return 0;
+	}
+}
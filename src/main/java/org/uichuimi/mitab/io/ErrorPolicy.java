@@ -0,0 +1,21 @@
+package org.uichuimi.mitab.io;
+
+/**
+ * What readers do with lines that do not match MITAB syntax.
+ *
+ * @see InteractionReader#withErrorPolicy(ErrorPolicy, Quarantine)
+ */
+public enum ErrorPolicy {
+	/**
+	 * Stops reading with an IllegalArgumentException, with the line number and the reason.
+	 */
+	FAIL,
+	/**
+	 * Ignores the line, which is only counted.
+	 */
+	SKIP,
+	/**
+	 * Ignores the line, and writes it to a {@link Quarantine} with its line number and the reason.
+	 */
+	QUARANTINE
+}
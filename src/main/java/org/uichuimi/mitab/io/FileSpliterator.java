@@ -0,0 +1,116 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.LineFilter;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the lines of an uncompressed file. The file is split into byte ranges, and
+ * every range is aligned to line boundaries: a range contains the lines that start inside it, even
+ * if they end after it. Every range is read with its own {@link MappedLineSource} over the same
+ * channel, so ranges can be traversed from different threads.
+ */
+class FileSpliterator implements Spliterator<Interaction> {
+
+	/**
+	 * Ranges smaller than this are not split.
+	 */
+	static final long MIN_SPLIT = 1 << 20;
+	private static final byte NEW_LINE = '\n';
+
+	private final FileChannel channel;
+	private final PsiInteractionParser parser;
+	private final LineFilter filter;
+	/**
+	 * Start of the next line to read.
+	 */
+	private long position;
+	/**
+	 * Lines starting at or after end belong to other spliterator.
+	 */
+	private long end;
+	/**
+	 * Created on first read.
+	 */
+	private MappedLineSource source;
+
+	/**
+	 * @param channel  channel of the file
+	 * @param parser   parser for the lines
+	 * @param filter   if not null, only lines that match it are parsed
+	 * @param position start of the range, must be the start of a line
+	 * @param end      end of the range (exclusive)
+	 */
+	FileSpliterator(FileChannel channel, PsiInteractionParser parser, LineFilter filter, long position, long end) {
+		this.channel = channel;
+		this.parser = parser;
+		this.filter = filter;
+		this.position = position;
+		this.end = end;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Interaction> action) {
+		try {
+			if (source == null) source = new MappedLineSource(channel, position, end);
+			CharSequence line;
+			do {
+				line = source.readLine();
+				position = source.position();
+				if (line == null) return false;
+			} while (filter != null && !filter.test(line));
+			action.accept(parser.toInteraction(line));
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public Spliterator<Interaction> trySplit() {
+		if (end - position < MIN_SPLIT) return null;
+		try {
+			final long split = nextLineStart(position + (end - position) / 2);
+			if (split >= end) return null;
+			final FileSpliterator prefix = new FileSpliterator(channel, parser, filter, position, split);
+			position = split;
+			source = null;
+			return prefix;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the first position at or after from that is the start of a line
+	 */
+	private long nextLineStart(long from) throws IOException {
+		final ByteBuffer chunk = ByteBuffer.allocate(4096);
+		long offset = from - 1;
+		while (true) {
+			chunk.clear();
+			final int read = channel.read(chunk, offset);
+			if (read <= 0) return channel.size();
+			for (int i = 0; i < read; i++)
+				if (chunk.get(i) == NEW_LINE) return offset + i + 1;
+			offset += read;
+		}
+	}
+
+	@Override
+	public long estimateSize() {
+		return end - position;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+}
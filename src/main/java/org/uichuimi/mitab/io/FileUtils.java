@@ -1,5 +1,10 @@
 package org.uichuimi.mitab.io;
 
+import org.uichuimi.mitab.io.compress.BgzfInputStream;
+import org.uichuimi.mitab.io.compress.ParallelBgzfInputStream;
+import org.uichuimi.mitab.io.compress.ParallelGZIPOutputStream;
+import org.uichuimi.mitab.io.compress.ReadAheadInputStream;
+
 import java.io.*;
 import java.util.zip.*;
 
@@ -10,6 +15,11 @@ import java.util.zip.*;
  */
 public class FileUtils {
 
+	/**
+	 * Default number of threads to decompress BGZF files.
+	 */
+	public static final int DECOMPRESSION_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
 	/**
 	 * Get a buffered reader from the file.
 	 *
@@ -25,7 +35,8 @@ public class FileUtils {
 	}
 
 	/**
-	 * Get an input stream from the file.
+	 * Get an input stream from the file. Only the first entry of zip files is read, use {@link
+	 * ArchiveInteractionReader} to read all the entries.
 	 *
 	 * @param file
 	 * 		input file
@@ -35,12 +46,34 @@ public class FileUtils {
 	 * 		when extension is '.gz'.
 	 */
 	public static InputStream getInputStream(File file) throws IOException {
+		return getInputStream(file, DECOMPRESSION_THREADS);
+	}
+
+	/**
+	 * Get an input stream from the file. Gzip files are decompressed in a background thread, so
+	 * decompression and parsing run at the same time. BGZF files are decompressed by threads
+	 * workers. Only the first entry of zip files is read, use {@link ArchiveInteractionReader} to
+	 * read all the entries.
+	 *
+	 * @param file
+	 * 		input file
+	 * @param threads
+	 * 		number of decompression threads for BGZF files
+	 * @return an input stream pointing at the beginning of the file
+	 * @throws IOException
+	 * 		if file is unreadable or not in zip format when extension is '.zip' or not in gzip format
+	 * 		when extension is '.gz'.
+	 * @see ReadAheadInputStream
+	 * @see ParallelBgzfInputStream
+	 */
+	public static InputStream getInputStream(File file, int threads) throws IOException {
 		if (file.getName().endsWith(".zip")) {
 			final ZipFile zipFile = new ZipFile(file);
 			final ZipEntry zipEntry = zipFile.entries().nextElement();
 			return zipFile.getInputStream(zipEntry);
 		} else if (file.getName().endsWith(".gz")) {
-			return new GZIPInputStream(new FileInputStream(file));
+			if (BgzfInputStream.isBgzf(file)) return new ParallelBgzfInputStream(new FileInputStream(file), threads);
+			return new ReadAheadInputStream(new GZIPInputStream(new FileInputStream(file), 1 << 16));
 		} else return new FileInputStream(file);
 	}
 
@@ -56,9 +89,28 @@ public class FileUtils {
 	 */
 
 	public static OutputStream getOutputStream(File file) throws IOException {
+		return getOutputStream(file, 1);
+	}
+
+	/**
+	 * Get an output stream for the file. No parent dir is created, so at least the parent directory
+	 * must exists. If the extension is '.zip' or '.gz' the file will be compressed. Gzip files are
+	 * compressed in parallel when threads is greater than 1.
+	 *
+	 * @param file
+	 * 		output file
+	 * @param threads
+	 * 		number of compression threads for gzip files
+	 * @return an output stream ready to be written
+	 * @throws IOException
+	 * 		if file cannot be written, or is inaccessible.
+	 * @see ParallelGZIPOutputStream
+	 */
+	public static OutputStream getOutputStream(File file, int threads) throws IOException {
 		if (file.getName().endsWith(".zip")) {
 			return new ZipOutputStream(new FileOutputStream(file));
 		} else if (file.getName().endsWith(".gz")) {
+			if (threads > 1) return new ParallelGZIPOutputStream(new FileOutputStream(file), threads);
 			return new GZIPOutputStream(new FileOutputStream(file));
 		} else return new FileOutputStream(file);
 	}
@@ -0,0 +1,40 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+/**
+ * Builds an {@link InteractorIndex} of a MITAB file, which can be used with {@link
+ * IndexedInteractionReader}.
+ */
+@Command(name = "index",
+		description = "index the interactions of an uncompressed or BGZF MITAB file by interactor identifier")
+class IndexCommand implements Callable<Integer> {
+
+	@Option(names = {"-h", "--help"}, usageHelp = true, description = "display this help message")
+	boolean usageHelpRequested;
+
+	@Parameters(index = "0", description = "MITAB file")
+	private File input;
+
+	@Option(names = {"-o", "--output"}, description = "index file (default: <input>" + InteractorIndex.EXTENSION + ")")
+	private File output;
+
+	@Option(names = {"-a", "--alternative"}, description = "index alternative identifiers too")
+	private boolean alternative;
+
+	@Override
+	public Integer call() throws Exception {
+		final File index = output == null ? InteractorIndex.of(input) : output;
+		InteractorIndex.build(input, index, alternative, PsiMitabVersion.getDefault());
+		try (InteractorIndex interactors = InteractorIndex.open(index)) {
+			System.err.printf("%,d identifiers indexed in %s%n", interactors.size(), index);
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,102 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the interactions of an interactor from a MITAB file, using an {@link InteractorIndex}.
+ * Only the lines listed in the index are read and parsed, so the cost of a lookup depends on the
+ * number of interactions of the interactor, not on the size of the file.
+ * <p>
+ * The index must be built for the same file with {@link InteractorIndex#build(File, File,
+ * boolean, PsiMitabVersion)}, or with the <code>mitab index</code> command. This reader is not
+ * thread safe.
+ */
+public class IndexedInteractionReader implements AutoCloseable {
+
+	private static final byte NEW_LINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	private final InteractorIndex index;
+	private final PsiInteractionParser parser;
+	private FileChannel channel;
+	private BgzfLineSource bgzf;
+	private ByteBuffer buffer;
+
+	/**
+	 * Opens a reader that uses the default index of the file.
+	 *
+	 * @see InteractorIndex#of(File)
+	 */
+	public IndexedInteractionReader(File file) throws IOException {
+		this(file, InteractorIndex.of(file), PsiMitabVersion.getDefault());
+	}
+
+	public IndexedInteractionReader(File file, File index, PsiMitabVersion version) throws IOException {
+		this.index = InteractorIndex.open(index);
+		this.parser = PsiInteractionParser.instance(version);
+		try {
+			if (this.index.isBgzf()) bgzf = new BgzfLineSource(file);
+			else {
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				buffer = ByteBuffer.allocate(8192);
+			}
+		} catch (IOException e) {
+			this.index.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param identifier interactor identifier, as database:identifier (e.g. uniprotkb:P04637)
+	 * @return the interactions of the interactor, in file order. Empty if the interactor is not in
+	 * the index
+	 */
+	public List<Interaction> findByInteractor(String identifier) throws IOException {
+		final long[] positions = index.positions(identifier);
+		final List<Interaction> interactions = new ArrayList<>(positions.length);
+		for (long position : positions) interactions.add(parser.toInteraction(lineAt(position)));
+		return interactions;
+	}
+
+	private CharSequence lineAt(long position) throws IOException {
+		if (bgzf != null) {
+			bgzf.seek(position);
+			return bgzf.readLine();
+		}
+		// lines are usually a few KB, so they are read with positional reads instead of mapping
+		buffer.clear();
+		int scanned = 0;
+		while (true) {
+			final int read = channel.read(buffer, position + buffer.position());
+			final byte[] bytes = buffer.array();
+			for (int i = scanned; i < buffer.position(); i++)
+				if (bytes[i] == NEW_LINE) return line(bytes, i);
+			scanned = buffer.position();
+			if (read < 0) return line(bytes, scanned);
+			if (!buffer.hasRemaining()) buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer.flip());
+		}
+	}
+
+	private static CharSequence line(byte[] bytes, int end) {
+		if (end > 0 && bytes[end - 1] == CARRIAGE_RETURN) end -= 1;
+		return new ByteLine(Arrays.copyOf(bytes, end), 0, end);
+	}
+
+	@Override
+	public void close() throws IOException {
+		index.close();
+		if (channel != null) channel.close();
+		if (bgzf != null) bgzf.close();
+	}
+}
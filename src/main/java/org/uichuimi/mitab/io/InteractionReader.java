@@ -1,50 +1,262 @@
 package org.uichuimi.mitab.io;
 
+import org.uichuimi.mitab.io.input.LineFilter;
+import org.uichuimi.mitab.io.input.ParseError;
 import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.metrics.Histogram;
+import org.uichuimi.mitab.io.metrics.Metrics;
 import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
 import org.uichuimi.mitab.io.model.PsiMitabVersion;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import java.util.zip.GZIPInputStream;
 
 @SuppressWarnings("WeakerAccess")
 public class InteractionReader implements AutoCloseable, Iterable<Interaction>, Iterator<Interaction> {
 
-	private final BufferedReader reader;
-	private final PsiInteractionParser parser;
+	private final LineSource source;
+	private PsiInteractionParser parser;
+	/**
+	 * Source file, when the reader was created from an uncompressed file.
+	 */
+	private File file;
+	private FileChannel channel;
+	private boolean started;
 	private Interaction next;
+	private int threads = 1;
+	private boolean ordered = true;
+	private ParallelParser pipeline;
+	private Metrics metrics;
+	private Histogram parseLatency;
+	private Rejections rejections = new Rejections(ErrorPolicy.FAIL, null);
+	private LineFilter filter;
+	private final ParseError error = new ParseError();
+	/**
+	 * Number of the last line read, starting at 1.
+	 */
+	private long number;
 
 	public InteractionReader(File file) throws IOException {
-		this(getInputStream(file));
+		this(file, PsiMitabVersion.getDefault());
 	}
 
+	/**
+	 * Creates a reader for the file. Files ending with .gz are decompressed in background threads
+	 * (see {@link FileUtils#getInputStream(File)}). Any other file is considered uncompressed and is
+	 * read through memory mapping.
+	 */
 	public InteractionReader(File file, PsiMitabVersion version) throws IOException {
-		this(getInputStream(file), version);
+		this(getLineSource(file), version);
+		if (!file.getName().endsWith(".gz"))
+			this.file = file;
 	}
 
-	private static InputStream getInputStream(File file) throws IOException {
+	/**
+	 * @return a memory mapped source for uncompressed files, or a decompressing source for .gz files
+	 */
+	static LineSource getLineSource(File file) throws IOException {
 		if (file.getName().endsWith(".gz"))
-			return new GZIPInputStream(new FileInputStream(file));
-		else return new FileInputStream(file);
+			return new ReaderLineSource(FileUtils.getInputStream(file));
+		else return MappedLineSource.open(file);
 	}
 
 	public InteractionReader(InputStream inputStream, PsiMitabVersion version) throws IOException {
-		this.reader = new BufferedReader(new InputStreamReader(inputStream));
-		this.reader.readLine();// skip header
+		this(new ReaderLineSource(inputStream), version);
+	}
+
+	private InteractionReader(LineSource source, PsiMitabVersion version) throws IOException {
+		this(source, version, true);
+	}
+
+	private InteractionReader(LineSource source, PsiMitabVersion version, boolean header) throws IOException {
+		this.source = source;
+		if (header) {
+			this.source.readLine();
+			number = 1;
+		}
 		parser = PsiInteractionParser.instance(version);
 	}
 
+	/**
+	 * Creates a reader of a BGZF compressed file that starts at the given interaction, using the
+	 * default line index of the file.
+	 *
+	 * @param line number of the first interaction to read, starting at 0
+	 * @see LineIndex#of(File)
+	 */
+	public static InteractionReader fromLine(File file, long line, PsiMitabVersion version) throws IOException {
+		return fromLine(file, LineIndex.read(LineIndex.of(file)), line, version);
+	}
+
+	/**
+	 * Creates a reader of a BGZF compressed file that starts at the given interaction. Only the
+	 * block of the nearest indexed interaction is decompressed, and less than interval lines are
+	 * skipped, so the cost does not depend on the position of the interaction.
+	 *
+	 * @param index line index of the file
+	 * @param line  number of the first interaction to read, starting at 0
+	 */
+	public static InteractionReader fromLine(File file, LineIndex index, long line, PsiMitabVersion version) throws IOException {
+		final BgzfLineSource source = new BgzfLineSource(file);
+		try {
+			source.seek(index.offset(line));
+			for (long i = index.indexedLine(line); i < line; i++) source.readLine();
+		} catch (IOException | RuntimeException e) {
+			source.close();
+			throw e;
+		}
+		final InteractionReader reader = new InteractionReader(source, version, false);
+		// line 1 is the header
+		reader.number = line + 1;
+		return reader;
+	}
+
 	public InteractionReader(InputStream inputStream) throws IOException {
 		this(inputStream, PsiMitabVersion.getDefault());
 	}
 
+	/**
+	 * Parses lines in parallel using threads workers. Interactions are returned in the same order
+	 * as in the input. Must be called before reading any interaction.
+	 *
+	 * @param threads number of parsing threads. 1 disables parallel parsing
+	 * @return this reader
+	 * @see InteractionReader#withThreads(int, boolean)
+	 */
+	public InteractionReader withThreads(int threads) {
+		return withThreads(threads, true);
+	}
+
+	/**
+	 * Parses lines in parallel using threads workers. A dedicated thread reads lines in batches,
+	 * and workers transform every batch into interactions. Must be called before reading any
+	 * interaction.
+	 *
+	 * @param threads number of parsing threads. 1 disables parallel parsing
+	 * @param ordered if true, interactions are returned in input order. If false, they are returned
+	 *                as soon as they are parsed.
+	 * @return this reader
+	 */
+	public InteractionReader withThreads(int threads, boolean ordered) {
+		if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+		if (pipeline != null || next != null)
+			throw new IllegalStateException("threads must be set before reading");
+		this.threads = threads;
+		this.ordered = ordered;
+		return this;
+	}
+
+	/**
+	 * Parses only the given columns. The rest of properties of the interactions are left empty.
+	 * Parsing is much faster when only a few columns are needed. Must be called before reading any
+	 * interaction.
+	 *
+	 * @param columns columns to parse
+	 * @return this reader
+	 */
+	public InteractionReader withColumns(Set<MitabColumn> columns) {
+		if (started) throw new IllegalStateException("columns must be set before reading");
+		parser = parser.withColumns(columns);
+		return this;
+	}
+
+	/**
+	 * Returns lazy interactions, which parse every column on first access. Writing a lazy
+	 * interaction copies the columns that were not accessed from the input line. Must be called
+	 * before reading any interaction.
+	 *
+	 * @return this reader
+	 * @see PsiInteractionParser#lazy()
+	 */
+	public InteractionReader withLazyParsing() {
+		if (started) throw new IllegalStateException("lazy parsing must be set before reading");
+		parser = parser.lazy();
+		return this;
+	}
+
+	/**
+	 * Records the parse time of every line in the histogram mitab_parse_seconds and, when parsing
+	 * in parallel, the number of batches in flight in the gauge mitab_parser_batches. Must be
+	 * called before reading any interaction.
+	 *
+	 * @return this reader
+	 */
+	public InteractionReader withMetrics(Metrics metrics) {
+		if (started) throw new IllegalStateException("metrics must be set before reading");
+		this.metrics = metrics;
+		this.parseLatency = metrics.histogram("mitab_parse_seconds", "time to parse a line into an interaction");
+		return this;
+	}
+
+	/**
+	 * Reads only the lines that match filter. Lines are checked before parsing, so lines that do
+	 * not match cost only the tokenization of the columns of the filter. Lines that do not match
+	 * are not parsed, so they are not checked by the error policy. Must be called before reading
+	 * any interaction.
+	 *
+	 * @param filter filter of lines, or null to read every line
+	 * @return this reader
+	 */
+	public InteractionReader withFilter(LineFilter filter) {
+		if (started) throw new IllegalStateException("filter must be set before reading");
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * Sets what to do with lines that do not match MITAB syntax. By default, reading fails. Lines
+	 * are validated without exceptions, so skipping invalid lines is as fast as reading valid
+	 * ones. Lazy interactions detect errors on access, so they are not affected. Must be called
+	 * before reading any interaction.
+	 *
+	 * @param policy {@link ErrorPolicy#FAIL} or {@link ErrorPolicy#SKIP}
+	 * @return this reader
+	 * @see InteractionReader#withErrorPolicy(ErrorPolicy, Quarantine)
+	 */
+	public InteractionReader withErrorPolicy(ErrorPolicy policy) {
+		return withErrorPolicy(policy, null);
+	}
+
+	/**
+	 * Sets what to do with lines that do not match MITAB syntax. Must be called before reading any
+	 * interaction.
+	 *
+	 * @param quarantine where rejected lines are written with {@link ErrorPolicy#QUARANTINE}. It is
+	 *                   not closed by this reader
+	 * @return this reader
+	 */
+	public InteractionReader withErrorPolicy(ErrorPolicy policy, Quarantine quarantine) {
+		if (started) throw new IllegalStateException("error policy must be set before reading");
+		this.rejections = new Rejections(policy, quarantine);
+		return this;
+	}
+
+	/**
+	 * @return number of lines rejected by the error policy
+	 */
+	public long getRejected() {
+		return rejections.count();
+	}
+
+	/**
+	 * @return number of bytes read from the input, after decompression. Can be called from any
+	 * thread while reading
+	 */
+	public long getBytesRead() {
+		return source.bytesRead();
+	}
+
 	@Override
 	public void close() throws Exception {
-		reader.close();
+		if (pipeline != null) pipeline.close();
+		if (channel != null) channel.close();
+		source.close();
 	}
 
 	@Override
@@ -55,13 +267,33 @@ public class InteractionReader implements AutoCloseable, Iterable<Interaction>,
 	@Override
 	public boolean hasNext() {
 		if (next != null) return true;
+		started = true;
+		if (threads > 1) {
+			if (pipeline == null) {
+				pipeline = new ParallelParser(source, parser, threads, ordered, ParallelParser.BATCH_SIZE, parseLatency, rejections, filter, number + 1);
+				if (metrics != null)
+					metrics.gauge("mitab_parser_batches", "batches of lines being parsed or waiting to be read", pipeline::inFlight);
+			}
+			if (!pipeline.hasNext()) return false;
+			next = pipeline.next();
+			return true;
+		}
 		try {
-			final String line = reader.readLine();
-			if (line == null) return false;
-			next = parser.toInteraction(line);
+			while (next == null) {
+				final CharSequence line = source.readLine();
+				if (line == null) return false;
+				number++;
+				if (filter != null && !filter.test(line)) continue;
+				if (parseLatency == null) next = rejections.parse(parser, line, number, error);
+				else {
+					final long start = System.nanoTime();
+					next = rejections.parse(parser, line, number, error);
+					parseLatency.record(System.nanoTime() - start);
+				}
+			}
 			return true;
 		} catch (IOException e) {
-			return false;
+			throw new UncheckedIOException(e);
 		}
 	}
 
@@ -76,8 +308,36 @@ public class InteractionReader implements AutoCloseable, Iterable<Interaction>,
 	}
 
 	public Stream<Interaction> interactions() {
+		return interactions(false);
+	}
+
+	/**
+	 * Gets a stream of the interactions. When parallel is true and the reader was created from an
+	 * uncompressed file, no interaction has been read yet and the error policy is {@link
+	 * ErrorPolicy#FAIL}, the stream splits the file into byte
+	 * ranges aligned to lines, so every range can be read and parsed by a different thread. In
+	 * other cases, the stream reads lines sequentially from this reader.
+	 *
+	 * @param parallel if true, the returned stream is parallel
+	 * @return a stream of interactions
+	 */
+	public Stream<Interaction> interactions(boolean parallel) {
+		if (parallel && file != null && !started && rejections.failing()) {
+			try {
+				return StreamSupport.stream(fileSpliterator(), true);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
 		return StreamSupport.stream(Spliterators
-				.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+				.spliteratorUnknownSize(this, Spliterator.ORDERED), parallel);
+	}
+
+	private Spliterator<Interaction> fileSpliterator() throws IOException {
+		if (channel == null) channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		final MappedLineSource header = new MappedLineSource(channel, 0, Long.MAX_VALUE);
+		header.readLine();
+		return new FileSpliterator(channel, parser, filter, header.position(), channel.size());
 	}
 
 	public List<Interaction> readAll() {
@@ -1,37 +1,160 @@
 package org.uichuimi.mitab.io;
 
+import org.uichuimi.mitab.io.compress.BgzfOutputStream;
+import org.uichuimi.mitab.io.consumer.Acceptor;
 import org.uichuimi.mitab.io.input.PsiInteractionParser;
 import org.uichuimi.mitab.io.model.Interaction;
 import org.uichuimi.mitab.io.model.PsiMitabVersion;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
-public class InteractionWriter implements AutoCloseable {
+/**
+ * Writes interactions as MITAB lines. Every line is serialized into a reusable buffer, and then
+ * encoded in UTF-8, as lines are read, into a large byte buffer, so writing does not create
+ * intermediate strings. The output is
+ * only written when the buffer is full, on {@link InteractionWriter#flush()} and on {@link
+ * InteractionWriter#close()}.
+ * <p>
+ * When the output is a {@link BgzfOutputStream}, the writer can create a {@link LineIndex} with
+ * {@link InteractionWriter#withIndex(File, int)}.
+ */
+public class InteractionWriter implements Acceptor<Interaction>, AutoCloseable {
 
-	private final PrintStream printStream;
-	private PsiInteractionParser parser;
+	/**
+	 * Size of the output buffer, in bytes.
+	 */
+	static final int BUFFER_SIZE = 1 << 16;
+	private static final String NEWLINE = System.lineSeparator();
+
+	private final OutputStream outputStream;
+	private final PsiInteractionParser parser;
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final StringBuilder line = new StringBuilder(4096);
+	private char[] chars = new char[4096];
+	private CharBuffer input = CharBuffer.wrap(chars);
+	private LineIndex index;
+	private File indexFile;
+	private long lines;
 
 	public InteractionWriter(OutputStream outputStream, PsiMitabVersion version) {
-		printStream = new PrintStream(outputStream);
-		parser = PsiInteractionParser.instance(version);
-		printStream.println("#" + parser.headerLine());
+		this.outputStream = outputStream;
+		this.parser = PsiInteractionParser.instance(version);
+		writeLine("#" + parser.headerLine());
 	}
 
 	public InteractionWriter(OutputStream outputStream) {
-		printStream = new PrintStream(outputStream);
-		parser = PsiInteractionParser.instance();
+		this.outputStream = outputStream;
+		this.parser = PsiInteractionParser.instance();
 	}
 
 	public InteractionWriter(File file) throws FileNotFoundException {
 		this(new FileOutputStream(file));
 	}
 
+	/**
+	 * Records the virtual offset of one every interval interactions, and writes the index to
+	 * indexFile when the writer is closed. Must be called before writing any interaction.
+	 *
+	 * @throws IllegalStateException if the output is not a {@link BgzfOutputStream} or
+	 *                               interactions have already been written
+	 */
+	public InteractionWriter withIndex(File indexFile, int interval) {
+		if (!(outputStream instanceof BgzfOutputStream))
+			throw new IllegalStateException("only BGZF outputs can be indexed");
+		if (lines > 0) throw new IllegalStateException("interactions already written");
+		this.index = new LineIndex(interval);
+		this.indexFile = indexFile;
+		return this;
+	}
+
+	@Override
+	public void start() {
+	}
+
+	@Override
+	public void accept(Interaction interaction) {
+		write(interaction);
+	}
+
+	/**
+	 * @throws UncheckedIOException if the output cannot be written
+	 */
 	public void write(Interaction interaction) {
-		printStream.println(parser.toString(interaction));
+		try {
+			if (index != null && lines % index.getInterval() == 0) {
+				// the offset is only known once the previous lines are in the compressed stream
+				drain();
+				index.add(((BgzfOutputStream) outputStream).getVirtualOffset());
+			}
+			line.setLength(0);
+			parser.append(interaction, line);
+			line.append(NEWLINE);
+			encode();
+			lines++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeLine(String text) {
+		line.setLength(0);
+		line.append(text).append(NEWLINE);
+		try {
+			encode();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void encode() throws IOException {
+		final int length = line.length();
+		if (chars.length < length) {
+			chars = new char[Math.max(length, 2 * chars.length)];
+			input = CharBuffer.wrap(chars);
+		}
+		line.getChars(0, length, chars, 0);
+		input.clear().limit(length);
+		encoder.reset();
+		while (encoder.encode(input, buffer, true).isOverflow()) drain();
+		while (encoder.flush(buffer).isOverflow()) drain();
+	}
+
+	/**
+	 * Moves the encoded bytes to the output stream, without flushing it.
+	 */
+	private void drain() throws IOException {
+		outputStream.write(buffer.array(), 0, buffer.position());
+		buffer.clear();
+	}
+
+	/**
+	 * Writes any buffered line to the output.
+	 */
+	public void flush() {
+		try {
+			drain();
+			outputStream.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	@Override
 	public void close() {
-		printStream.close();
+		try {
+			drain();
+			outputStream.close();
+			if (index != null) index.write(indexFile);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 }
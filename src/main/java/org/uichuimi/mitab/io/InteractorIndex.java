@@ -0,0 +1,221 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.compress.BgzfInputStream;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.*;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Sorted on-disk index from interactor identifiers (database:identifier, like uniprotkb:P04637) to
+ * the positions of the lines of a MITAB file where they appear. Positions are byte offsets for
+ * uncompressed files and virtual offsets for BGZF files. The index is memory mapped and searched
+ * in place, so opening it does not depend on its size, and a lookup only touches a few pages.
+ * <p>
+ * The file contains a header (magic number, flags and number of keys), a table with an entry of
+ * fixed size per key, sorted by the UTF-8 bytes of the key, and then the keys and the positions.
+ *
+ * @see IndexedInteractionReader
+ */
+public class InteractorIndex implements AutoCloseable {
+
+	public static final String EXTENSION = ".iidx";
+	/**
+	 * "MIIX"
+	 */
+	private static final int MAGIC = 0x4d494958;
+	private static final int BGZF = 1;
+	private static final int HEADER_SIZE = 12;
+	/**
+	 * Key position (long), positions position (long), key length (int), number of positions (int).
+	 */
+	private static final int ENTRY_SIZE = 24;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final boolean bgzf;
+	private final int size;
+
+	private InteractorIndex(File file) throws IOException {
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			if (channel.size() > Integer.MAX_VALUE) throw new IOException(file + " is larger than 2 GB");
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+				throw new IOException(file + " is not an interactor index");
+			this.bgzf = (buffer.getInt(4) & BGZF) != 0;
+			this.size = buffer.getInt(8);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the default index file for a MITAB file
+	 */
+	public static File of(File file) {
+		return new File(file.getPath() + EXTENSION);
+	}
+
+	public static InteractorIndex open(File file) throws IOException {
+		return new InteractorIndex(file);
+	}
+
+	/**
+	 * Indexes the primary identifiers of the interactors of a MITAB file, and optionally their
+	 * alternative identifiers. The file must be uncompressed or BGZF compressed.
+	 *
+	 * @param file         MITAB file
+	 * @param index        where to write the index
+	 * @param alternatives if true, alternative identifiers are indexed too
+	 */
+	public static void build(File file, File index, boolean alternatives, PsiMitabVersion version) throws IOException {
+		final Set<MitabColumn> columns = alternatives
+				? EnumSet.of(MitabColumn.ID_A, MitabColumn.ID_B, MitabColumn.ALT_ID_A, MitabColumn.ALT_ID_B)
+				: EnumSet.of(MitabColumn.ID_A, MitabColumn.ID_B);
+		final PsiInteractionParser parser = PsiInteractionParser.instance(version).withColumns(columns);
+		final boolean bgzf = BgzfInputStream.isBgzf(file);
+		if (!bgzf && file.getName().endsWith(".gz"))
+			throw new IOException("only uncompressed or BGZF files can be indexed: " + file);
+		final Map<String, Positions> positions = new HashMap<>();
+		try (LineSource source = bgzf ? new BgzfLineSource(file) : MappedLineSource.open(file)) {
+			source.readLine(); // header
+			while (true) {
+				final long position = bgzf ? ((BgzfLineSource) source).position() : ((MappedLineSource) source).position();
+				final CharSequence line = source.readLine();
+				if (line == null) break;
+				final Interaction interaction = parser.toInteraction(line);
+				for (Interactor interactor : List.of(interaction.getInteractorA(), interaction.getInteractorB())) {
+					add(positions, interactor.getPrimaryIdentifier(), position);
+					if (alternatives)
+						for (Identifier identifier : interactor.getAlternativeIdentifiers())
+							add(positions, identifier, position);
+				}
+			}
+		}
+		write(index, positions, bgzf);
+	}
+
+	private static void add(Map<String, Positions> positions, Identifier identifier, long position) {
+		if (identifier == null) return;
+		positions.computeIfAbsent(key(identifier), k -> new Positions()).add(position);
+	}
+
+	static String key(Identifier identifier) {
+		return identifier.getDatabase() == null
+				? identifier.getIdentifier()
+				: identifier.getDatabase() + ":" + identifier.getIdentifier();
+	}
+
+	private static void write(File file, Map<String, Positions> positions, boolean bgzf) throws IOException {
+		final List<byte[]> keys = new ArrayList<>(positions.size());
+		final Map<byte[], Positions> values = new IdentityHashMap<>();
+		positions.forEach((key, value) -> {
+			final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+			keys.add(bytes);
+			values.put(bytes, value);
+		});
+		keys.sort(Arrays::compareUnsigned);
+		long keyPosition = HEADER_SIZE + (long) ENTRY_SIZE * keys.size();
+		long position = keyPosition;
+		for (byte[] key : keys) position += key.length;
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(bgzf ? BGZF : 0);
+			out.writeInt(keys.size());
+			for (byte[] key : keys) {
+				final Positions value = values.get(key);
+				out.writeLong(keyPosition);
+				out.writeLong(position);
+				out.writeInt(key.length);
+				out.writeInt(value.size);
+				keyPosition += key.length;
+				position += 8L * value.size;
+			}
+			for (byte[] key : keys) out.write(key);
+			for (byte[] key : keys) {
+				final Positions value = values.get(key);
+				for (int i = 0; i < value.size; i++) out.writeLong(value.positions[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return true if positions are virtual offsets of a BGZF file
+	 */
+	public boolean isBgzf() {
+		return bgzf;
+	}
+
+	/**
+	 * @return number of indexed identifiers
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param identifier interactor identifier, as database:identifier
+	 * @return positions of the lines that contain the identifier, in file order. Empty if the
+	 * identifier is not in the index
+	 */
+	public long[] positions(String identifier) {
+		final byte[] key = identifier.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final int entry = HEADER_SIZE + middle * ENTRY_SIZE;
+			final int comparison = compare(entry, key);
+			if (comparison < 0) low = middle + 1;
+			else if (comparison > 0) high = middle - 1;
+			else {
+				final int position = (int) buffer.getLong(entry + 8);
+				final long[] positions = new long[buffer.getInt(entry + 20)];
+				for (int i = 0; i < positions.length; i++) positions[i] = buffer.getLong(position + 8 * i);
+				return positions;
+			}
+		}
+		return new long[0];
+	}
+
+	/**
+	 * Compares the key of entry with key, byte by byte, as unsigned values.
+	 */
+	private int compare(int entry, byte[] key) {
+		final int position = (int) buffer.getLong(entry);
+		final int length = buffer.getInt(entry + 16);
+		final int common = Math.min(length, key.length);
+		for (int i = 0; i < common; i++) {
+			final int comparison = Byte.compareUnsigned(buffer.get(position + i), key[i]);
+			if (comparison != 0) return comparison;
+		}
+		return Integer.compare(length, key.length);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Growing list of positions. Lines are read in order, so repeated positions, when an
+	 * identifier appears more than once in the same line, are consecutive.
+	 */
+	private static class Positions {
+		private long[] positions = new long[2];
+		private int size;
+
+		void add(long position) {
+			if (size > 0 && positions[size - 1] == position) return;
+			if (size == positions.length) positions = Arrays.copyOf(positions, 2 * size);
+			positions[size++] = position;
+		}
+	}
+}
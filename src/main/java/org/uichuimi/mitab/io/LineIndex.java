@@ -0,0 +1,107 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.compress.BgzfInputStream;
+import org.uichuimi.mitab.io.compress.BgzfOutputStream;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Index of the interactions of a BGZF compressed MITAB file. It contains the virtual offset of
+ * every interval-th interaction, so a reader can be positioned at any interaction by decompressing
+ * only the block of the nearest previous indexed interaction, and skipping less than interval
+ * lines. Interactions are counted from 0, without the header line.
+ * <p>
+ * The index is usually stored next to the MITAB file, with the same name plus {@link
+ * LineIndex#EXTENSION}.
+ *
+ * @see BgzfOutputStream
+ * @see BgzfInputStream
+ * @see InteractionWriter#withIndex(File, int)
+ * @see InteractionReader#fromLine(File, long, org.uichuimi.mitab.io.model.PsiMitabVersion)
+ */
+public class LineIndex {
+
+	public static final String EXTENSION = ".lidx";
+	/**
+	 * "MLIX"
+	 */
+	private static final int MAGIC = 0x4d4c4958;
+
+	private final int interval;
+	private long[] offsets;
+	private int size;
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param interval number of interactions between indexed interactions
+	 */
+	public LineIndex(int interval) {
+		this(interval, new long[1024], 0);
+	}
+
+	private LineIndex(int interval, long[] offsets, int size) {
+		if (interval < 1) throw new IllegalArgumentException("interval must be at least 1");
+		this.interval = interval;
+		this.offsets = offsets;
+		this.size = size;
+	}
+
+	/**
+	 * @return the default index file for a MITAB file
+	 */
+	public static File of(File file) {
+		return new File(file.getPath() + EXTENSION);
+	}
+
+	public static LineIndex read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) throw new IOException(file + " is not a line index");
+			final int interval = in.readInt();
+			final int size = in.readInt();
+			final long[] offsets = new long[size];
+			for (int i = 0; i < size; i++) offsets[i] = in.readLong();
+			return new LineIndex(interval, offsets, size);
+		}
+	}
+
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(interval);
+			out.writeInt(size);
+			for (int i = 0; i < size; i++) out.writeLong(offsets[i]);
+		}
+	}
+
+	/**
+	 * Adds the virtual offset of the next indexed interaction.
+	 */
+	void add(long virtualOffset) {
+		if (size == offsets.length) offsets = Arrays.copyOf(offsets, 2 * size);
+		offsets[size++] = virtualOffset;
+	}
+
+	public int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * @param line number of interaction, starting at 0
+	 * @return the virtual offset of the last indexed interaction before or at line
+	 * @throws IllegalArgumentException if line is after the last indexed interaction group
+	 */
+	public long offset(long line) {
+		final long group = line / interval;
+		if (line < 0 || group >= size) throw new IllegalArgumentException("line " + line + " is not indexed");
+		return offsets[(int) group];
+	}
+
+	/**
+	 * @return the number of the indexed interaction at or before line
+	 */
+	public long indexedLine(long line) {
+		return line - line % interval;
+	}
+}
@@ -0,0 +1,22 @@
+package org.uichuimi.mitab.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of MITAB lines for the readers.
+ */
+interface LineSource extends Closeable {
+
+	/**
+	 * @return the next line, without line separator, or null if there are no more lines
+	 * @throws IOException if the source cannot be read
+	 */
+	CharSequence readLine() throws IOException;
+
+	/**
+	 * @return number of bytes read from the input so far, after decompression. Can be called from
+	 * any thread
+	 */
+	long bytesRead();
+}
@@ -1,29 +1,49 @@
 package org.uichuimi.mitab.io;
 
+import org.uichuimi.mitab.io.compress.BgzfOutputStream;
 import org.uichuimi.mitab.io.consumer.Acceptor;
+import org.uichuimi.mitab.io.consumer.AsyncAcceptor;
 import org.uichuimi.mitab.io.consumer.Neo4jWriter;
 import org.uichuimi.mitab.io.consumer.Progress;
 import org.uichuimi.mitab.io.consumer.Stats;
+import org.uichuimi.mitab.io.input.ColumnProfiler;
+import org.uichuimi.mitab.io.input.LineFilter;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.metrics.Counter;
+import org.uichuimi.mitab.io.metrics.Metrics;
+import org.uichuimi.mitab.io.metrics.TimedAcceptor;
 import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
 import org.uichuimi.mitab.io.output.TsvWriter;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 
 import java.io.File;
-import java.io.InputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
 
 import static picocli.CommandLine.Option;
 
 @Command(name = "mitab",
 		version = "mitab version 1.0",
-		description = "umpteenth package with tools to work with PSI MITAB files")
+		description = "umpteenth package with tools to work with PSI MITAB files",
+		subcommands = {IndexCommand.class, ConvertCommand.class, ClusterCommand.class})
 public class Main implements Callable<Integer> {
 
+	/**
+	 * Number of columns whose slowest lines are reported by --profile-columns.
+	 */
+	private static final int PROFILED_COLUMNS = 5;
+
 	@Option(names = {"-h", "--help"}, usageHelp = true, description = "display this help message")
 	boolean usageHelpRequested;
 
@@ -39,6 +59,60 @@ public class Main implements Callable<Integer> {
 	@Option(names = {"--neo4j"})
 	private File neo4j;
 
+	@Option(names = {"--neo4j-unsorted"}, description = "write --neo4j nodes and relationships in order of appearance instead of sorted")
+	private boolean neo4jUnsorted;
+
+	@Option(names = {"-t", "--threads"}, description = "number of parsing threads (default: ${DEFAULT-VALUE})")
+	private int threads = 1;
+
+	@Option(names = {"--unordered"}, description = "with more than 1 thread, do not keep input order")
+	private boolean unordered;
+
+	@Option(names = {"-z", "--compression-threads"}, description = "number of threads to compress .gz outputs (default: ${DEFAULT-VALUE})")
+	private int compressionThreads = 1;
+
+	@Option(names = {"--mitab"}, description = "write interactions in MITAB format")
+	private File mitab;
+
+	@Option(names = {"--bgzf"}, description = "compress --mitab output in BGZF format, and write a line index next to it (.lidx)")
+	private boolean bgzf;
+
+	@Option(names = {"--index-interval"}, description = "interactions between entries of the BGZF line index (default: ${DEFAULT-VALUE})")
+	private int indexInterval = 1000;
+
+	@Option(names = {"--async"}, description = "run stats and every output in its own thread")
+	private boolean async;
+
+	@Option(names = {"--spill-dir"}, description = "directory for temporary files of --spill-threshold (default: system temporary directory)")
+	private File spillDirectory;
+
+	@Option(names = {"--spill-threshold"}, description = "maximum number of interactors in stats, and of pairs in --neo4j, kept in memory before spilling to temporary files (default: no limit)")
+	private int spillThreshold;
+
+	@Option(names = {"--metrics-port"}, description = "serve metrics in Prometheus format at http://localhost:PORT/metrics")
+	private int metricsPort;
+
+	@Option(names = {"--metrics-file"}, description = "write metrics in Prometheus format to this file periodically")
+	private File metricsFile;
+
+	@Option(names = {"--metrics-interval"}, description = "seconds between writes of --metrics-file (default: ${DEFAULT-VALUE})")
+	private int metricsInterval = 10;
+
+	@Option(names = {"--jmx"}, description = "register metrics as a JMX MBean")
+	private boolean jmx;
+
+	@Option(names = {"--on-error"}, description = "what to do with invalid lines: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+	private ErrorPolicy errorPolicy = ErrorPolicy.FAIL;
+
+	@Option(names = {"--quarantine"}, description = "file for the lines rejected by --on-error QUARANTINE, with their line numbers and reasons (default: <input>.rejected)")
+	private File quarantineFile;
+
+	@Option(names = {"--where"}, description = "read only lines where COLUMN=VALUE[|VALUE...] (any field equal to any value) or COLUMN~TEXT (column contains text), such as taxid_a=9606. Can be repeated, and all conditions must match")
+	private List<String> where = new ArrayList<>();
+
+	@Option(names = {"--profile-columns"}, description = "instead of converting, report time, allocations, characters and fields of every column, and the slowest lines")
+	private boolean profileColumns;
+
 	private long start;
 
 	public static void main(String[] args) {
@@ -53,28 +127,159 @@ public class Main implements Callable<Integer> {
 			console.println("input : " + input);
 			console.println("output: " + output);
 		}
+		if (profileColumns) return profileColumns(console);
 
-		final InputStream in = input == null ? System.in : FileUtils.getInputStream(input);
-		final OutputStream out = output == null ? System.out : FileUtils.getOutputStream(output);
+		final OutputStream out = output == null ? System.out : FileUtils.getOutputStream(output, compressionThreads);
 
 		final List<Acceptor<Interaction>> consumers = new ArrayList<>();
 		final Stats stats = new Stats(console);
+		if (spillThreshold > 0) stats.withSpill(spillDirectory, spillThreshold);
 		final Progress progress = new Progress(console);
 		consumers.add(stats);
 		consumers.add(progress);
 		consumers.add(new TsvWriter(out));
-		if (neo4j != null) consumers.add(new Neo4jWriter(neo4j));
+		if (neo4j != null) {
+			final Neo4jWriter writer = new Neo4jWriter(neo4j, compressionThreads).withSorting(!neo4jUnsorted);
+			if (spillThreshold > 0) writer.withSpill(spillDirectory, spillThreshold);
+			consumers.add(writer);
+		}
+		if (mitab != null) consumers.add(mitabWriter());
+
+		final Metrics metrics = metricsPort > 0 || metricsFile != null || jmx ? new Metrics() : null;
+		if (metrics != null || async) consumers.replaceAll(consumer -> decorate(consumer, progress, metrics));
+
+		// parse only the columns used by consumers
+		final Set<MitabColumn> columns = EnumSet.noneOf(MitabColumn.class);
+		consumers.forEach(consumer -> columns.addAll(consumer.columns()));
+
+		final List<AutoCloseable> resources = new ArrayList<>();
+		Counter interactions = null;
+		if (metrics != null) {
+			interactions = metrics.counter("mitab_interactions_total", "interactions read");
+			final Counter read = interactions;
+			final long started = System.nanoTime();
+			metrics.gauge("mitab_interactions_per_second", "average interactions read per second",
+					() -> read.get() / ((System.nanoTime() - started) / 1e9));
+			if (metricsPort > 0) resources.add(metrics.serve(metricsPort));
+			if (metricsFile != null) resources.add(metrics.dump(metricsFile, metricsInterval));
+			if (jmx) resources.add(metrics.registerMBean());
+		}
+		if (quarantineFile != null) errorPolicy = ErrorPolicy.QUARANTINE;
+		if (errorPolicy == ErrorPolicy.QUARANTINE && quarantineFile == null) {
+			if (input == null) throw new CommandLine.ParameterException(new CommandLine(this), "--quarantine is required when reading from standard input");
+			quarantineFile = new File(input.getPath() + ".rejected");
+		}
+		LineFilter filter = null;
+		try {
+			for (String condition : where) {
+				final LineFilter next = LineFilter.parse(condition);
+				filter = filter == null ? next : filter.and(next);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new CommandLine.ParameterException(new CommandLine(this), "--where: " + e.getMessage());
+		}
+		final boolean columnar = input != null && input.getName().endsWith(ColumnarInteractionReader.EXTENSION);
+		if (filter != null && columnar)
+			throw new CommandLine.ParameterException(new CommandLine(this), "--where is only supported for MITAB inputs");
+		final Quarantine quarantine = quarantineFile == null ? null : new Quarantine(quarantineFile);
+		if (quarantine != null) resources.add(quarantine);
+		long rejected = 0;
+		try {
+			if (columnar) {
+				final ColumnarInteractionReader reader = new ColumnarInteractionReader(input).withColumns(columns);
+				if (metrics != null) countBytes(metrics, reader::getBytesRead);
+				read(reader, consumers, interactions);
+			} else if (input != null && input.getName().endsWith(".zip")) {
+				final ArchiveInteractionReader reader = new ArchiveInteractionReader(input).withThreads(threads, !unordered)
+						.withColumns(columns).withErrorPolicy(errorPolicy, quarantine).withFilter(filter);
+				if (metrics != null) {
+					countBytes(metrics, reader::getBytesRead);
+					metrics.gauge("mitab_rejected_lines", "lines rejected by --on-error", reader::getRejected);
+				}
+				read(reader, consumers, interactions);
+				rejected = reader.getRejected();
+			} else {
+				final InteractionReader reader = input == null ? new InteractionReader(System.in) : new InteractionReader(input, PsiMitabVersion.getDefault());
+				reader.withThreads(threads, !unordered)
+						.withColumns(columns).withErrorPolicy(errorPolicy, quarantine).withFilter(filter);
+				if (metrics != null) {
+					reader.withMetrics(metrics);
+					countBytes(metrics, reader::getBytesRead);
+					metrics.gauge("mitab_rejected_lines", "lines rejected by --on-error", reader::getRejected);
+				}
+				read(reader, consumers, interactions);
+				rejected = reader.getRejected();
+			}
+		} finally {
+			for (AutoCloseable resource : resources) resource.close();
+		}
+		if (rejected > 0)
+			console.printf("%n%,d invalid lines %s%n", rejected, quarantine == null ? "skipped" : "written to " + quarantineFile);
+		console.println();
+		return 0;
+	}
 
-		try (InteractionReader reader = new InteractionReader(in)) {
+	/**
+	 * Wraps a consumer to record its time per interaction in metrics, and to run it in its own
+	 * thread with --async. Progress is kept in the reader thread, so it shows what has been read.
+	 */
+	private Acceptor<Interaction> decorate(Acceptor<Interaction> consumer, Progress progress, Metrics metrics) {
+		final String name = consumer.getClass().getSimpleName();
+		Acceptor<Interaction> decorated = consumer;
+		if (metrics != null)
+			decorated = new TimedAcceptor<>(decorated, metrics.histogram("mitab_acceptor_seconds",
+					"time spent by every consumer in an interaction", "acceptor", name));
+		if (async && consumer != progress) {
+			final AsyncAcceptor<Interaction> asyncAcceptor = new AsyncAcceptor<>(decorated);
+			if (metrics != null)
+				metrics.gauge("mitab_acceptor_queue_batches", "batches waiting to be processed by every consumer",
+						asyncAcceptor::queued, "acceptor", name);
+			decorated = asyncAcceptor;
+		}
+		return decorated;
+	}
+
+	/**
+	 * @param interactions if not null, counts the interactions read
+	 */
+	private <R extends Iterable<Interaction> & AutoCloseable> void read(R reader, List<Acceptor<Interaction>> consumers, Counter interactions) throws Exception {
+		try (reader) {
 			consumers.forEach(Acceptor::start);
-			for (Interaction interaction : reader)
+			for (Interaction interaction : reader) {
 				for (Acceptor<Interaction> consumer : consumers)
 					consumer.accept(interaction);
-			console.println();
+				if (interactions != null) interactions.increment();
+			}
 			consumers.forEach(Acceptor::close);
 		}
+	}
+
+	/**
+	 * Parses every line of the input column by column, and reports the cost of every column.
+	 */
+	private int profileColumns(PrintStream console) throws IOException {
+		final ColumnProfiler profiler = new ColumnProfiler(PsiInteractionParser.instance(PsiMitabVersion.getDefault()));
+		try (LineSource source = input == null
+				? new ReaderLineSource(System.in)
+				: InteractionReader.getLineSource(input)) {
+			// header
+			long number = 1;
+			CharSequence line = source.readLine();
+			while (line != null && (line = source.readLine()) != null)
+				profiler.accept(++number, line);
+		}
+		profiler.report(console, PROFILED_COLUMNS);
 		return 0;
 	}
 
+	private static void countBytes(Metrics metrics, LongSupplier bytes) {
+		metrics.counter("mitab_input_bytes_total", "bytes read from the input, after decompression", bytes);
+	}
+
+	private InteractionWriter mitabWriter() throws IOException {
+		if (!bgzf) return new InteractionWriter(FileUtils.getOutputStream(mitab, compressionThreads), PsiMitabVersion.getDefault());
+		return new InteractionWriter(new BgzfOutputStream(new FileOutputStream(mitab)), PsiMitabVersion.getDefault())
+				.withIndex(LineIndex.of(mitab), indexInterval);
+	}
 
 }
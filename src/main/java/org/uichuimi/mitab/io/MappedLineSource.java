@@ -0,0 +1,142 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.metrics.Counter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lines of an uncompressed file, read through memory mapping. Bytes are bulk copied from the
+ * mapped file into chunks, and lines are returned as {@link ByteLine} views over the chunks, so
+ * they are never decoded: only the parts that the parser converts into strings are decoded. A
+ * chunk is never reused, so lines remain valid after reading the next ones. The file is mapped in
+ * windows of up to 1 GB, so files larger than 2 GB are supported.
+ */
+class MappedLineSource implements LineSource {
+
+	static final long WINDOW = 1L << 30;
+	static final int CHUNK = 1 << 20;
+	private static final byte NEW_LINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	private final FileChannel channel;
+	private final boolean ownsChannel;
+	private final long size;
+	private final long end;
+	private final long window;
+	private final Counter bytes = new Counter();
+	private MappedByteBuffer buffer;
+	private long bufferStart;
+	private byte[] chunk = new byte[0];
+	private int chunkLength;
+	/**
+	 * File position of chunk[0].
+	 */
+	private long chunkStart;
+	/**
+	 * Start of the next line.
+	 */
+	private long position;
+	/**
+	 * File position after the last byte copied into a chunk.
+	 */
+	private long loaded;
+
+	/**
+	 * Reads the lines that start between position and end.
+	 *
+	 * @param channel  file channel, which is not closed by this source
+	 * @param position start of the first line
+	 * @param end      lines starting at or after end are not read
+	 */
+	MappedLineSource(FileChannel channel, long position, long end) throws IOException {
+		this(channel, false, position, end, WINDOW);
+	}
+
+	MappedLineSource(FileChannel channel, boolean ownsChannel, long position, long end, long window) throws IOException {
+		this.channel = channel;
+		this.ownsChannel = ownsChannel;
+		this.size = channel.size();
+		this.position = position;
+		this.chunkStart = position;
+		this.loaded = position;
+		this.end = Math.min(end, size);
+		this.window = window;
+	}
+
+	/**
+	 * Reads all the lines of file.
+	 */
+	static MappedLineSource open(File file) throws IOException {
+		final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		return new MappedLineSource(channel, true, 0, Long.MAX_VALUE, WINDOW);
+	}
+
+	/**
+	 * @return start of the next line
+	 */
+	long position() {
+		return position;
+	}
+
+	@Override
+	public CharSequence readLine() throws IOException {
+		if (position >= end) return null;
+		int start = (int) (position - chunkStart);
+		int newLine = indexOf(start);
+		while (newLine == -1 && chunkStart + chunkLength < size) {
+			// line continues after the chunk
+			load(chunkLength - start);
+			start = 0;
+			newLine = indexOf(0);
+		}
+		final int next = newLine == -1 ? chunkLength : newLine + 1;
+		int lineEnd = newLine == -1 ? chunkLength : newLine;
+		if (lineEnd > start && chunk[lineEnd - 1] == CARRIAGE_RETURN) lineEnd -= 1;
+		position = chunkStart + next;
+		return new ByteLine(chunk, start, lineEnd - start);
+	}
+
+	/**
+	 * Creates a new chunk starting at position, and big enough to contain more than the
+	 * <em>partial</em> bytes of the current line that were already read.
+	 */
+	private void load(int partial) throws IOException {
+		if (partial >= window)
+			throw new IOException("line at " + position + " is longer than " + window + " bytes");
+		final int length = (int) Math.min(Math.max(CHUNK, 2L * partial), size - position);
+		if (buffer == null || position + length > bufferStart + buffer.limit()) {
+			bufferStart = position;
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+		}
+		final int copy = (int) Math.min(length, bufferStart + buffer.limit() - position);
+		chunk = new byte[copy];
+		buffer.get((int) (position - bufferStart), chunk, 0, copy);
+		chunkStart = position;
+		chunkLength = copy;
+		// a line that continues after the previous chunk is copied again, but only counted once
+		bytes.add(position + copy - loaded);
+		loaded = position + copy;
+	}
+
+	private int indexOf(int from) {
+		for (int i = from; i < chunkLength; i++) if (chunk[i] == NEW_LINE) return i;
+		return -1;
+	}
+
+	/**
+	 * @return bytes copied from the file so far, counted when every chunk is loaded
+	 */
+	@Override
+	public long bytesRead() {
+		return bytes.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (ownsChannel) channel.close();
+	}
+}
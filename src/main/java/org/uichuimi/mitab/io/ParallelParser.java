@@ -0,0 +1,232 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.LineFilter;
+import org.uichuimi.mitab.io.input.ParseError;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.metrics.Histogram;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Parses lines in parallel. A dedicated thread reads raw lines in batches, and a pool of workers
+ * transforms every batch into interactions. Results are delivered in input order, or as soon as
+ * they are ready when unordered.
+ * <p>
+ * The number of batches in flight is bounded, so a slow consumer stops the reading thread instead
+ * of filling the memory.
+ */
+class ParallelParser implements Iterator<Interaction>, AutoCloseable {
+
+	static final int BATCH_SIZE = 256;
+
+	/**
+	 * Marks the end of the stream in the results queue.
+	 */
+	private static final Future<List<Interaction>> END = CompletableFuture.completedFuture(Collections.emptyList());
+
+	private final LineSource source;
+	private final PsiInteractionParser parser;
+	private final boolean ordered;
+	private final int batchSize;
+	private final int capacity;
+	private final Semaphore inFlight;
+	private final BlockingQueue<Future<List<Interaction>>> results = new LinkedBlockingQueue<>();
+	private final ExecutorService workers;
+	private final Thread producer;
+	private final Histogram parseLatency;
+	private final Rejections rejections;
+	private final LineFilter filter;
+	/**
+	 * Number of the next line read by the producer.
+	 */
+	private long number;
+	private Iterator<Interaction> batch = Collections.emptyIterator();
+	private boolean finished;
+
+	/**
+	 * @param source  source of lines, positioned after the header
+	 * @param parser  parser to transform lines into interactions
+	 * @param threads number of parsing threads
+	 * @param ordered whether interactions must be returned in input order
+	 */
+	ParallelParser(LineSource source, PsiInteractionParser parser, int threads, boolean ordered) {
+		this(source, parser, threads, ordered, BATCH_SIZE);
+	}
+
+	ParallelParser(LineSource source, PsiInteractionParser parser, int threads, boolean ordered, int batchSize) {
+		this(source, parser, threads, ordered, batchSize, null, new Rejections(ErrorPolicy.FAIL, null), null, 2);
+	}
+
+	/**
+	 * @param parseLatency if not null, the parse time of every line is recorded in it
+	 * @param rejections   error policy for invalid lines
+	 * @param filter       if not null, only lines that match it are parsed
+	 * @param number       number of the first line of source, used to report invalid lines
+	 */
+	ParallelParser(LineSource source, PsiInteractionParser parser, int threads, boolean ordered, int batchSize,
+	               Histogram parseLatency, Rejections rejections, LineFilter filter, long number) {
+		this.source = source;
+		this.parser = parser;
+		this.ordered = ordered;
+		this.batchSize = batchSize;
+		this.parseLatency = parseLatency;
+		this.rejections = rejections;
+		this.filter = filter;
+		this.number = number;
+		this.capacity = 2 * threads;
+		this.inFlight = new Semaphore(capacity);
+		this.workers = Executors.newFixedThreadPool(threads, new NamedThreadFactory("mitab-parser"));
+		this.producer = new Thread(this::produce, "mitab-reader");
+		this.producer.setDaemon(true);
+		this.producer.start();
+	}
+
+	private void produce() {
+		try {
+			List<CharSequence> lines = new ArrayList<>(batchSize);
+			CharSequence line;
+			while ((line = source.readLine()) != null) {
+				lines.add(line);
+				if (lines.size() == batchSize) {
+					submit(lines);
+					lines = new ArrayList<>(batchSize);
+				}
+			}
+			if (!lines.isEmpty()) submit(lines);
+		} catch (IOException e) {
+			results.add(CompletableFuture.failedFuture(new UncheckedIOException(e)));
+		} catch (InterruptedException | RejectedExecutionException e) {
+			return;
+		}
+		try {
+			// all batches have been consumed when every permit is back
+			inFlight.acquire(capacity);
+			results.add(END);
+		} catch (InterruptedException ignored) {
+		}
+	}
+
+	private void submit(List<CharSequence> lines) throws InterruptedException {
+		inFlight.acquire();
+		final Batch task = new Batch(lines, number);
+		number += lines.size();
+		if (ordered) results.add(task);
+		workers.execute(task);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!batch.hasNext()) {
+			if (finished) return false;
+			final Future<List<Interaction>> future;
+			try {
+				future = results.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for interactions", e);
+			}
+			if (future == END) {
+				finished = true;
+				close();
+				return false;
+			}
+			// read errors are posted without a permit
+			if (future instanceof Batch) inFlight.release();
+			batch = get(future).iterator();
+		}
+		return true;
+	}
+
+	private List<Interaction> get(Future<List<Interaction>> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for interactions", e);
+		} catch (ExecutionException e) {
+			// the producer is stopped and will never post END, so later calls must not wait for it
+			finished = true;
+			close();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public Interaction next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		return batch.next();
+	}
+
+	/**
+	 * @return number of batches submitted and not consumed yet
+	 */
+	int inFlight() {
+		return capacity - inFlight.availablePermits();
+	}
+
+	@Override
+	public void close() {
+		producer.interrupt();
+		workers.shutdownNow();
+	}
+
+	/**
+	 * Parsing task for one batch of lines. In unordered mode, it publishes itself in the results
+	 * queue when done.
+	 */
+	private class Batch extends FutureTask<List<Interaction>> {
+
+		/**
+		 * @param number number of the first line
+		 */
+		private Batch(List<CharSequence> lines, long number) {
+			super(() -> {
+				final List<Interaction> interactions = new ArrayList<>(lines.size());
+				final ParseError error = new ParseError();
+				long n = number;
+				for (CharSequence line : lines) {
+					if (filter != null && !filter.test(line)) {
+						n++;
+						continue;
+					}
+					final long start = parseLatency == null ? 0 : System.nanoTime();
+					final Interaction interaction = rejections.parse(parser, line, n++, error);
+					if (parseLatency != null) parseLatency.record(System.nanoTime() - start);
+					if (interaction != null) interactions.add(interaction);
+				}
+				return interactions;
+			});
+		}
+
+		@Override
+		protected void done() {
+			if (!ordered) results.add(this);
+		}
+	}
+
+	/**
+	 * Creates daemon threads, so a reader that is not closed does not prevent the JVM from
+	 * exiting.
+	 */
+	static class NamedThreadFactory implements ThreadFactory {
+
+		private final String prefix;
+		private int count = 0;
+
+		NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public synchronized Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread(runnable, prefix + "-" + ++count);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
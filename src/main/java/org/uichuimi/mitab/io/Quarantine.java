@@ -0,0 +1,57 @@
+package org.uichuimi.mitab.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File of rejected lines. Every line of the file has the number of the rejected line in the input,
+ * the reason and the rejected line itself, separated by tabs, so the original line can be
+ * recovered by removing the first two columns. Files are encoded in UTF-8, as inputs are read, and
+ * files ending with .gz are compressed. Thread safe.
+ */
+public class Quarantine implements AutoCloseable {
+
+	private final Writer writer;
+	private long lines;
+
+	public Quarantine(File file) throws IOException {
+		this(FileUtils.getOutputStream(file));
+	}
+
+	public Quarantine(OutputStream outputStream) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		writer.write("#line\treason\tinteraction");
+		writer.write(System.lineSeparator());
+	}
+
+	/**
+	 * @param number number of the line in the input, starting at 1
+	 * @param reason why the line was rejected, tabs and line separators are replaced by spaces
+	 * @param line   the rejected line
+	 */
+	public synchronized void write(long number, String reason, CharSequence line) {
+		try {
+			writer.write(Long.toString(number));
+			writer.write('\t');
+			writer.write(reason.replace('\t', ' ').replace('\n', ' ').replace('\r', ' '));
+			writer.write('\t');
+			writer.append(line);
+			writer.write(System.lineSeparator());
+			lines++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return number of lines written
+	 */
+	public synchronized long getLines() {
+		return lines;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
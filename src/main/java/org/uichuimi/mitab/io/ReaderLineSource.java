@@ -0,0 +1,41 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.metrics.Counter;
+import org.uichuimi.mitab.io.metrics.CountingInputStream;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lines of a stream, decoded as UTF-8. Used for streams and compressed files.
+ */
+class ReaderLineSource implements LineSource {
+
+	private final Counter bytes = new Counter();
+	private final BufferedReader reader;
+
+	/**
+	 * @param in input, already decompressed
+	 */
+	ReaderLineSource(InputStream in) {
+		this.reader = new BufferedReader(new InputStreamReader(new CountingInputStream(in, bytes), StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public CharSequence readLine() throws IOException {
+		return reader.readLine();
+	}
+
+	@Override
+	public long bytesRead() {
+		return bytes.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
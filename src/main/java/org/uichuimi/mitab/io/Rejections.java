@@ -0,0 +1,69 @@
+package org.uichuimi.mitab.io;
+
+import org.uichuimi.mitab.io.input.ParseError;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses lines applying an {@link ErrorPolicy}. Lines are parsed without exceptions, so skipping
+ * invalid lines costs about the same as parsing valid ones. Thread safe.
+ */
+class Rejections {
+
+	private final ErrorPolicy policy;
+	private final Quarantine quarantine;
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * @param quarantine where rejected lines are written, required by {@link ErrorPolicy#QUARANTINE}
+	 */
+	Rejections(ErrorPolicy policy, Quarantine quarantine) {
+		if (policy == ErrorPolicy.QUARANTINE && quarantine == null)
+			throw new IllegalArgumentException("quarantine policy requires a quarantine");
+		this.policy = policy;
+		this.quarantine = policy == ErrorPolicy.QUARANTINE ? quarantine : null;
+	}
+
+	/**
+	 * @param number number of the line in the input, starting at 1
+	 * @param error  reusable error, one per thread
+	 * @return the interaction of line, or null if line is not valid and is rejected
+	 * @throws IllegalArgumentException if line is not valid and policy is {@link ErrorPolicy#FAIL}
+	 */
+	Interaction parse(PsiInteractionParser parser, CharSequence line, long number, ParseError error) {
+		return parse(parser, line, null, number, error);
+	}
+
+	/**
+	 * @param source name of the input, such as an entry of an archive, or null
+	 */
+	Interaction parse(PsiInteractionParser parser, CharSequence line, String source, long number, ParseError error) {
+		final Interaction interaction = parser.toInteraction(line, error);
+		if (interaction != null) return interaction;
+		if (policy == ErrorPolicy.FAIL)
+			throw new IllegalArgumentException("line " + number + ": " + message(source, error));
+		rejected.increment();
+		if (quarantine != null) quarantine.write(number, message(source, error), line);
+		return null;
+	}
+
+	private static String message(String source, ParseError error) {
+		return source == null ? error.getMessage() : source + ": " + error.getMessage();
+	}
+
+	/**
+	 * @return true if invalid lines stop reading
+	 */
+	boolean failing() {
+		return policy == ErrorPolicy.FAIL;
+	}
+
+	/**
+	 * @return number of lines rejected
+	 */
+	long count() {
+		return rejected.sum();
+	}
+}
@@ -0,0 +1,189 @@
+package org.uichuimi.mitab.io.compress;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Input stream over a BGZF (blocked gzip) file, that can be positioned at any virtual offset with
+ * {@link BgzfInputStream#seek(long)}. Only the block containing the offset is decompressed, so
+ * seeking does not depend on the size of the file.
+ *
+ * @see BgzfOutputStream
+ */
+public class BgzfInputStream extends InputStream {
+
+	private static final int HEADER_SIZE = BgzfOutputStream.HEADER_SIZE;
+
+	private final FileChannel channel;
+	private final ByteBuffer compressed = ByteBuffer.allocate(BgzfOutputStream.MAX_BLOCK).order(ByteOrder.LITTLE_ENDIAN);
+	private final byte[] block = new byte[BgzfOutputStream.MAX_BLOCK];
+	private final Inflater inflater = new Inflater(true);
+	private final CRC32 crc = new CRC32();
+	/**
+	 * Offset in the compressed file of the current block.
+	 */
+	private long address;
+	/**
+	 * Offset in the compressed file of the next block.
+	 */
+	private long next;
+	private int length;
+	private int position;
+
+	public BgzfInputStream(File file) throws IOException {
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+	}
+
+	/**
+	 * @return true if file starts with a BGZF block
+	 */
+	public static boolean isBgzf(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) if (channel.read(header) < 0) return false;
+			return isBgzfHeader(header);
+		}
+	}
+
+	static boolean isBgzfHeader(ByteBuffer header) {
+		return (header.get(0) & 0xff) == 0x1f && (header.get(1) & 0xff) == 0x8b && (header.get(3) & 0x04) != 0
+				&& header.get(12) == 'B' && header.get(13) == 'C' && (header.getShort(10) & 0xffff) == 6;
+	}
+
+	/**
+	 * Moves the stream to a virtual offset, obtained with {@link BgzfOutputStream#getVirtualOffset()}
+	 * or {@link BgzfInputStream#getVirtualOffset()}.
+	 *
+	 * @param virtualOffset block address in the 48 most significant bits, and offset inside the
+	 *                      uncompressed block in the 16 least significant bits
+	 */
+	public void seek(long virtualOffset) throws IOException {
+		final long address = virtualOffset >>> 16;
+		final int offset = (int) (virtualOffset & 0xffff);
+		if (address != this.address || length == 0) {
+			next = address;
+			if (!readBlock()) throw new EOFException("no block at " + address);
+		}
+		if (offset > length) throw new IOException("offset " + offset + " out of block at " + address);
+		position = offset;
+	}
+
+	/**
+	 * @return the virtual offset of the next byte to read
+	 */
+	public long getVirtualOffset() {
+		return address << 16 | position;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (position == length && !readNonEmptyBlock()) return -1;
+		return block[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int len) throws IOException {
+		if (len == 0) return 0;
+		if (position == length && !readNonEmptyBlock()) return -1;
+		final int copy = Math.min(len, length - position);
+		System.arraycopy(block, position, bytes, offset, copy);
+		position += copy;
+		return copy;
+	}
+
+	@Override
+	public int available() {
+		return length - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		inflater.end();
+		channel.close();
+	}
+
+	/**
+	 * Reads the following blocks until one with data is found, skipping empty blocks, such as the
+	 * end of file marker.
+	 *
+	 * @return false if the end of the file was reached
+	 */
+	private boolean readNonEmptyBlock() throws IOException {
+		while (readBlock()) if (length > 0) return true;
+		return false;
+	}
+
+	/**
+	 * Reads and decompresses the block at next.
+	 *
+	 * @return false if there are no more blocks
+	 */
+	private boolean readBlock() throws IOException {
+		if (next >= channel.size()) return false;
+		compressed.clear().limit(HEADER_SIZE);
+		readFully(next);
+		final int blockSize = blockSize(compressed);
+		if (blockSize < 0) throw new IOException("not a BGZF block at " + next);
+		compressed.limit(blockSize);
+		readFully(next);
+		length = inflate(compressed.array(), blockSize, block, inflater, crc, next);
+		address = next;
+		next += blockSize;
+		position = 0;
+		return true;
+	}
+
+	/**
+	 * Decompresses a complete BGZF block and checks its size and CRC.
+	 *
+	 * @param compressed the block, with header and trailer
+	 * @param blockSize  size of the block, as given in its header
+	 * @param output     where to decompress the block, at least {@link BgzfOutputStream#MAX_BLOCK} bytes
+	 * @param address    position of the block in the file, for error messages
+	 * @return the uncompressed size
+	 */
+	static int inflate(byte[] compressed, int blockSize, byte[] output, Inflater inflater, CRC32 crc, long address) throws IOException {
+		final ByteBuffer trailer = ByteBuffer.wrap(compressed, 0, blockSize).order(ByteOrder.LITTLE_ENDIAN);
+		final int expectedCrc = trailer.getInt(blockSize - 8);
+		final int size = trailer.getInt(blockSize - 4);
+		if (size < 0 || size > output.length) throw new IOException("corrupted block at " + address);
+		final int length;
+		inflater.reset();
+		inflater.setInput(compressed, HEADER_SIZE, blockSize - HEADER_SIZE - BgzfOutputStream.TRAILER_SIZE);
+		try {
+			length = size == 0 ? 0 : inflater.inflate(output, 0, size);
+		} catch (DataFormatException e) {
+			throw new IOException("corrupted block at " + address, e);
+		}
+		crc.reset();
+		crc.update(output, 0, length);
+		if (length != size || (int) crc.getValue() != expectedCrc)
+			throw new IOException("corrupted block at " + address);
+		return length;
+	}
+
+	/**
+	 * @return the total size of the block starting with header, or -1 if header is not a BGZF header
+	 */
+	static int blockSize(ByteBuffer header) {
+		if (!isBgzfHeader(header)) return -1;
+		final int size = (header.getShort(16) & 0xffff) + 1;
+		return size < HEADER_SIZE + BgzfOutputStream.TRAILER_SIZE ? -1 : size;
+	}
+
+	private void readFully(long offset) throws IOException {
+		while (compressed.hasRemaining()) {
+			if (channel.read(compressed, offset + compressed.position()) < 0)
+				throw new EOFException("truncated block at " + offset);
+		}
+	}
+}
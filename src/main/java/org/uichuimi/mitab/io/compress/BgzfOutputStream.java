@@ -0,0 +1,174 @@
+package org.uichuimi.mitab.io.compress;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream in BGZF (blocked gzip) format, as defined in the SAM specification. Data is
+ * compressed in independent gzip members of at most 64 KB, which contain their own size in an
+ * extra field. A BGZF file is a regular multi-member gzip file, so it can be read by any gzip tool,
+ * but it can also be read from the start of any block.
+ * <p>
+ * A position in a BGZF file is given by a virtual offset: the offset of a block in the compressed
+ * file in the 48 most significant bits, and the offset inside the uncompressed block in the 16
+ * least significant bits. {@link BgzfOutputStream#getVirtualOffset()} gives the virtual offset of
+ * the next byte to write, which can be used later with {@link BgzfInputStream#seek(long)}.
+ */
+public class BgzfOutputStream extends FilterOutputStream {
+
+	/**
+	 * Maximum uncompressed size of a block. Smaller than 64 KB, so even uncompressible data fits
+	 * in a block.
+	 */
+	static final int MAX_INPUT = 0xff00;
+	static final int MAX_BLOCK = 0x10000;
+	static final int HEADER_SIZE = 18;
+	static final int TRAILER_SIZE = 8;
+	/**
+	 * Gzip header with the BC extra field. The last 2 bytes are the block size minus 1.
+	 */
+	private static final byte[] HEADER = {
+			0x1f, (byte) 0x8b, // magic number
+			Deflater.DEFLATED, // compression method
+			0x04, // flags: FEXTRA
+			0, 0, 0, 0, // modification time
+			0, // extra flags
+			(byte) 0xff, // OS: unknown
+			0x06, 0, // extra length
+			0x42, 0x43, 0x02, 0, // subfield BC, length 2
+			0, 0 // block size - 1
+	};
+	/**
+	 * Empty block that marks the end of a BGZF file.
+	 */
+	static final byte[] EOF = {
+			0x1f, (byte) 0x8b, 0x08, 0x04, 0, 0, 0, 0, 0, (byte) 0xff, 0x06, 0, 0x42, 0x43, 0x02, 0,
+			0x1b, 0, 0x03, 0, 0, 0, 0, 0, 0, 0, 0, 0
+	};
+
+	private final byte[] block = new byte[MAX_INPUT];
+	/**
+	 * The complete compressed block, with header and trailer.
+	 */
+	private final byte[] compressed = new byte[MAX_BLOCK];
+	private final Deflater deflater;
+	private final Deflater store = new Deflater(Deflater.NO_COMPRESSION, true);
+	private final CRC32 crc = new CRC32();
+	private int length;
+	/**
+	 * Offset in the compressed file of the current block.
+	 */
+	private long address;
+	private boolean closed;
+
+	public BgzfOutputStream(OutputStream out) {
+		this(out, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * @param out   where to write the compressed data
+	 * @param level compression level, from 0 to 9, or -1 for the default level
+	 */
+	public BgzfOutputStream(OutputStream out, int level) {
+		super(out);
+		this.deflater = new Deflater(level, true);
+	}
+
+	/**
+	 * @return the virtual offset of the next byte to write
+	 */
+	public long getVirtualOffset() {
+		return address << 16 | length;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (closed) throw new IOException("stream closed");
+		block[length++] = (byte) b;
+		if (length == MAX_INPUT) writeBlock();
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int len) throws IOException {
+		if (closed) throw new IOException("stream closed");
+		while (len > 0) {
+			final int copy = Math.min(len, MAX_INPUT - length);
+			System.arraycopy(bytes, offset, block, length, copy);
+			length += copy;
+			offset += copy;
+			len -= copy;
+			// blocks are written as soon as they are full, so virtual offsets never point to the end of a block
+			if (length == MAX_INPUT) writeBlock();
+		}
+	}
+
+	/**
+	 * Writes the current block, even if it is not full, and flushes the underlying stream.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (length > 0) writeBlock();
+		out.flush();
+	}
+
+	/**
+	 * Writes the current block and the end of file marker and closes the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		try {
+			if (length > 0) writeBlock();
+			out.write(EOF);
+			out.flush();
+		} finally {
+			deflater.end();
+			store.end();
+			out.close();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		int size = deflate(deflater);
+		// uncompressible data
+		if (size < 0) size = deflate(store);
+		final int blockSize = HEADER_SIZE + size + TRAILER_SIZE;
+		crc.reset();
+		crc.update(block, 0, length);
+		System.arraycopy(HEADER, 0, compressed, 0, HEADER_SIZE);
+		putShort(16, blockSize - 1);
+		putInt(HEADER_SIZE + size, (int) crc.getValue());
+		putInt(HEADER_SIZE + size + 4, length);
+		out.write(compressed, 0, blockSize);
+		address += blockSize;
+		length = 0;
+	}
+
+	/**
+	 * Compresses the block after the space for the header.
+	 *
+	 * @return the compressed size, or -1 if it does not fit in a block
+	 */
+	private int deflate(Deflater deflater) {
+		final int available = MAX_BLOCK - HEADER_SIZE - TRAILER_SIZE;
+		deflater.reset();
+		deflater.setInput(block, 0, length);
+		deflater.finish();
+		final int size = deflater.deflate(compressed, HEADER_SIZE, available);
+		return deflater.finished() ? size : -1;
+	}
+
+	private void putShort(int position, int value) {
+		compressed[position] = (byte) value;
+		compressed[position + 1] = (byte) (value >>> 8);
+	}
+
+	private void putInt(int position, int value) {
+		putShort(position, value);
+		putShort(position + 2, value >>> 16);
+	}
+}
@@ -0,0 +1,186 @@
+package org.uichuimi.mitab.io.compress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+
+/**
+ * Input stream over BGZF (blocked gzip) data that decompresses blocks in parallel. Compressed
+ * blocks are read in order from the underlying stream, which is cheap, and every block is inflated
+ * by a different thread. Since BGZF blocks are independent gzip members that contain their own
+ * size, no block depends on the previous one.
+ * <p>
+ * Blocks are returned in order. The number of blocks in memory is bounded, so a slow reader stops
+ * the workers instead of filling the memory. This stream is not thread safe.
+ *
+ * @see BgzfOutputStream
+ */
+public class ParallelBgzfInputStream extends InputStream {
+
+	private static final int HEADER_SIZE = BgzfOutputStream.HEADER_SIZE;
+	private static final byte[] EMPTY = new byte[0];
+
+	private final InputStream in;
+	private final int capacity;
+	private final ExecutorService workers;
+	private final BlockingQueue<Inflater> inflaters;
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+	private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	private byte[] block = EMPTY;
+	private int position;
+	/**
+	 * Offset of the next compressed block.
+	 */
+	private long address;
+	private boolean eof;
+	private boolean closed;
+
+	/**
+	 * @param in      BGZF data
+	 * @param threads number of decompression threads
+	 */
+	public ParallelBgzfInputStream(InputStream in, int threads) {
+		if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+		this.in = in;
+		this.capacity = 4 * threads;
+		this.inflaters = new ArrayBlockingQueue<>(threads);
+		for (int i = 0; i < threads; i++) inflaters.add(new Inflater(true));
+		this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+			final Thread thread = new Thread(runnable, "mitab-bgzf");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!available(true)) return -1;
+		return block[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int len) throws IOException {
+		if (len == 0) return 0;
+		if (!available(true)) return -1;
+		final int copy = Math.min(len, block.length - position);
+		System.arraycopy(block, position, bytes, offset, copy);
+		position += copy;
+		return copy;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return available(false) ? block.length - position : 0;
+	}
+
+	/**
+	 * Makes sure there are bytes to read in the current block, taking the next non empty blocks.
+	 *
+	 * @param wait whether to wait for blocks that are being decompressed
+	 * @return false if there are no bytes to read
+	 */
+	private boolean available(boolean wait) throws IOException {
+		if (closed) throw new IOException("stream closed");
+		while (position == block.length) {
+			submit();
+			if (pending.isEmpty() || !wait && !pending.peek().isDone()) return false;
+			block = take();
+			position = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads compressed blocks and sends them to the workers until there are capacity pending
+	 * blocks or the input is exhausted.
+	 */
+	private void submit() throws IOException {
+		while (!eof && pending.size() < capacity) {
+			final byte[] compressed = readBlock();
+			if (compressed == null) {
+				eof = true;
+				return;
+			}
+			final long blockAddress = address;
+			address += compressed.length;
+			pending.add(workers.submit(() -> inflate(compressed, blockAddress)));
+		}
+	}
+
+	/**
+	 * @return the next compressed block, or null if there are no more blocks
+	 */
+	private byte[] readBlock() throws IOException {
+		header.clear();
+		final int read = readFully(header.array(), 0, HEADER_SIZE);
+		if (read == 0) return null;
+		if (read < HEADER_SIZE) throw new EOFException("truncated block at " + address);
+		final int blockSize = BgzfInputStream.blockSize(header);
+		if (blockSize < 0) throw new IOException("not a BGZF block at " + address);
+		final byte[] compressed = Arrays.copyOf(header.array(), blockSize);
+		if (readFully(compressed, HEADER_SIZE, blockSize - HEADER_SIZE) < blockSize - HEADER_SIZE)
+			throw new EOFException("truncated block at " + address);
+		return compressed;
+	}
+
+	private int readFully(byte[] bytes, int offset, int length) throws IOException {
+		int total = 0;
+		while (total < length) {
+			final int read = in.read(bytes, offset + total, length - total);
+			if (read < 0) break;
+			total += read;
+		}
+		return total;
+	}
+
+	private byte[] inflate(byte[] compressed, long blockAddress) throws IOException, InterruptedException {
+		final Inflater inflater = inflaters.take();
+		try {
+			// the uncompressed size is in the trailer, the block checks it
+			final int size = ByteBuffer.wrap(compressed).order(ByteOrder.LITTLE_ENDIAN).getInt(compressed.length - 4);
+			final byte[] output = size < 0 || size > BgzfOutputStream.MAX_BLOCK ? new byte[BgzfOutputStream.MAX_BLOCK] : new byte[size];
+			BgzfInputStream.inflate(compressed, compressed.length, output, inflater, new CRC32(), blockAddress);
+			return output;
+		} finally {
+			inflaters.add(inflater);
+		}
+	}
+
+	private byte[] take() throws IOException {
+		final Future<byte[]> future = pending.poll();
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while decompressing", e);
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException
+					? (IOException) e.getCause()
+					: new IOException("decompression failed", e.getCause());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		try {
+			workers.shutdownNow();
+			pending.clear();
+			// inflaters cannot be released while they are used
+			if (workers.awaitTermination(1, TimeUnit.SECONDS)) inflaters.forEach(Inflater::end);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			in.close();
+		}
+	}
+}
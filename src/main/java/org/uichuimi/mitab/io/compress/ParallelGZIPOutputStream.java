@@ -0,0 +1,185 @@
+package org.uichuimi.mitab.io.compress;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream that compresses blocks of data in parallel, in the same way as pigz. Input is
+ * split into blocks of {@link ParallelGZIPOutputStream#BLOCK_SIZE} bytes and every block is
+ * deflated by a different thread, using the last 32 KB of the previous block as dictionary, so the
+ * compression ratio is almost the same as with a single thread. Every block but the last ends with
+ * a sync flush, so the compressed blocks can be concatenated into a single deflate stream. The
+ * result is a regular single member gzip file that can be read by any gzip reader.
+ * <p>
+ * Blocks are written in order. The number of blocks in memory is bounded, so a slow output stops
+ * the writer instead of filling the memory. This stream is not thread safe.
+ */
+public class ParallelGZIPOutputStream extends FilterOutputStream {
+
+	public static final int BLOCK_SIZE = 128 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+	private static final byte[] HEADER = {
+			0x1f, (byte) 0x8b, // magic number
+			Deflater.DEFLATED, // compression method
+			0, // flags
+			0, 0, 0, 0, // modification time
+			0, // extra flags
+			(byte) 0xff // OS: unknown
+	};
+
+	private final int blockSize;
+	private final int capacity;
+	private final ExecutorService workers;
+	private final BlockingQueue<Deflater> deflaters;
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+	private final CRC32 crc = new CRC32();
+	private byte[] block;
+	private int length;
+	private byte[] previous;
+	private long size;
+	private boolean closed;
+
+	/**
+	 * @param out     where to write the compressed data
+	 * @param threads number of compression threads
+	 */
+	public ParallelGZIPOutputStream(OutputStream out, int threads) throws IOException {
+		this(out, threads, BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * @param out       where to write the compressed data
+	 * @param threads   number of compression threads
+	 * @param blockSize size of the blocks compressed by each thread, at least 32 KB
+	 * @param level     compression level, from 0 to 9, or -1 for the default level
+	 */
+	public ParallelGZIPOutputStream(OutputStream out, int threads, int blockSize, int level) throws IOException {
+		super(out);
+		if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+		if (blockSize < DICTIONARY_SIZE) throw new IllegalArgumentException("blockSize must be at least " + DICTIONARY_SIZE);
+		this.blockSize = blockSize;
+		this.capacity = 2 * threads;
+		this.block = new byte[blockSize];
+		this.deflaters = new ArrayBlockingQueue<>(threads);
+		for (int i = 0; i < threads; i++) deflaters.add(new Deflater(level, true));
+		this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+			final Thread thread = new Thread(runnable, "mitab-gzip");
+			thread.setDaemon(true);
+			return thread;
+		});
+		out.write(HEADER);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (closed) throw new IOException("stream closed");
+		if (length == blockSize) submit(false);
+		block[length++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int len) throws IOException {
+		if (closed) throw new IOException("stream closed");
+		while (len > 0) {
+			if (length == blockSize) submit(false);
+			final int copy = Math.min(len, blockSize - length);
+			System.arraycopy(bytes, offset, block, length, copy);
+			length += copy;
+			offset += copy;
+			len -= copy;
+		}
+	}
+
+	/**
+	 * Compresses the buffered data, waits for all the blocks to be compressed and flushes the
+	 * underlying stream. Flushing often reduces the compression ratio.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (length > 0) submit(false);
+		while (!pending.isEmpty()) writeNext();
+		out.flush();
+	}
+
+	/**
+	 * Finishes the gzip stream and closes the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		try {
+			submit(true);
+			while (!pending.isEmpty()) writeNext();
+			writeInt((int) crc.getValue());
+			writeInt((int) size);
+			out.flush();
+		} finally {
+			workers.shutdownNow();
+			deflaters.forEach(Deflater::end);
+			out.close();
+		}
+	}
+
+	private void submit(boolean last) throws IOException {
+		if (pending.size() == capacity) writeNext();
+		final byte[] input = block;
+		final int inputLength = length;
+		final byte[] dictionary = previous;
+		crc.update(input, 0, inputLength);
+		size += inputLength;
+		pending.add(workers.submit(() -> deflate(input, inputLength, dictionary, last)));
+		// the dictionary of the next block is the end of this one
+		previous = inputLength >= DICTIONARY_SIZE ? Arrays.copyOfRange(input, inputLength - DICTIONARY_SIZE, inputLength) : null;
+		block = new byte[blockSize];
+		length = 0;
+	}
+
+	private byte[] deflate(byte[] input, int inputLength, byte[] dictionary, boolean last) throws InterruptedException {
+		final Deflater deflater = deflaters.take();
+		try {
+			deflater.reset();
+			if (dictionary != null)
+				deflater.setDictionary(dictionary);
+			deflater.setInput(input, 0, inputLength);
+			if (last) deflater.finish();
+			byte[] output = new byte[inputLength / 2 + 64];
+			int position = 0;
+			while (true) {
+				if (position == output.length) output = Arrays.copyOf(output, 2 * output.length);
+				position += deflater.deflate(output, position, output.length - position, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+				// the output is complete when it does not fill the buffer
+				if (last ? deflater.finished() : position < output.length) break;
+			}
+			return Arrays.copyOf(output, position);
+		} finally {
+			deflaters.add(deflater);
+		}
+	}
+
+	private void writeNext() throws IOException {
+		final Future<byte[]> future = pending.poll();
+		try {
+			out.write(future.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while compressing", e);
+		} catch (ExecutionException e) {
+			throw new IOException("compression failed", e.getCause());
+		}
+	}
+
+	private void writeInt(int value) throws IOException {
+		out.write(value & 0xff);
+		out.write(value >>> 8 & 0xff);
+		out.write(value >>> 16 & 0xff);
+		out.write(value >>> 24 & 0xff);
+	}
+}
@@ -0,0 +1,138 @@
+package org.uichuimi.mitab.io.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream that reads another stream in a background thread, so slow streams, such as a
+ * {@link java.util.zip.GZIPInputStream}, are read while the caller processes the data. The thread
+ * fills a fixed ring of buffers, so it stops when the caller does not keep up, and the caller only
+ * waits when all the buffers are empty. Errors in the background thread are thrown by the next
+ * read. This stream is not thread safe.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+	public static final int BUFFER_SIZE = 1 << 18;
+	public static final int BUFFERS = 4;
+	private static final Chunk END = new Chunk(null, -1, null);
+
+	private final InputStream in;
+	private final BlockingQueue<byte[]> empty;
+	private final BlockingQueue<Chunk> filled;
+	private final Thread thread;
+	private Chunk current;
+	private int position;
+	private volatile boolean closed;
+
+	public ReadAheadInputStream(InputStream in) {
+		this(in, BUFFER_SIZE, BUFFERS);
+	}
+
+	/**
+	 * @param in         stream to read
+	 * @param bufferSize size of every buffer
+	 * @param buffers    number of buffers, at least 2
+	 */
+	public ReadAheadInputStream(InputStream in, int bufferSize, int buffers) {
+		if (buffers < 2) throw new IllegalArgumentException("buffers must be at least 2");
+		this.in = in;
+		this.empty = new ArrayBlockingQueue<>(buffers);
+		this.filled = new ArrayBlockingQueue<>(buffers + 1);
+		for (int i = 0; i < buffers; i++) empty.add(new byte[bufferSize]);
+		this.thread = new Thread(this::fill, "mitab-read-ahead");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void fill() {
+		try {
+			while (!closed) {
+				final byte[] buffer = empty.take();
+				int length = 0;
+				int read = 0;
+				while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) >= 0)
+					length += read;
+				if (length > 0) filled.put(new Chunk(buffer, length, null));
+				if (read < 0) {
+					filled.put(END);
+					return;
+				}
+			}
+		} catch (InterruptedException ignored) {
+			// closed
+		} catch (IOException | RuntimeException e) {
+			// there is always room for the error, since there is one more slot than buffers
+			filled.add(new Chunk(null, -1, e));
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!available(true)) return -1;
+		return current.buffer[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int len) throws IOException {
+		if (len == 0) return 0;
+		if (!available(true)) return -1;
+		final int copy = Math.min(len, current.length - position);
+		System.arraycopy(current.buffer, position, bytes, offset, copy);
+		position += copy;
+		return copy;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return available(false) ? current.length - position : 0;
+	}
+
+	/**
+	 * Makes sure there are bytes to read in current, waiting for the next buffer if needed.
+	 *
+	 * @param wait whether to wait for the background thread
+	 * @return false if there are no bytes to read
+	 */
+	private boolean available(boolean wait) throws IOException {
+		if (closed) throw new IOException("stream closed");
+		if (current != null && position < current.length) return true;
+		if (current == END) return false;
+		if (current != null) empty.add(current.buffer);
+		try {
+			current = wait ? filled.take() : filled.poll();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while reading", e);
+		}
+		position = 0;
+		if (current == null) return false;
+		if (current.error != null) {
+			final Exception error = current.error;
+			current = END;
+			throw error instanceof IOException ? (IOException) error : new IOException(error);
+		}
+		return current != END;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		thread.interrupt();
+		in.close();
+	}
+
+	private static class Chunk {
+		private final byte[] buffer;
+		private final int length;
+		private final Exception error;
+
+		Chunk(byte[] buffer, int length, Exception error) {
+			this.buffer = buffer;
+			this.length = length;
+			this.error = error;
+		}
+	}
+}
@@ -1,5 +1,9 @@
 package org.uichuimi.mitab.io.consumer;
 
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public interface Acceptor<T> extends Consumer<T> {
@@ -7,4 +11,12 @@ public interface Acceptor<T> extends Consumer<T> {
 	void start();
 
 	void close();
+
+	/**
+	 * Columns read by this acceptor. Readers can skip the parsing of columns that are not read by
+	 * any acceptor. By default, all columns.
+	 */
+	default Set<MitabColumn> columns() {
+		return EnumSet.allOf(MitabColumn.class);
+	}
 }
@@ -0,0 +1,170 @@
+package org.uichuimi.mitab.io.consumer;
+
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Acceptor that runs another acceptor in its own thread, so several slow acceptors, and the
+ * reader that feeds them, work at the same time. Elements are passed in batches through a fixed
+ * ring of batches: the caller only waits when the acceptor does not keep up, and the number of
+ * elements waiting is bounded.
+ * <p>
+ * Errors of the acceptor are thrown by the next call to accept, or by close, and the acceptor
+ * does not receive any more elements nor is closed. Close waits until the acceptor has processed
+ * every element and has been closed itself. Elements are shared between threads, so acceptors
+ * must not modify them, and lazy interactions must not be used.
+ */
+public class AsyncAcceptor<T> implements Acceptor<T> {
+
+	public static final int BATCH_SIZE = 1 << 10;
+	public static final int BATCHES = 8;
+	/**
+	 * Marks the end of the elements in the filled queue.
+	 */
+	private final List<T> end = new ArrayList<>(0);
+
+	private final Acceptor<T> acceptor;
+	private final int batchSize;
+	private final BlockingQueue<List<T>> empty;
+	private final BlockingQueue<List<T>> filled;
+	private final Thread thread;
+	private List<T> batch;
+	private volatile Throwable error;
+	private boolean started;
+	private boolean closed;
+
+	public AsyncAcceptor(Acceptor<T> acceptor) {
+		this(acceptor, BATCH_SIZE, BATCHES);
+	}
+
+	/**
+	 * @param acceptor  acceptor to run in its own thread
+	 * @param batchSize number of elements in every batch
+	 * @param batches   number of batches, at least 2
+	 */
+	public AsyncAcceptor(Acceptor<T> acceptor, int batchSize, int batches) {
+		if (batchSize < 1) throw new IllegalArgumentException("batchSize must be at least 1");
+		if (batches < 2) throw new IllegalArgumentException("batches must be at least 2");
+		this.acceptor = acceptor;
+		this.batchSize = batchSize;
+		this.empty = new ArrayBlockingQueue<>(batches);
+		// one more slot for the end marker
+		this.filled = new ArrayBlockingQueue<>(batches + 1);
+		for (int i = 0; i < batches; i++) empty.add(new ArrayList<>(batchSize));
+		this.thread = new Thread(this::run, "mitab-" + acceptor.getClass().getSimpleName());
+		thread.setDaemon(true);
+	}
+
+	@Override
+	public Set<MitabColumn> columns() {
+		return acceptor.columns();
+	}
+
+	/**
+	 * Starts the acceptor, in the caller thread, and then the thread of the acceptor.
+	 */
+	@Override
+	public void start() {
+		if (started) return;
+		started = true;
+		acceptor.start();
+		thread.start();
+	}
+
+	/**
+	 * @return number of batches waiting to be processed by the acceptor
+	 */
+	public int queued() {
+		return filled.size();
+	}
+
+	@Override
+	public void accept(T element) {
+		if (closed) throw new IllegalStateException("acceptor closed");
+		if (!started) start();
+		checkError();
+		if (batch == null) batch = take(empty);
+		batch.add(element);
+		if (batch.size() == batchSize) {
+			put(batch);
+			batch = null;
+		}
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				final List<T> elements = filled.take();
+				if (elements == end) break;
+				// after an error, batches are still returned, so the caller never waits forever
+				if (error == null) {
+					try {
+						for (T element : elements) acceptor.accept(element);
+					} catch (Throwable e) {
+						error = e;
+					}
+				}
+				elements.clear();
+				empty.add(elements);
+			}
+			if (error == null) acceptor.close();
+		} catch (InterruptedException ignored) {
+			// interrupted by caller
+		} catch (Throwable e) {
+			error = e;
+		}
+	}
+
+	/**
+	 * Sends the remaining elements and waits until the acceptor has processed them and has been
+	 * closed.
+	 */
+	@Override
+	public void close() {
+		if (closed) return;
+		if (!started) start();
+		closed = true;
+		if (batch != null && !batch.isEmpty()) put(batch);
+		batch = null;
+		put(end);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			thread.interrupt();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while closing " + thread.getName(), e);
+		}
+		checkError();
+	}
+
+	private void checkError() {
+		final Throwable error = this.error;
+		if (error == null) return;
+		if (error instanceof RuntimeException) throw (RuntimeException) error;
+		if (error instanceof Error) throw (Error) error;
+		throw new IllegalStateException(error);
+	}
+
+	private List<T> take(BlockingQueue<List<T>> queue) {
+		try {
+			return queue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for " + thread.getName(), e);
+		}
+	}
+
+	private void put(List<T> elements) {
+		try {
+			filled.put(elements);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for " + thread.getName(), e);
+		}
+	}
+}
@@ -0,0 +1,377 @@
+package org.uichuimi.mitab.io.consumer;
+
+import org.uichuimi.mitab.io.model.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.uichuimi.mitab.io.model.MitabColumn.*;
+
+/**
+ * Clusters interactions by pair of interactors, regardless of which one is A and which one is B,
+ * and sends one summary interaction per pair to another acceptor when closing. The summary has
+ * the primary identifiers and organisms of both interactors, in the orientation of the first
+ * interaction of the pair, and the distinct detection methods, publications, types, source
+ * databases and confidence scores of all the interactions of the pair, in order of first
+ * appearance. Interactions without a primary identifier for A or B are not clustered.
+ * <p>
+ * Interactors and fields are dictionary encoded to ints, pairs are keyed by both interactor codes
+ * packed in a long, and the fields of every pair are a linked list of codes in a pool of ints, so
+ * a pair costs around 60 bytes plus 8 bytes per distinct field. Summaries are sent in order of
+ * interactor codes: by the first appearance of the interactor of the pair that appeared first,
+ * then by the first appearance of the other one.
+ * <p>
+ * To cluster more pairs than fit in the heap, {@link #withSpill(File, int)} limits the number of
+ * pairs in memory: when the limit is reached, pairs are written sorted to temporary files, and all
+ * these runs are merged when closing. Summaries are the same as without spilling. Dictionaries are
+ * not spilled, so memory still grows with the number of distinct interactors and fields.
+ */
+public class InteractionClusterer implements Acceptor<Interaction>, AutoCloseable {
+
+	/**
+	 * Average number of fields per pair that can be kept in memory before spilling.
+	 */
+	static final int FIELDS_PER_PAIR = 8;
+	private static final int INITIAL_CAPACITY = 1 << 10;
+	private static final int NONE = -1;
+
+	private final Acceptor<Interaction> output;
+	private final Map<String, Integer> codes = new HashMap<>();
+	private final List<Identifier> interactors = new ArrayList<>();
+	private final List<List<Organism>> organisms = new ArrayList<>();
+	private final Map<List<Object>, Integer> fieldCodes = new HashMap<>();
+	private final List<Field> fields = new ArrayList<>();
+	private final List<File> runs = new ArrayList<>();
+	private LongIntHashMap pairs = new LongIntHashMap();
+	private File spillDirectory;
+	private int spillThreshold;
+	private int size;
+	private int[] starts = new int[INITIAL_CAPACITY];
+	private int[] ends = new int[INITIAL_CAPACITY];
+	/**
+	 * Index in the pool of the last field of every pair, or {@link #NONE}.
+	 */
+	private int[] heads = new int[INITIAL_CAPACITY];
+	private int pooled;
+	private int[] pool = new int[INITIAL_CAPACITY];
+	/**
+	 * Index in the pool of the previous field of the same pair, or {@link #NONE}.
+	 */
+	private int[] previous = new int[INITIAL_CAPACITY];
+	private long skipped;
+	private long clusters;
+
+	/**
+	 * @param output acceptor of the summary interactions. It is started and closed by this
+	 *               clusterer
+	 */
+	public InteractionClusterer(Acceptor<Interaction> output) {
+		this.output = output;
+	}
+
+	/**
+	 * Keeps at most threshold pairs, and {@value #FIELDS_PER_PAIR} times threshold fields, in
+	 * memory. Must be called before accepting any interaction.
+	 *
+	 * @param directory where temporary files are created, or null for the default temporary
+	 *                  directory
+	 * @param threshold maximum number of pairs in memory
+	 * @return this clusterer
+	 */
+	public InteractionClusterer withSpill(File directory, int threshold) {
+		if (threshold < 1) throw new IllegalArgumentException("threshold must be at least 1");
+		if (size > 0 || !runs.isEmpty())
+			throw new IllegalStateException("spill must be set before accepting interactions");
+		this.spillDirectory = directory;
+		this.spillThreshold = threshold;
+		return this;
+	}
+
+	@Override
+	public void start() {
+		output.start();
+	}
+
+	@Override
+	public Set<MitabColumn> columns() {
+		return EnumSet.of(ID_A, ID_B, TAXID_A, TAXID_B, DETECTION_METHOD, PUBLICATION, TYPE, DATABASE, CONFIDENCE);
+	}
+
+	/**
+	 * @return number of interactions that were not clustered, because A or B had no primary
+	 * identifier
+	 */
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * @return number of summary interactions sent to the output. Only known after closing
+	 */
+	public long getClusters() {
+		return clusters;
+	}
+
+	@Override
+	public void accept(Interaction interaction) {
+		final Identifier a = interaction.getInteractorA().getPrimaryIdentifier();
+		final Identifier b = interaction.getInteractorB().getPrimaryIdentifier();
+		if (a == null || b == null || a.getIdentifier() == null || b.getIdentifier() == null) {
+			skipped++;
+			return;
+		}
+		if (spillThreshold > 0 && (size >= spillThreshold || pooled >= FIELDS_PER_PAIR * spillThreshold)) {
+			try {
+				spill();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		final int start = code(a, interaction.getInteractorA());
+		final int end = code(b, interaction.getInteractorB());
+		final long key = start < end ? (long) start << 32 | end : (long) end << 32 | start;
+		int pair = pairs.get(key);
+		if (pair < 0) {
+			pair = size++;
+			if (pair == starts.length) grow();
+			pairs.put(key, pair);
+			starts[pair] = start;
+			ends[pair] = end;
+			heads[pair] = NONE;
+		}
+		add(pair, DETECTION_METHOD, interaction.getDetectionMethods());
+		add(pair, PUBLICATION, interaction.getPublications());
+		add(pair, TYPE, interaction.getTypes());
+		add(pair, DATABASE, interaction.getDatabases());
+		add(pair, CONFIDENCE, interaction.getConfidenceScores());
+	}
+
+	private int code(Identifier identifier, Interactor interactor) {
+		final String name = identifier.getDatabase() + ":" + identifier.getIdentifier();
+		final Integer code = codes.get(name);
+		if (code != null) return code;
+		codes.put(name, interactors.size());
+		interactors.add(identifier);
+		organisms.add(interactor.getOrganisms());
+		return interactors.size() - 1;
+	}
+
+	/**
+	 * Adds the fields that are not in the pair yet. Pairs have a few distinct fields, so a linear
+	 * search is cheaper than a set per pair.
+	 */
+	private void add(int pair, MitabColumn column, List<? extends Field> values) {
+		for (Field field : values) {
+			final int code = fieldCodes.computeIfAbsent(
+					Arrays.asList(column, field.getXref(), field.getValue(), field.getDescription()), key -> {
+						fields.add(field);
+						return fields.size() - 1;
+					});
+			if (!contains(pair, code)) {
+				if (pooled == pool.length) {
+					pool = Arrays.copyOf(pool, 2 * pooled);
+					previous = Arrays.copyOf(previous, 2 * pooled);
+				}
+				pool[pooled] = code;
+				previous[pooled] = heads[pair];
+				heads[pair] = pooled++;
+			}
+		}
+	}
+
+	private boolean contains(int pair, int code) {
+		for (int i = heads[pair]; i != NONE; i = previous[i])
+			if (pool[i] == code) return true;
+		return false;
+	}
+
+	/**
+	 * @return codes of the fields of pair, in order of first appearance
+	 */
+	private int[] fields(int pair) {
+		int n = 0;
+		for (int i = heads[pair]; i != NONE; i = previous[i]) n++;
+		final int[] rtn = new int[n];
+		for (int i = heads[pair]; i != NONE; i = previous[i]) rtn[--n] = pool[i];
+		return rtn;
+	}
+
+	private void grow() {
+		final int length = 2 * starts.length;
+		starts = Arrays.copyOf(starts, length);
+		ends = Arrays.copyOf(ends, length);
+		heads = Arrays.copyOf(heads, length);
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (!runs.isEmpty()) {
+				if (size > 0) spill();
+				merge();
+			} else {
+				for (long key : sortedKeys()) {
+					final int pair = pairs.get(key);
+					emit(starts[pair], ends[pair], fields(pair));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			for (File run : runs) //noinspection ResultOfMethodCallIgnored
+				run.delete();
+			output.close();
+		}
+	}
+
+	private long[] sortedKeys() {
+		final long[] keys = new long[size];
+		for (int i = 0; i < size; i++)
+			keys[i] = starts[i] < ends[i] ? (long) starts[i] << 32 | ends[i] : (long) ends[i] << 32 | starts[i];
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	/**
+	 * Writes the pairs in memory, sorted by key, to a new run, and clears them. Run format: number
+	 * of pairs, and then, for every pair, start, end, number of fields and the fields.
+	 */
+	private void spill() throws IOException {
+		final File file = File.createTempFile("mitab-clusters", ".run", spillDirectory);
+		file.deleteOnExit();
+		runs.add(file);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), StringRuns.BUFFER_SIZE))) {
+			out.writeInt(size);
+			for (long key : sortedKeys()) {
+				final int pair = pairs.get(key);
+				final int[] codes = fields(pair);
+				out.writeInt(starts[pair]);
+				out.writeInt(ends[pair]);
+				out.writeInt(codes.length);
+				for (int code : codes) out.writeInt(code);
+			}
+		}
+		pairs = new LongIntHashMap();
+		size = 0;
+		pooled = 0;
+	}
+
+	/**
+	 * K-way merge of the runs. Runs are in order of arrival, so when a pair is in more than one run,
+	 * its fields are merged in the same order as the interactions were accepted.
+	 */
+	private void merge() throws IOException {
+		final PriorityQueue<Run> queue = new PriorityQueue<>(runs.size());
+		try {
+			for (int i = 0; i < runs.size(); i++) {
+				final Run run = new Run(runs.get(i), i);
+				if (run.next()) queue.add(run);
+				else run.in.close();
+			}
+			long key = NONE;
+			int start = 0;
+			int end = 0;
+			int[] merged = new int[INITIAL_CAPACITY];
+			int n = 0;
+			while (!queue.isEmpty()) {
+				final Run run = queue.poll();
+				if (run.key != key) {
+					if (key != NONE) emit(start, end, Arrays.copyOf(merged, n));
+					key = run.key;
+					start = run.start;
+					end = run.end;
+					n = 0;
+				}
+				for (int code : run.codes) {
+					if (contains(merged, n, code)) continue;
+					if (n == merged.length) merged = Arrays.copyOf(merged, 2 * n);
+					merged[n++] = code;
+				}
+				if (run.next()) queue.add(run);
+				else run.in.close();
+			}
+			if (key != NONE) emit(start, end, Arrays.copyOf(merged, n));
+		} finally {
+			for (Run run : queue) run.in.close();
+		}
+	}
+
+	private static boolean contains(int[] codes, int n, int code) {
+		for (int i = 0; i < n; i++) if (codes[i] == code) return true;
+		return false;
+	}
+
+	/**
+	 * Sends the summary interaction of a pair to the output.
+	 *
+	 * @param codes codes of the fields of the pair, in order of first appearance
+	 */
+	private void emit(int start, int end, int[] codes) {
+		final Interaction interaction = new Interaction();
+		interaction.setInteractorA(interactor(start));
+		interaction.setInteractorB(interactor(end));
+		final List<DetectionMethod> methods = new ArrayList<>();
+		final List<Publication> publications = new ArrayList<>();
+		final List<Type> types = new ArrayList<>();
+		final List<Database> databases = new ArrayList<>();
+		final List<ConfidenceScore> scores = new ArrayList<>();
+		for (int code : codes) {
+			final Field field = fields.get(code);
+			if (field instanceof DetectionMethod) methods.add((DetectionMethod) field);
+			else if (field instanceof Publication) publications.add((Publication) field);
+			else if (field instanceof Type) types.add((Type) field);
+			else if (field instanceof Database) databases.add((Database) field);
+			else if (field instanceof ConfidenceScore) scores.add((ConfidenceScore) field);
+		}
+		interaction.setDetectionMethods(methods);
+		interaction.setPublications(publications);
+		interaction.setTypes(types);
+		interaction.setDatabases(databases);
+		interaction.setConfidenceScores(scores);
+		output.accept(interaction);
+		clusters++;
+	}
+
+	private Interactor interactor(int code) {
+		final Interactor interactor = new Interactor();
+		interactor.setPrimaryIdentifier(interactors.get(code));
+		interactor.setOrganisms(organisms.get(code));
+		return interactor;
+	}
+
+	/**
+	 * A run being merged, positioned at its current pair.
+	 */
+	private static class Run implements Comparable<Run> {
+		private final DataInputStream in;
+		private final int index;
+		private int remaining;
+		private long key;
+		private int start;
+		private int end;
+		private int[] codes;
+
+		Run(File file, int index) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), StringRuns.BUFFER_SIZE));
+			this.index = index;
+			this.remaining = in.readInt();
+		}
+
+		boolean next() throws IOException {
+			if (remaining == 0) return false;
+			remaining--;
+			start = in.readInt();
+			end = in.readInt();
+			key = start < end ? (long) start << 32 | end : (long) end << 32 | start;
+			codes = new int[in.readInt()];
+			for (int i = 0; i < codes.length; i++) codes[i] = in.readInt();
+			return true;
+		}
+
+		@Override
+		public int compareTo(Run other) {
+			final int compare = Long.compare(key, other.key);
+			return compare != 0 ? compare : Integer.compare(index, other.index);
+		}
+	}
+}
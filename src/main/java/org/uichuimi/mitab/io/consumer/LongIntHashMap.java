@@ -0,0 +1,95 @@
+package org.uichuimi.mitab.io.consumer;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from non-negative longs to ints, with linear probing. Keys and values
+ * are stored in two primitive arrays, so there are no entry objects nor boxing. Entries cannot be
+ * removed.
+ */
+class LongIntHashMap {
+
+	private static final long EMPTY = -1L;
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	LongIntHashMap() {
+		this(1 << 10);
+	}
+
+	/**
+	 * @param capacity expected number of entries
+	 */
+	LongIntHashMap(int capacity) {
+		allocate(Integer.highestOneBit(Math.max(2, (int) (capacity / LOAD_FACTOR)) - 1) << 1);
+	}
+
+	private void allocate(int length) {
+		keys = new long[length];
+		values = new int[length];
+		Arrays.fill(keys, EMPTY);
+		mask = length - 1;
+	}
+
+	/**
+	 * @return the value associated to key, or -1 if key is not in the map
+	 */
+	int get(long key) {
+		int slot = slot(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) return values[slot];
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param key   a non-negative long
+	 * @param value value associated to key
+	 */
+	void put(long key, int value) {
+		if (key < 0) throw new IllegalArgumentException("key must be non-negative: " + key);
+		int slot = slot(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > LOAD_FACTOR * keys.length) rehash();
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void rehash() {
+		final long[] oldKeys = keys;
+		final int[] oldValues = values;
+		allocate(2 * oldKeys.length);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == EMPTY) continue;
+			int slot = slot(oldKeys[i]);
+			while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	private int slot(long key) {
+		// finalizer of MurmurHash3, so packed pairs of small ints spread over the table
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key & mask;
+	}
+}
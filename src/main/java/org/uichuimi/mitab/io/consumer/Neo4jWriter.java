@@ -1,44 +1,298 @@
 package org.uichuimi.mitab.io.consumer;
 
 import org.uichuimi.mitab.io.FileUtils;
+import org.uichuimi.mitab.io.model.ConfidenceScore;
 import org.uichuimi.mitab.io.model.Interaction;
 import org.uichuimi.mitab.io.model.Interactor;
+import org.uichuimi.mitab.io.model.MitabColumn;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.PrintStream;
+import java.io.*;
 import java.util.*;
 
+import static org.uichuimi.mitab.io.model.MitabColumn.*;
+
+/**
+ * Writes the unique pairs of interactors as a Neo4j import: one node per interactor and one
+ * relationship per pair, keeping the interaction with the highest confidence score.
+ * <p>
+ * Interactors are dictionary encoded to ints, and pairs are keyed by both ints packed in a long,
+ * so memory grows with the number of unique pairs, not with the length of the identifiers. By
+ * default, nodes and relationships are sorted by identifier when closing. Without sorting (see
+ * {@link #withSorting(boolean)}), they are written in order of first appearance, which is faster.
+ * <p>
+ * To write datasets larger than the heap, {@link #withSpill(File, int)} limits the number of pairs
+ * in memory: when the limit is reached, pairs and interactors are written sorted to temporary
+ * files, and all these runs are merged when closing. Output is always sorted then. The merge keeps
+ * the same interaction per pair as the in memory writer, provided that confidence scores are
+ * missing or not negative numbers.
+ */
 public class Neo4jWriter implements Acceptor<Interaction>, AutoCloseable {
 
 	private static final String SEPARATOR = "\t";
+	private static final int INITIAL_CAPACITY = 1 << 10;
 	private final PrintStream nodes;
 	private final PrintStream relationships;
-	private final TreeSet<String> interactors = new TreeSet<>();
-	private final Map<String, List<String>> uniques = new TreeMap<>();
+	private final Map<String, Integer> codes = new HashMap<>();
+	private final List<String> interactors = new ArrayList<>();
+	private final Map<String, String> scores = new HashMap<>();
+	private final List<File> runs = new ArrayList<>();
+	private LongIntHashMap pairs = new LongIntHashMap();
+	private boolean sorted = true;
+	private int spillThreshold;
+	private File spillDirectory;
+	private StringRuns nodeRuns;
+	private int size;
+	private int[] starts = new int[INITIAL_CAPACITY];
+	private int[] ends = new int[INITIAL_CAPACITY];
+	private double[] confidences = new double[INITIAL_CAPACITY];
+	private String[] identifiers = new String[INITIAL_CAPACITY];
+	private String[] types = new String[INITIAL_CAPACITY];
+	private String[] methods = new String[INITIAL_CAPACITY];
+	private String[] values = new String[INITIAL_CAPACITY];
 
 	public Neo4jWriter(File path) throws IOException {
+		this(path, 1);
+	}
+
+	/**
+	 * @param path    output directory
+	 * @param threads number of compression threads for each output file
+	 */
+	public Neo4jWriter(File path, int threads) throws IOException {
 		if (!path.exists() && !path.mkdirs())
 			throw new IllegalArgumentException(path + " is not accessible");
-		nodes = new PrintStream(FileUtils.getOutputStream(new File(path, "nodes.tsv.gz")));
-		relationships = new PrintStream(FileUtils.getOutputStream(new File(path, "relationships.tsv.gz")));
+		nodes = new PrintStream(FileUtils.getOutputStream(new File(path, "nodes.tsv.gz"), threads));
+		relationships = new PrintStream(FileUtils.getOutputStream(new File(path, "relationships.tsv.gz"), threads));
 		nodes.println(String.join("\t", Collections.singletonList("identifier:ID(interactor)")));
 		relationships.println(String.join("\t", Arrays.asList(":START_ID(gene)", ":END_ID(gene)", "identifier", "type", "method", "score")));
 	}
 
+	/**
+	 * @param sorted if true (default), nodes are sorted by identifier and relationships by the
+	 *               identifiers of the pair. If false, both are written in order of first
+	 *               appearance.
+	 * @return this writer
+	 */
+	public Neo4jWriter withSorting(boolean sorted) {
+		this.sorted = sorted;
+		return this;
+	}
+
+	/**
+	 * Keeps at most threshold pairs in memory. Must be called before accepting any interaction.
+	 *
+	 * @param directory where temporary files are created, or null for the default temporary
+	 *                  directory
+	 * @param threshold maximum number of pairs in memory
+	 * @return this writer
+	 */
+	public Neo4jWriter withSpill(File directory, int threshold) {
+		if (threshold < 1) throw new IllegalArgumentException("threshold must be at least 1");
+		if (size > 0) throw new IllegalStateException("spill must be set before accepting interactions");
+		this.spillDirectory = directory;
+		this.spillThreshold = threshold;
+		this.nodeRuns = new StringRuns(directory, "neo4j-nodes");
+		return this;
+	}
+
 	@Override
 	public void start() {
 	}
 
+	@Override
+	public Set<MitabColumn> columns() {
+		return EnumSet.of(ID_A, ID_B, CONFIDENCE, IDENTIFIER, TYPE, DETECTION_METHOD);
+	}
+
 	@Override
 	public void close() {
-		for (List<String> fields : uniques.values())
-			relationships.println(String.join(SEPARATOR, fields));
-		for (String interactor : interactors)
-			nodes.println(interactor);
+		try {
+			if (!runs.isEmpty()) {
+				if (size > 0) spill();
+				merge();
+			} else if (sorted) {
+				final int[] byName = sortedInteractors();
+				for (int relationship : sortedRelationships(byName)) printRelationship(relationship);
+				for (int code : byName) nodes.println(interactors.get(code));
+			} else {
+				for (int i = 0; i < size; i++) printRelationship(i);
+				for (String interactor : interactors) nodes.println(interactor);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			for (File run : runs) //noinspection ResultOfMethodCallIgnored
+				run.delete();
+			if (nodeRuns != null) nodeRuns.close();
+			nodes.close();
+			relationships.close();
+		}
+	}
+
+	/**
+	 * Writes pairs and interactors in memory, sorted, to new runs, and clears memory.
+	 */
+	private void spill() throws IOException {
+		final int[] byName = sortedInteractors();
+		final File file = File.createTempFile("neo4j-relationships", ".run", spillDirectory);
+		file.deleteOnExit();
+		runs.add(file);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), StringRuns.BUFFER_SIZE))) {
+			out.writeInt(size);
+			for (int i : sortedRelationships(byName)) {
+				new Relationship(interactors.get(starts[i]), interactors.get(ends[i]),
+						identifiers[i], types[i], methods[i], values[i], confidences[i]).write(out);
+			}
+		}
+		final List<String> sortedInteractors = new ArrayList<>(byName.length);
+		for (int code : byName) sortedInteractors.add(interactors.get(code));
+		nodeRuns.write(sortedInteractors);
+
+		codes.clear();
+		interactors.clear();
+		pairs = new LongIntHashMap();
+		Arrays.fill(identifiers, 0, size, null);
+		Arrays.fill(types, 0, size, null);
+		Arrays.fill(methods, 0, size, null);
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * K-way merge of the runs. Runs are in order of arrival, so when a pair is in more than one run,
+	 * the records of the pair are compared in the same order as the interactions were accepted.
+	 */
+	private void merge() throws IOException {
+		final PriorityQueue<Run> queue = new PriorityQueue<>(runs.size());
+		try {
+			for (int i = 0; i < runs.size(); i++) {
+				final Run run = new Run(runs.get(i), i);
+				if (run.next()) queue.add(run);
+				else run.in.close();
+			}
+			Relationship best = null;
+			while (!queue.isEmpty()) {
+				final Run run = queue.poll();
+				final Relationship relationship = run.current;
+				if (best == null || best.compareTo(relationship) != 0) {
+					if (best != null) best.print(relationships);
+					best = relationship;
+				} else if (best.value == null || relationship.confidence > best.confidence)
+					best = relationship;
+				if (run.next()) queue.add(run);
+				else run.in.close();
+			}
+			if (best != null) best.print(relationships);
+		} finally {
+			for (Run run : queue) run.in.close();
+		}
+		nodeRuns.merge(nodes::println);
+	}
+
+	/**
+	 * @return codes of the interactors, sorted by identifier
+	 */
+	private int[] sortedInteractors() {
+		return order(String::compareTo);
+	}
+
+	/**
+	 * Relationships are sorted by their pair of identifiers written as "greater:lesser", which is
+	 * the order of previous versions of this writer. Identifiers are ranked once, by themselves and
+	 * followed by the colon, so pairs can be sorted as packed longs of ranks. If an identifier
+	 * contains a colon, ranks are not enough and keys are compared as text.
+	 *
+	 * @param byName codes of the interactors, sorted by identifier
+	 * @return relationships in order
+	 */
+	private int[] sortedRelationships(int[] byName) {
+		final int n = interactors.size();
+		final int[] rank = new int[n];
+		for (int r = 0; r < n; r++) rank[byName[r]] = r;
+		final int[] sorted = new int[size];
+		if (interactors.stream().anyMatch(interactor -> interactor.indexOf(':') >= 0)) {
+			final Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) order[i] = i;
+			Arrays.sort(order, this::compare);
+			for (int i = 0; i < size; i++) sorted[i] = order[i];
+		} else {
+			final int[] byKey = order(Neo4jWriter::compareKeys);
+			final int[] keyRank = new int[n];
+			for (int r = 0; r < n; r++) keyRank[byKey[r]] = r;
+			final long[] keys = new long[size];
+			for (int i = 0; i < size; i++) {
+				final boolean greater = rank[starts[i]] > rank[ends[i]];
+				final int first = greater ? starts[i] : ends[i];
+				final int second = greater ? ends[i] : starts[i];
+				keys[i] = (long) keyRank[first] << 32 | rank[second];
+			}
+			Arrays.sort(keys);
+			for (int i = 0; i < size; i++) {
+				final int first = byKey[(int) (keys[i] >>> 32)];
+				final int second = byName[(int) keys[i]];
+				sorted[i] = pairs.get(first < second ? (long) first << 32 | second : (long) second << 32 | first);
+			}
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return codes of the interactors sorted by comparator
+	 */
+	private int[] order(Comparator<String> comparator) {
+		final String[] sorted = interactors.toArray(new String[0]);
+		Arrays.sort(sorted, comparator);
+		final int[] order = new int[sorted.length];
+		for (int i = 0; i < sorted.length; i++) order[i] = codes.get(sorted[i]);
+		return order;
+	}
+
+	private void printRelationship(int i) {
+		relationships.println(String.join(SEPARATOR, interactors.get(starts[i]), interactors.get(ends[i]),
+				identifiers[i], types[i], methods[i], values[i]));
+	}
+
+	/**
+	 * Compares two relationships by their pair of identifiers, written as "greater:lesser".
+	 */
+	private int compare(int x, int y) {
+		final String xs = interactors.get(starts[x]);
+		final String xe = interactors.get(ends[x]);
+		final String ys = interactors.get(starts[y]);
+		final String ye = interactors.get(ends[y]);
+		return xs.compareTo(xe) > 0
+				? ys.compareTo(ye) > 0 ? compareKeys(xs, xe, ys, ye) : compareKeys(xs, xe, ye, ys)
+				: ys.compareTo(ye) > 0 ? compareKeys(xe, xs, ys, ye) : compareKeys(xe, xs, ye, ys);
+	}
+
+	/**
+	 * Compares a1 + ":" + b1 with a2 + ":" + b2 without concatenating them.
+	 */
+	private static int compareKeys(String a1, String b1, String a2, String b2) {
+		final int length1 = a1.length() + 1 + b1.length();
+		final int length2 = a2.length() + 1 + b2.length();
+		final int length = Math.min(length1, length2);
+		for (int i = 0; i < length; i++) {
+			final char c1 = charAt(a1, b1, i);
+			final char c2 = charAt(a2, b2, i);
+			if (c1 != c2) return c1 - c2;
+		}
+		return length1 - length2;
+	}
+
+	/**
+	 * Compares a + ":" with b + ":", when neither a nor b contain a colon.
+	 */
+	private static int compareKeys(String a, String b) {
+		if (a.length() < b.length() && b.startsWith(a)) return ':' - b.charAt(a.length());
+		if (b.length() < a.length() && a.startsWith(b)) return a.charAt(b.length()) - ':';
+		return a.compareTo(b);
+	}
 
-		nodes.close();
-		relationships.close();
+	private static char charAt(String a, String b, int i) {
+		if (i < a.length()) return a.charAt(i);
+		if (i == a.length()) return ':';
+		return b.charAt(i - a.length() - 1);
 	}
 
 	@Override
@@ -48,33 +302,146 @@ public class Neo4jWriter implements Acceptor<Interaction>, AutoCloseable {
 		final Interactor a = interaction.getInteractorA();
 		final Interactor b = interaction.getInteractorB();
 
-//		final String aId = getGeneId(a);
-//		final String bId = getGeneId(b);
 		final String aId = a.getPrimaryIdentifier().getIdentifier();
 		final String bId = b.getPrimaryIdentifier().getIdentifier();
 		if (aId == null) return;
 		if (bId == null) return;
 		if (aId.equals(bId)) return;
-		String hash = aId.compareTo(bId) > 0 ? aId + ":" + bId : bId + ":" + aId;
-		double confidence;
-		final String cs = interaction.getConfidenceScores().get(0).getValue();
-		try {
-			confidence = cs == null ? 0.0 : Double.parseDouble(cs);
-		} catch (NumberFormatException ex) {
-			return;
-		}
-		final List<String> row = Arrays.asList(aId, bId,
-				interaction.getIdentifiers().get(0).getIdentifier(),
-				interaction.getTypes().get(0).getIdentifier(),
-				interaction.getDetectionMethods().get(0).getIdentifier(),
-				cs);
-
-		final List<String> current = uniques.get(hash);
-		if (current == null) uniques.put(hash, row);
-		else if (current.get(5) == null || confidence > Double.parseDouble(current.get(5)))
-			uniques.put(hash, row);
-		interactors.add(aId);
-		interactors.add(bId);
+		final ConfidenceScore score = interaction.getConfidenceScores().get(0);
+		final String cs = score.getValue();
+		if (cs != null && !score.isNumeric()) return;
+		final double confidence = cs == null ? 0.0 : score.asDouble();
+		final String identifier = interaction.getIdentifiers().get(0).getIdentifier();
+		final String type = interaction.getTypes().get(0).getIdentifier();
+		final String method = interaction.getDetectionMethods().get(0).getIdentifier();
+
+		if (spillThreshold > 0 && size >= spillThreshold) {
+			try {
+				spill();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		final int start = code(aId);
+		final int end = code(bId);
+		final long key = start < end ? (long) start << 32 | end : (long) end << 32 | start;
+		int relationship = pairs.get(key);
+		if (relationship < 0) {
+			relationship = size++;
+			if (relationship == starts.length) grow();
+			pairs.put(key, relationship);
+		} else if (values[relationship] != null && !(confidence > confidences[relationship])) return;
+		starts[relationship] = start;
+		ends[relationship] = end;
+		confidences[relationship] = confidence;
+		identifiers[relationship] = identifier;
+		types[relationship] = type;
+		methods[relationship] = method;
+		values[relationship] = cs == null ? null : scores.computeIfAbsent(cs, s -> s);
+	}
+
+	private int code(String interactor) {
+		final Integer code = codes.get(interactor);
+		if (code != null) return code;
+		codes.put(interactor, interactors.size());
+		interactors.add(interactor);
+		return interactors.size() - 1;
+	}
+
+	private void grow() {
+		final int length = 2 * starts.length;
+		starts = Arrays.copyOf(starts, length);
+		ends = Arrays.copyOf(ends, length);
+		confidences = Arrays.copyOf(confidences, length);
+		identifiers = Arrays.copyOf(identifiers, length);
+		types = Arrays.copyOf(types, length);
+		methods = Arrays.copyOf(methods, length);
+		values = Arrays.copyOf(values, length);
+	}
+
+	/**
+	 * A relationship in a run.
+	 */
+	private static class Relationship implements Comparable<Relationship> {
+		private final String start;
+		private final String end;
+		private final String identifier;
+		private final String type;
+		private final String method;
+		private final String value;
+		private final double confidence;
+
+		Relationship(String start, String end, String identifier, String type, String method, String value, double confidence) {
+			this.start = start;
+			this.end = end;
+			this.identifier = identifier;
+			this.type = type;
+			this.method = method;
+			this.value = value;
+			this.confidence = confidence;
+		}
+
+		static Relationship read(DataInput in) throws IOException {
+			return new Relationship(in.readUTF(), in.readUTF(), readNullable(in), readNullable(in),
+					readNullable(in), readNullable(in), in.readDouble());
+		}
+
+		void write(DataOutput out) throws IOException {
+			out.writeUTF(start);
+			out.writeUTF(end);
+			writeNullable(out, identifier);
+			writeNullable(out, type);
+			writeNullable(out, method);
+			writeNullable(out, value);
+			out.writeDouble(confidence);
+		}
+
+		void print(PrintStream out) {
+			out.println(String.join(SEPARATOR, start, end, identifier, type, method, value));
+		}
+
+		@Override
+		public int compareTo(Relationship other) {
+			final boolean greater = start.compareTo(end) > 0;
+			final boolean otherGreater = other.start.compareTo(other.end) > 0;
+			return compareKeys(greater ? start : end, greater ? end : start,
+					otherGreater ? other.start : other.end, otherGreater ? other.end : other.start);
+		}
+
+		private static String readNullable(DataInput in) throws IOException {
+			return in.readBoolean() ? in.readUTF() : null;
+		}
+
+		private static void writeNullable(DataOutput out, String value) throws IOException {
+			out.writeBoolean(value != null);
+			if (value != null) out.writeUTF(value);
+		}
+	}
+
+	private static class Run implements Comparable<Run> {
+		private final DataInputStream in;
+		private final int index;
+		private int remaining;
+		private Relationship current;
+
+		Run(File file, int index) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), StringRuns.BUFFER_SIZE));
+			this.index = index;
+			this.remaining = in.readInt();
+		}
+
+		boolean next() throws IOException {
+			if (remaining == 0) return false;
+			remaining--;
+			current = Relationship.read(in);
+			return true;
+		}
+
+		@Override
+		public int compareTo(Run other) {
+			final int compare = current.compareTo(other.current);
+			return compare != 0 ? compare : Integer.compare(index, other.index);
+		}
 	}
 
 }
@@ -1,8 +1,11 @@
 package org.uichuimi.mitab.io.consumer;
 
 import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
 
 import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class Progress implements Acceptor<Interaction> {
 
@@ -19,6 +22,11 @@ public class Progress implements Acceptor<Interaction> {
 		start = System.currentTimeMillis();
 	}
 
+	@Override
+	public Set<MitabColumn> columns() {
+		return EnumSet.noneOf(MitabColumn.class);
+	}
+
 	@Override
 	public void accept(Interaction interaction) {
 		if (++line % 1000 == 0)
@@ -2,9 +2,23 @@ package org.uichuimi.mitab.io.consumer;
 
 import org.uichuimi.mitab.io.model.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.*;
-
+import java.util.stream.Collector;
+
+import static org.uichuimi.mitab.io.model.MitabColumn.*;
+
+/**
+ * Counts interactions and interactors, and collects the detection methods, interaction types and
+ * roles found, with the first name seen for every identifier.
+ * <p>
+ * Stats is not thread safe. To compute it in parallel, every thread accumulates its own Stats and
+ * partial results are combined with {@link #merge(Stats)}, as {@link #collector(PrintStream)}
+ * does for parallel streams.
+ */
 public class Stats implements Acceptor<Interaction> {
 
 	private static final String KEY_VALUE_SEPARATOR = "=";
@@ -16,16 +30,79 @@ public class Stats implements Acceptor<Interaction> {
 	private final Map<String, String> types = new TreeMap<>();
 	private final Map<String, String> methods = new TreeMap<>();
 	private long lines = 0;
+	private int spillThreshold;
+	private StringRuns runs;
+	/**
+	 * Number of distinct interactors, counted once when closing, or -1.
+	 */
+	private long interactorCount = -1;
 
 	public Stats(PrintStream console) {
 		this.console = console;
 	}
 
+	/**
+	 * Keeps at most threshold interactors in memory. When there are more, they are written sorted
+	 * to a temporary file, and all the files are merged to count the interactors. Must be called
+	 * before accepting any interaction.
+	 *
+	 * @param directory where temporary files are created, or null for the default temporary
+	 *                  directory
+	 * @param threshold maximum number of interactors in memory
+	 * @return this
+	 */
+	public Stats withSpill(File directory, int threshold) {
+		if (threshold < 1) throw new IllegalArgumentException("threshold must be at least 1");
+		if (lines > 0) throw new IllegalStateException("spill must be set before accepting interactions");
+		this.spillThreshold = threshold;
+		this.runs = new StringRuns(directory, "stats-interactors");
+		return this;
+	}
+
+	/**
+	 * Collects interactions of a stream into a Stats. With a parallel stream, partial results are
+	 * merged in encounter order, so the summary is the same as the one of a sequential stream.
+	 *
+	 * @param console where {@link #close()} prints the summary
+	 */
+	public static Collector<Interaction, ?, Stats> collector(PrintStream console) {
+		return Collector.of(() -> new Stats(console), Stats::accept, Stats::merge);
+	}
+
+	/**
+	 * Adds the stats of other to these. Interactions of other are considered to come after the
+	 * interactions of this, so names already in this are kept. other must not be used afterwards.
+	 *
+	 * @return this
+	 */
+	public Stats merge(Stats other) {
+		lines += other.lines;
+		other.methods.forEach(methods::putIfAbsent);
+		other.types.forEach(types::putIfAbsent);
+		other.bio.forEach(bio::putIfAbsent);
+		other.exp.forEach(exp::putIfAbsent);
+		if (other.runs != null) {
+			if (runs == null) {
+				spillThreshold = other.spillThreshold;
+				runs = other.runs;
+			} else runs.addAll(other.runs);
+		}
+		interactors.addAll(other.interactors);
+		if (spillThreshold > 0 && interactors.size() >= spillThreshold) spill();
+		return this;
+	}
+
 	@Override
 	public void start() {
 
 	}
 
+	@Override
+	public Set<MitabColumn> columns() {
+		return EnumSet.of(DETECTION_METHOD, TYPE, ID_A, ID_B,
+				BIOLOGICAL_ROLE_A, BIOLOGICAL_ROLE_B, EXPERIMENTAL_ROLE_A, EXPERIMENTAL_ROLE_B);
+	}
+
 	@Override
 	public void accept(Interaction interaction) {
 		lines++;
@@ -44,6 +121,7 @@ public class Stats implements Acceptor<Interaction> {
 	private void accept(Interactor interactor) {
 		if (interactor.getPrimaryIdentifier() == null) return;
 		interactors.add(interactor.getPrimaryIdentifier().getIdentifier());
+		if (spillThreshold > 0 && interactors.size() >= spillThreshold) spill();
 
 		final List<BiologicalRole> bioRoles = interactor.getBiologicalRoles();
 		if (!bioRoles.isEmpty())
@@ -56,12 +134,45 @@ public class Stats implements Acceptor<Interaction> {
 
 	@Override
 	public void close() {
-		console.println(summary());
+		try {
+			interactorCount = countInteractors();
+			console.println(summary());
+		} finally {
+			if (runs != null) runs.close();
+		}
+	}
+
+	private void spill() {
+		try {
+			runs.write(interactors);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		interactors.clear();
+	}
+
+	/**
+	 * Counts the distinct interactors in memory and in the runs, without spilling.
+	 */
+	private long countInteractors() {
+		if (interactorCount >= 0) return interactorCount;
+		if (runs == null || runs.isEmpty()) return interactors.size();
+		try {
+			return runs.merge(interactors, interactor -> {
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
+	/**
+	 * @return the number of interactors and interactions, and the methods, types and roles found.
+	 * It does not change these stats, but when interactors have been spilled and these stats are
+	 * not closed yet, the runs are read to count the interactors
+	 */
 	public String summary() {
 		final StringBuilder builder = new StringBuilder();
-		builder.append(interactors.size()).append(" interactors").append(NEWLINE)
+		builder.append(countInteractors()).append(" interactors").append(NEWLINE)
 				.append(lines).append(" interactions").append(NEWLINE)
 				.append("Methods (").append(methods.size()).append(")").append(NEWLINE);
 		methods.forEach((key, value) -> append(builder, key, value));
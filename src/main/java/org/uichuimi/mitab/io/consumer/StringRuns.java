@@ -0,0 +1,150 @@
+package org.uichuimi.mitab.io.consumer;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Sorted runs of strings in temporary files. Every run is written sorted and without duplicates,
+ * and all the runs are merged with a k-way merge into a single sorted sequence without duplicates.
+ * Files are deleted when closing.
+ */
+class StringRuns implements AutoCloseable {
+
+	static final int BUFFER_SIZE = 1 << 16;
+
+	private final File directory;
+	private final String prefix;
+	private final List<File> runs = new ArrayList<>();
+
+	/**
+	 * @param directory where temporary files are created, or null for the default temporary
+	 *                  directory
+	 * @param prefix    prefix of the temporary files
+	 */
+	StringRuns(File directory, String prefix) {
+		this.directory = directory;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Writes a new run.
+	 *
+	 * @param values sorted values, without duplicates
+	 */
+	void write(Collection<String> values) throws IOException {
+		final File file = File.createTempFile(prefix, ".run", directory);
+		file.deleteOnExit();
+		runs.add(file);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE))) {
+			out.writeInt(values.size());
+			for (String value : values) out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Moves the runs of other to this.
+	 */
+	void addAll(StringRuns other) {
+		runs.addAll(other.runs);
+		other.runs.clear();
+	}
+
+	boolean isEmpty() {
+		return runs.isEmpty();
+	}
+
+	/**
+	 * Calls action with every distinct value of all the runs, in order.
+	 *
+	 * @return number of distinct values
+	 */
+	long merge(Consumer<String> action) throws IOException {
+		return merge(null, action);
+	}
+
+	/**
+	 * Same as {@link #merge(Consumer)}, with values that are not written to a run yet merged as
+	 * one more run. Nothing is written.
+	 *
+	 * @param values sorted values, without duplicates, or null
+	 */
+	long merge(Collection<String> values, Consumer<String> action) throws IOException {
+		final PriorityQueue<Run> queue = new PriorityQueue<>(runs.size() + 1, Comparator.comparing(run -> run.value));
+		try {
+			for (File file : runs) {
+				final Run run = new Run(file);
+				if (run.next()) queue.add(run);
+				else run.close();
+			}
+			if (values != null) {
+				final Run run = new Run(values.iterator());
+				if (run.next()) queue.add(run);
+			}
+			long count = 0;
+			String last = null;
+			while (!queue.isEmpty()) {
+				final Run run = queue.poll();
+				if (!run.value.equals(last)) {
+					action.accept(run.value);
+					last = run.value;
+					count++;
+				}
+				if (run.next()) queue.add(run);
+				else run.close();
+			}
+			return count;
+		} finally {
+			for (Run run : queue) run.close();
+		}
+	}
+
+	@Override
+	public void close() {
+		for (File run : runs) //noinspection ResultOfMethodCallIgnored
+			run.delete();
+		runs.clear();
+	}
+
+	/**
+	 * A run being merged, read from a file or from values in memory.
+	 */
+	private static class Run {
+		private final DataInputStream in;
+		private final Iterator<String> values;
+		private int remaining;
+		private String value;
+
+		Run(File file) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+			this.values = null;
+			this.remaining = in.readInt();
+		}
+
+		Run(Iterator<String> values) {
+			this.in = null;
+			this.values = values;
+		}
+
+		boolean next() throws IOException {
+			if (values != null) {
+				if (!values.hasNext()) return false;
+				value = values.next();
+				return true;
+			}
+			if (remaining == 0) return false;
+			remaining--;
+			value = in.readUTF();
+			return true;
+		}
+
+		void close() throws IOException {
+			if (in != null) in.close();
+		}
+	}
+}
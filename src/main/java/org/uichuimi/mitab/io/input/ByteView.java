@@ -0,0 +1,9 @@
+package org.uichuimi.mitab.io.input;
+
+/**
+ * A line whose chars are the bytes of UTF-8 text, one char per byte, without decoding. Only the
+ * fields created by the parser are decoded. The same raw chars mean different text in a byte
+ * view and in a decoded line, so anything keyed by raw chars must not mix both kinds of lines.
+ */
+public interface ByteView extends CharSequence {
+}
@@ -0,0 +1,261 @@
+package org.uichuimi.mitab.io.input;
+
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Measures the cost of parsing every column of MITAB lines: time, bytes allocated, characters and
+ * fields, and the lines where each column was slowest. Columns are parsed exactly as {@link
+ * PsiInteractionParser#toInteraction(CharSequence)} does, including field caches. Then the fields
+ * of the column are parsed again with {@link FieldParser#parse(CharSequence, int, int, int[])}
+ * alone, to tell the cost of the MITAB syntax from the cost of creating and caching fields.
+ * <p>
+ * Allocations are read from the thread allocation counter of the JVM, when it is supported.
+ * Measurements have an overhead of a few tens of nanoseconds per column, which is noticeable in
+ * small columns, so use totals to compare columns, not to predict parsing time. Not thread safe.
+ */
+public class ColumnProfiler {
+
+	/**
+	 * Number of slowest lines kept for every column.
+	 */
+	public static final int SLOWEST = 3;
+
+	private static final int SAMPLE_LENGTH = 60;
+
+	private final PsiInteractionParser parser;
+	private final com.sun.management.ThreadMXBean threads;
+	private final ColumnProfile[] profiles;
+	private final int[] bounds = new int[FieldParser.BOUNDS];
+	private long lines;
+
+	public ColumnProfiler(PsiInteractionParser parser) {
+		this.parser = parser;
+		final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		this.threads = bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+				? (com.sun.management.ThreadMXBean) bean : null;
+		if (threads != null) threads.setThreadAllocatedMemoryEnabled(true);
+		this.profiles = new ColumnProfile[parser.getNumberOfColumns()];
+		for (int i = 0; i < profiles.length; i++) profiles[i] = new ColumnProfile(MitabColumn.values()[i]);
+	}
+
+	/**
+	 * Parses line, column by column, and adds its measures to the profile. Syntax errors are
+	 * counted, and do not stop the rest of columns from being parsed.
+	 *
+	 * @param number number of the line in the file, used to report the slowest lines
+	 */
+	public void accept(long number, CharSequence line) {
+		lines++;
+		final Interaction interaction = new Interaction();
+		final LineTokenizer tokenizer = new LineTokenizer(line);
+		for (ColumnProfile profile : profiles) {
+			final long allocated = allocated();
+			final long start = System.nanoTime();
+			if (!tokenizer.nextColumn()) break;
+			boolean error = false;
+			try {
+				parser.parse(interaction, profile.column, tokenizer);
+			} catch (IllegalArgumentException e) {
+				error = true;
+			}
+			final long nanos = System.nanoTime() - start;
+			final long bytes = allocated() - allocated;
+			profile.add(number, tokenizer, nanos, bytes, error, fieldNanos(line, tokenizer));
+		}
+	}
+
+	/**
+	 * @return time to parse the fields of the current column of tokenizer with FieldParser, or 0
+	 * if any field is not valid
+	 */
+	private long fieldNanos(CharSequence line, LineTokenizer tokenizer) {
+		final long start = System.nanoTime();
+		try {
+			int from = tokenizer.columnStart();
+			for (int i = 0; i < tokenizer.fieldCount(); i++) {
+				FieldParser.parse(line, from, tokenizer.fieldEnd(i), bounds);
+				from = tokenizer.fieldEnd(i) + 1;
+			}
+		} catch (IllegalArgumentException e) {
+			return 0;
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long allocated() {
+		return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * @return number of lines profiled
+	 */
+	public long getLines() {
+		return lines;
+	}
+
+	/**
+	 * @return profile of column, or null if the column is not in the MITAB version of the parser
+	 */
+	public ColumnProfile getProfile(MitabColumn column) {
+		return column.ordinal() < profiles.length ? profiles[column.ordinal()] : null;
+	}
+
+	/**
+	 * Writes a table with the measures of every column, from the slowest to the fastest, followed
+	 * by the slowest lines of the slowest columns.
+	 *
+	 * @param columns number of columns whose slowest lines are written
+	 */
+	public void report(PrintStream out, int columns) {
+		final List<ColumnProfile> sorted = new ArrayList<>(Arrays.asList(profiles));
+		sorted.sort(Comparator.comparingLong((ColumnProfile profile) -> profile.nanos).reversed());
+		final long total = sorted.stream().mapToLong(profile -> profile.nanos).sum();
+		out.printf("%,d lines%n", lines);
+		out.printf("%-28s %10s %6s %10s %12s %14s %12s %8s %7s%n",
+				"column", "time (ms)", "%", "field (ms)", "alloc (KB)", "chars", "fields", "fields/l", "errors");
+		for (ColumnProfile profile : sorted)
+			out.printf("%-28s %,10d %6.1f %,10d %,12d %,14d %,12d %8.2f %,7d%n",
+					profile.column, profile.nanos / 1_000_000, total == 0 ? 0 : 100.0 * profile.nanos / total,
+					profile.fieldNanos / 1_000_000, profile.bytes / 1024, profile.chars, profile.fields,
+					lines == 0 ? 0 : (double) profile.fields / lines, profile.errors);
+		if (threads == null) out.println("allocations are not supported by this JVM");
+		for (ColumnProfile profile : sorted.subList(0, Math.min(columns, sorted.size()))) {
+			out.printf("%nslowest lines of %s%n", profile.column);
+			for (SlowLine line : profile.getSlowest())
+				out.printf("  line %,d: %,d us, %,d chars: %s%n", line.number, line.nanos / 1000, line.chars, line.sample);
+		}
+	}
+
+	/**
+	 * Accumulated measures of one column.
+	 */
+	public static class ColumnProfile {
+
+		private final MitabColumn column;
+		/**
+		 * Slowest lines, the fastest of them first.
+		 */
+		private final PriorityQueue<SlowLine> slowest = new PriorityQueue<>(Comparator.comparingLong(line -> line.nanos));
+		private long lines;
+		private long nanos;
+		private long fieldNanos;
+		private long bytes;
+		private long chars;
+		private long fields;
+		private long errors;
+
+		private ColumnProfile(MitabColumn column) {
+			this.column = column;
+		}
+
+		private void add(long number, LineTokenizer tokenizer, long nanos, long bytes, boolean error, long fieldNanos) {
+			final int chars = tokenizer.columnEnd() - tokenizer.columnStart();
+			this.lines++;
+			this.nanos += nanos;
+			this.fieldNanos += fieldNanos;
+			this.bytes += bytes;
+			this.chars += chars;
+			this.fields += tokenizer.fieldCount();
+			if (error) errors++;
+			if (slowest.size() < SLOWEST || nanos > slowest.peek().nanos) {
+				final String text = tokenizer.column();
+				final String sample = text.length() <= SAMPLE_LENGTH ? text : text.substring(0, SAMPLE_LENGTH) + "...";
+				slowest.add(new SlowLine(number, nanos, chars, sample));
+				if (slowest.size() > SLOWEST) slowest.poll();
+			}
+		}
+
+		public MitabColumn getColumn() {
+			return column;
+		}
+
+		/**
+		 * @return number of lines that have the column
+		 */
+		public long getLines() {
+			return lines;
+		}
+
+		/**
+		 * @return total time spent parsing the column, in nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return time spent by FieldParser alone in the fields of the column, in nanoseconds
+		 */
+		public long getFieldNanos() {
+			return fieldNanos;
+		}
+
+		/**
+		 * @return bytes allocated while parsing the column, 0 if not supported by the JVM
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		public long getChars() {
+			return chars;
+		}
+
+		public long getFields() {
+			return fields;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		/**
+		 * @return the slowest lines of the column, the slowest first
+		 */
+		public List<SlowLine> getSlowest() {
+			final List<SlowLine> lines = new ArrayList<>(slowest);
+			lines.sort(Comparator.comparingLong((SlowLine line) -> line.nanos).reversed());
+			return lines;
+		}
+	}
+
+	public static class SlowLine {
+
+		private final long number;
+		private final long nanos;
+		private final int chars;
+		private final String sample;
+
+		private SlowLine(long number, long nanos, int chars, String sample) {
+			this.number = number;
+			this.nanos = nanos;
+			this.chars = chars;
+			this.sample = sample;
+		}
+
+		public long getNumber() {
+			return number;
+		}
+
+		public long getNanos() {
+			return nanos;
+		}
+
+		public int getChars() {
+			return chars;
+		}
+
+		/**
+		 * @return the first characters of the column in this line
+		 */
+		public String getSample() {
+			return sample;
+		}
+	}
+}
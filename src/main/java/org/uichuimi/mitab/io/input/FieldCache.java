@@ -0,0 +1,94 @@
+package org.uichuimi.mitab.io.input;
+
+/**
+ * Bounded cache of parsed fields, keyed by their raw text. Fields of controlled vocabulary columns
+ * (detection methods, types, roles, databases, organisms) take only a few hundred different
+ * values, so the same immutable instance can be returned for every occurrence of a value instead
+ * of creating new fields and strings.
+ * <p>
+ * The cache is direct-mapped: every key has only one slot, and a new value replaces the value in
+ * the slot. Entries are immutable, so the cache can be shared by parsing threads without locks: a
+ * thread may miss a value recently added by other thread, but it never sees a partial entry.
+ * <p>
+ * Keys of {@link ByteView} lines are undecoded bytes, so entries remember the kind of line they
+ * were created from, and only match lines of the same kind.
+ *
+ * @param <T> type of field
+ */
+final class FieldCache<T> {
+
+	static final int SIZE = 1024;
+
+	private final Entry<T>[] entries;
+	private final int mask;
+
+	FieldCache() {
+		this(SIZE);
+	}
+
+	/**
+	 * @param size number of slots, must be a power of 2
+	 */
+	@SuppressWarnings("unchecked")
+	FieldCache(int size) {
+		if (Integer.bitCount(size) != 1) throw new IllegalArgumentException("size must be a power of 2");
+		this.entries = (Entry<T>[]) new Entry<?>[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return the value cached for the text in line between from (inclusive) and to (exclusive), or
+	 * null if it is not in the cache
+	 */
+	T get(CharSequence line, int from, int to) {
+		final int hash = hash(line, from, to);
+		final Entry<T> entry = entries[index(hash)];
+		return entry != null && entry.matches(hash, line instanceof ByteView, line, from, to) ? entry.value : null;
+	}
+
+	/**
+	 * Caches value for the text in line between from (inclusive) and to (exclusive).
+	 */
+	void put(CharSequence line, int from, int to, T value) {
+		final int hash = hash(line, from, to);
+		final char[] key = new char[to - from];
+		for (int i = 0; i < key.length; i++) key[i] = line.charAt(from + i);
+		entries[index(hash)] = new Entry<>(hash, line instanceof ByteView, key, value);
+	}
+
+	private int index(int hash) {
+		return (hash ^ hash >>> 16) & mask;
+	}
+
+	private static int hash(CharSequence line, int from, int to) {
+		int hash = 0;
+		for (int i = from; i < to; i++) hash = 31 * hash + line.charAt(i);
+		return hash;
+	}
+
+	private static final class Entry<T> {
+
+		private final int hash;
+		private final boolean bytes;
+		/**
+		 * Raw chars, as returned by the line, so keys of lines that are not decoded are not decoded
+		 * either.
+		 */
+		private final char[] key;
+		private final T value;
+
+		private Entry(int hash, boolean bytes, char[] key, T value) {
+			this.hash = hash;
+			this.bytes = bytes;
+			this.key = key;
+			this.value = value;
+		}
+
+		private boolean matches(int hash, boolean bytes, CharSequence line, int from, int to) {
+			if (this.hash != hash || this.bytes != bytes || key.length != to - from) return false;
+			for (int i = 0; i < key.length; i++)
+				if (key[i] != line.charAt(from + i)) return false;
+			return true;
+		}
+	}
+}
@@ -2,10 +2,39 @@ package org.uichuimi.mitab.io.input;
 
 import org.uichuimi.mitab.io.model.Field;
 
+import java.util.Arrays;
+
 class FieldParser {
 
 	private static final char QUOTE = '"';
-	private static final String EMPTY = "-";
+	private static final char ESCAPE = '\\';
+	private static final char EMPTY = '-';
+
+	/**
+	 * Positions in the bounds array filled by {@link FieldParser#locate(CharSequence, int, int, int[])}.
+	 * Every part has a start (inclusive) and an end (exclusive) position. Absent parts are marked
+	 * with -1.
+	 */
+	static final int XREF_START = 0;
+	static final int XREF_END = 1;
+	static final int VALUE_START = 2;
+	static final int VALUE_END = 3;
+	static final int DESCRIPTION_START = 4;
+	static final int DESCRIPTION_END = 5;
+	static final int BOUNDS = 6;
+
+	/**
+	 * Results of {@link FieldParser#tryLocate(CharSequence, int, int, int[])}.
+	 */
+	static final int OK = 0;
+	static final int EMPTY_FIELD = 1;
+	static final int UNCLOSED_QUOTE = 2;
+	static final int UNCLOSED_DESCRIPTION = 3;
+	/**
+	 * Not returned by tryLocate: reported by the parser for lines with more columns than MITAB
+	 * defines.
+	 */
+	static final int EXTRA_COLUMN = 4;
 
 	private FieldParser() {
 	}
@@ -31,94 +60,180 @@ class FieldParser {
 	 * @throws IllegalArgumentException if string is null or empty or does not match MITAB syntax.
 	 */
 	static Field parse(String string) throws IllegalArgumentException {
-		try {
-			return parsePrivate(string);
-		} catch (StringIndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException(string, ex);
-		}
+		if (string == null) throw new IllegalArgumentException("field must not be null");
+		return parse(string, 0, string.length(), new int[BOUNDS]);
+	}
+
+	/**
+	 * Same as {@link FieldParser#parse(String)}, but reading only the region of line between
+	 * <em>from</em> (inclusive) and <em>to</em> (exclusive). Only the xref, value and description
+	 * strings are created, so no intermediate substrings are allocated. The line can be any
+	 * CharSequence, only the regions of the three parts are converted into strings.
+	 *
+	 * @param line   line containing the field
+	 * @param from   start position of the field in line
+	 * @param to     end position (exclusive) of the field in line
+	 * @param bounds a reusable array of size {@link FieldParser#BOUNDS}
+	 * @return the Field in the region
+	 * @throws IllegalArgumentException if region is empty or does not match MITAB syntax.
+	 */
+	static Field parse(CharSequence line, int from, int to, int[] bounds) throws IllegalArgumentException {
+		locate(line, from, to, bounds);
+		return field(line, bounds);
+	}
+
+	/**
+	 * Creates the field located in bounds by {@link FieldParser#tryLocate(CharSequence, int, int,
+	 * int[])}.
+	 */
+	static Field field(CharSequence line, int[] bounds) {
+		return new Field(part(line, bounds, XREF_START, XREF_END),
+				part(line, bounds, VALUE_START, VALUE_END),
+				part(line, bounds, DESCRIPTION_START, DESCRIPTION_END));
+	}
+
+	private static String part(CharSequence line, int[] bounds, int start, int end) {
+		return bounds[start] == -1 ? null : line.subSequence(bounds[start], bounds[end]).toString();
 	}
 
 	// https://psicquic.github.io/MITAB27Format.html
-	private static Field parsePrivate(String string) {
-		if (string == null) throw new IllegalArgumentException("field must not be null");
-		string = string.trim();
-		if (string.isEmpty() || string.equals(EMPTY))
-			throw new IllegalArgumentException("field must not be empty");
+
+	/**
+	 * Finds the positions of xref, value and description of the field contained in the region of
+	 * line between <em>from</em> and <em>to</em>, and stores them into bounds. Quotes are not
+	 * included in the bounds.
+	 *
+	 * @throws IllegalArgumentException if region is empty or does not match MITAB syntax.
+	 */
+	static void locate(CharSequence line, int from, int to, int[] bounds) {
+		final int error = tryLocate(line, from, to, bounds);
+		if (error == EMPTY_FIELD) throw new IllegalArgumentException("field must not be empty");
+		if (error != OK) throw new IllegalArgumentException(line.subSequence(from, to).toString().trim());
+	}
+
+	/**
+	 * Same as {@link FieldParser#locate(CharSequence, int, int, int[])}, but errors are returned
+	 * instead of thrown, so invalid lines can be skipped without the cost of exceptions.
+	 *
+	 * @return {@link FieldParser#OK}, or the error code if region is empty or does not match MITAB
+	 * syntax
+	 */
+	static int tryLocate(CharSequence line, int from, int to, int[] bounds) {
+		while (from < to && line.charAt(from) <= ' ') from++;
+		while (to > from && line.charAt(to - 1) <= ' ') to--;
+		if (from == to || (to - from == 1 && line.charAt(from) == EMPTY))
+			return EMPTY_FIELD;
+		Arrays.fill(bounds, -1);
 		// We will cover 3 cases, all quoted and unquoted:
 		// xref
 		// xref:value
 		// xref:value(description)
-		String xref, value = null, desc = null;
+		int pos = from;
 
 		// 1: xref
 		// Quoted
-		if (string.charAt(0) == QUOTE) {
-			int end = closingQuotes(string);
-			xref = string.substring(1, end);
-			string = string.substring(end + 1);
+		if (line.charAt(pos) == QUOTE) {
+			final int end = closingQuotes(line, pos, to);
+			if (end == -1) return UNCLOSED_QUOTE;
+			bounds[XREF_START] = pos + 1;
+			bounds[XREF_END] = end;
+			pos = end + 1;
 		}
 		// unquoted
 		else {
-			final int end = string.indexOf(':');
+			final int end = indexOf(line, ':', pos, to);
+			bounds[XREF_START] = pos;
 			if (end == -1) {
-				xref = string;
-				return new Field(xref, null, null);
+				bounds[XREF_END] = to;
+				return OK;
 			}
-			xref = string.substring(0, end);
-			string = string.substring(end);
+			bounds[XREF_END] = end;
+			pos = end;
 		}
 		// 2: Value
-		if (!string.isEmpty() && string.charAt(0) == ':') {
+		if (pos < to && line.charAt(pos) == ':') {
+			pos += 1;
+			if (pos == to) {
+				bounds[VALUE_START] = bounds[VALUE_END] = to;
+			}
 			// Quoted
-			string = string.substring(1);
-			if (string.isEmpty()) {
-				value = "";
-			} else {
-				if (string.charAt(0) == QUOTE) {
-					int end = closingQuotes(string);
-					value = string.substring(1, end);
-					string = string.substring(end + 1);
-				}
-				// unquoted
-				else {
-					final int end = string.indexOf('(');
-					if (end == -1) {
-						value = string;
-						return new Field(xref, value, null);
-					}
-					value = string.substring(0, end);
-					string = string.substring(end);
+			else if (line.charAt(pos) == QUOTE) {
+				final int end = closingQuotes(line, pos, to);
+				if (end == -1) return UNCLOSED_QUOTE;
+				bounds[VALUE_START] = pos + 1;
+				bounds[VALUE_END] = end;
+				pos = end + 1;
+			}
+			// unquoted
+			else {
+				final int end = indexOf(line, '(', pos, to);
+				bounds[VALUE_START] = pos;
+				if (end == -1) {
+					bounds[VALUE_END] = to;
+					return OK;
 				}
+				bounds[VALUE_END] = end;
+				pos = end;
 			}
 		}
 		// 3: description
-		if (!string.isEmpty() && string.charAt(0) == '(') {
-			string = string.substring(1);
+		if (pos < to && line.charAt(pos) == '(') {
+			pos += 1;
+			if (pos == to) return UNCLOSED_DESCRIPTION;
 			// Quoted
-			if (string.charAt(0) == QUOTE) {
-				int end = closingQuotes(string);
-				desc = string.substring(1, end);
-
+			if (line.charAt(pos) == QUOTE) {
+				final int end = closingQuotes(line, pos, to);
+				if (end == -1) return UNCLOSED_QUOTE;
+				bounds[DESCRIPTION_START] = pos + 1;
+				bounds[DESCRIPTION_END] = end;
 			}
 			// unquoted
 			else {
-				final int end = string.indexOf(')');
-				desc = string.substring(0, end);
+				final int end = indexOf(line, ')', pos, to);
+				if (end == -1) return UNCLOSED_DESCRIPTION;
+				bounds[DESCRIPTION_START] = pos;
+				bounds[DESCRIPTION_END] = end;
 			}
 		}
-		return new Field(xref, value, desc);
+		return OK;
+	}
+
+	/**
+	 * @return a description of an error code returned by {@link FieldParser#tryLocate(CharSequence,
+	 * int, int, int[])}
+	 */
+	static String reason(int error) {
+		switch (error) {
+			case EMPTY_FIELD:
+				return "empty field";
+			case UNCLOSED_QUOTE:
+				return "unclosed quote";
+			case UNCLOSED_DESCRIPTION:
+				return "unclosed description";
+			case EXTRA_COLUMN:
+				return "unexpected column after it";
+			default:
+				return "valid field";
+		}
 	}
 
 	/**
 	 * Get the position of the next unescaped quote
 	 *
-	 * @param string field string
-	 * @return position of next unescaped quote or -1 if none
+	 * @param line  line containing the field
+	 * @param quote position of the opening quote
+	 * @param to    end of the field
+	 * @return position of next unescaped quote, or -1 if quote is not closed before to
 	 */
-	private static int closingQuotes(String string) {
-		int end = string.indexOf(QUOTE, 1);
-		while (string.charAt(end - 1) == '\\')
-			end = string.indexOf(QUOTE, end + 1);
+	private static int closingQuotes(CharSequence line, int quote, int to) {
+		int end = indexOf(line, QUOTE, quote + 1, to);
+		while (end != -1 && line.charAt(end - 1) == ESCAPE)
+			end = indexOf(line, QUOTE, end + 1, to);
 		return end;
 	}
+
+	private static int indexOf(CharSequence line, char c, int from, int to) {
+		for (int i = from; i < to; i++) if (line.charAt(i) == c) return i;
+		return -1;
+	}
 }
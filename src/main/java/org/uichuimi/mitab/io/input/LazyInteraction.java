@@ -0,0 +1,334 @@
+package org.uichuimi.mitab.io.input;
+
+import org.uichuimi.mitab.io.model.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.uichuimi.mitab.io.model.MitabColumn.*;
+
+/**
+ * Interaction that keeps the raw MITAB line and parses every column the first time any of its
+ * getters is called. Columns are tokenized only up to the requested one. A column is marked as
+ * touched when it is parsed or when any of its setters is called, and
+ * {@link PsiInteractionParser#toString(Interaction)} copies the raw text of the columns that were
+ * never touched, so they are neither parsed nor serialized.
+ * <p>
+ * This class is not thread safe, but it can be passed between threads after creation. Syntax
+ * errors in a column are thrown by every getter of the column, until the column is set.
+ */
+final class LazyInteraction extends Interaction {
+
+	private static final int COLUMNS = MitabColumn.values().length;
+	private static final Set<MitabColumn> INTERACTOR_A = EnumSet.of(ID_A, ALT_ID_A, ALIAS_A, TAXID_A, BIOLOGICAL_ROLE_A, EXPERIMENTAL_ROLE_A, TYPE_A, XREF_A, ANNOTATION_A, CHECKSUM_A, FEATURE_A, STOICHIOMETRY_A, IDENTIFICATION_METHOD_A, BIOLOGICAL_EFFECT_A);
+	private static final Set<MitabColumn> INTERACTOR_B = EnumSet.of(ID_B, ALT_ID_B, ALIAS_B, TAXID_B, BIOLOGICAL_ROLE_B, EXPERIMENTAL_ROLE_B, TYPE_B, XREF_B, ANNOTATION_B, CHECKSUM_B, FEATURE_B, STOICHIOMETRY_B, IDENTIFICATION_METHOD_B, BIOLOGICAL_EFFECT_B);
+
+	private final PsiInteractionParser parser;
+	private final LineTokenizer tokenizer;
+	/**
+	 * Starts of the columns already tokenized.
+	 */
+	private final int[] starts = new int[COLUMNS];
+	private int tokenized = 0;
+	/**
+	 * Start of the first column not tokenized yet.
+	 */
+	private int next = 0;
+	/**
+	 * Bit set of touched columns, by ordinal.
+	 */
+	private long touched = 0;
+
+	LazyInteraction(PsiInteractionParser parser, CharSequence line) {
+		this.parser = parser;
+		this.tokenizer = new LineTokenizer(line);
+		super.setInteractorA(new LazyInteractor(this, true));
+		super.setInteractorB(new LazyInteractor(this, false));
+	}
+
+	/**
+	 * @return true if column has been parsed or set
+	 */
+	boolean isTouched(MitabColumn column) {
+		return (touched & 1L << column.ordinal()) != 0;
+	}
+
+	void touch(MitabColumn column) {
+		touched |= 1L << column.ordinal();
+	}
+
+	/**
+	 * Parses column if it has not been touched yet. The column is only touched if it is parsed
+	 * successfully, so an invalid column throws on every access and is still copied raw.
+	 */
+	void ensure(MitabColumn column) {
+		if (isTouched(column)) return;
+		if (seek(column)) parser.parse(this, column, tokenizer);
+		touch(column);
+	}
+
+	/**
+	 * @return the raw text of column, or the empty value (-) if the column is empty or missing
+	 */
+	String raw(MitabColumn column) {
+		if (!seek(column) || tokenizer.isEmpty()) return "-";
+		return tokenizer.column();
+	}
+
+	/**
+	 * Moves the tokenizer to column.
+	 *
+	 * @return false if the line does not contain column
+	 */
+	private boolean seek(MitabColumn column) {
+		final int index = column.ordinal();
+		if (index < tokenized) {
+			tokenizer.seek(starts[index]);
+			return tokenizer.nextColumn();
+		}
+		tokenizer.seek(next);
+		while (tokenizer.nextColumn()) {
+			starts[tokenized++] = tokenizer.columnStart();
+			next = tokenizer.position();
+			if (index < tokenized) return true;
+		}
+		next = tokenizer.position();
+		return false;
+	}
+
+	@Override
+	public void setInteractorA(Interactor interactorA) {
+		INTERACTOR_A.forEach(this::touch);
+		super.setInteractorA(interactorA);
+	}
+
+	@Override
+	public void setInteractorB(Interactor interactorB) {
+		INTERACTOR_B.forEach(this::touch);
+		super.setInteractorB(interactorB);
+	}
+
+	@Override
+	public List<Author> getAuthors() {
+		ensure(AUTHOR);
+		return super.getAuthors();
+	}
+
+	@Override
+	public void setAuthors(List<Author> authors) {
+		touch(AUTHOR);
+		super.setAuthors(authors);
+	}
+
+	@Override
+	public List<DetectionMethod> getDetectionMethods() {
+		ensure(DETECTION_METHOD);
+		return super.getDetectionMethods();
+	}
+
+	@Override
+	public void setDetectionMethods(List<DetectionMethod> detectionMethods) {
+		touch(DETECTION_METHOD);
+		super.setDetectionMethods(detectionMethods);
+	}
+
+	@Override
+	public List<Publication> getPublications() {
+		ensure(PUBLICATION);
+		return super.getPublications();
+	}
+
+	@Override
+	public void setPublications(List<Publication> publications) {
+		touch(PUBLICATION);
+		super.setPublications(publications);
+	}
+
+	@Override
+	public List<Type> getTypes() {
+		ensure(TYPE);
+		return super.getTypes();
+	}
+
+	@Override
+	public void setTypes(List<Type> types) {
+		touch(TYPE);
+		super.setTypes(types);
+	}
+
+	@Override
+	public List<Database> getDatabases() {
+		ensure(DATABASE);
+		return super.getDatabases();
+	}
+
+	@Override
+	public void setDatabases(List<Database> databases) {
+		touch(DATABASE);
+		super.setDatabases(databases);
+	}
+
+	@Override
+	public List<Identifier> getIdentifiers() {
+		ensure(IDENTIFIER);
+		return super.getIdentifiers();
+	}
+
+	@Override
+	public void setIdentifiers(List<Identifier> identifiers) {
+		touch(IDENTIFIER);
+		super.setIdentifiers(identifiers);
+	}
+
+	@Override
+	public List<CrossReference> getCrossReferences() {
+		ensure(XREF);
+		return super.getCrossReferences();
+	}
+
+	@Override
+	public void setCrossReferences(List<CrossReference> crossReferences) {
+		touch(XREF);
+		super.setCrossReferences(crossReferences);
+	}
+
+	@Override
+	public List<Annotation> getAnnotations() {
+		ensure(ANNOTATION);
+		return super.getAnnotations();
+	}
+
+	@Override
+	public void setAnnotations(List<Annotation> annotations) {
+		touch(ANNOTATION);
+		super.setAnnotations(annotations);
+	}
+
+	@Override
+	public List<Organism> getOrganism() {
+		ensure(HOST_ORGANISM);
+		return super.getOrganism();
+	}
+
+	@Override
+	public void setOrganism(List<Organism> organism) {
+		touch(HOST_ORGANISM);
+		super.setOrganism(organism);
+	}
+
+	@Override
+	public List<ConfidenceScore> getConfidenceScores() {
+		ensure(CONFIDENCE);
+		return super.getConfidenceScores();
+	}
+
+	@Override
+	public void setConfidenceScores(List<ConfidenceScore> confidenceScores) {
+		touch(CONFIDENCE);
+		super.setConfidenceScores(confidenceScores);
+	}
+
+	@Override
+	public List<ComplexExpansion> getComplexExpansion() {
+		ensure(EXPANSION);
+		return super.getComplexExpansion();
+	}
+
+	@Override
+	public void setComplexExpansion(List<ComplexExpansion> complexExpansion) {
+		touch(EXPANSION);
+		super.setComplexExpansion(complexExpansion);
+	}
+
+	@Override
+	public List<Parameter> getParameters() {
+		ensure(PARAMETER);
+		return super.getParameters();
+	}
+
+	@Override
+	public void setParameters(List<Parameter> parameters) {
+		touch(PARAMETER);
+		super.setParameters(parameters);
+	}
+
+	@Override
+	public List<Date> getCreation() {
+		ensure(CREATION);
+		return super.getCreation();
+	}
+
+	@Override
+	public void setCreation(List<Date> creation) {
+		touch(CREATION);
+		super.setCreation(creation);
+	}
+
+	@Override
+	public List<Date> getUpdate() {
+		ensure(UPDATE);
+		return super.getUpdate();
+	}
+
+	@Override
+	public void setUpdate(List<Date> update) {
+		touch(UPDATE);
+		super.setUpdate(update);
+	}
+
+	@Override
+	public List<Checksum> getChecksums() {
+		ensure(CHECKSUM);
+		return super.getChecksums();
+	}
+
+	@Override
+	public void setChecksums(List<Checksum> checksums) {
+		touch(CHECKSUM);
+		super.setChecksums(checksums);
+	}
+
+	@Override
+	public List<Negative> getNegative() {
+		ensure(NEGATIVE);
+		return super.getNegative();
+	}
+
+	@Override
+	public void setNegative(List<Negative> negative) {
+		touch(NEGATIVE);
+		super.setNegative(negative);
+	}
+
+	@Override
+	public CausalRegulatoryMechanism getCausalRegulatoryMechanism() {
+		ensure(CAUSAL_REGULATORY_MECHANISM);
+		return super.getCausalRegulatoryMechanism();
+	}
+
+	@Override
+	public void setCausalRegulatoryMechanism(CausalRegulatoryMechanism causalRegulatoryMechanism) {
+		touch(CAUSAL_REGULATORY_MECHANISM);
+		super.setCausalRegulatoryMechanism(causalRegulatoryMechanism);
+	}
+
+	@Override
+	public CausalStatement getCausalStatement() {
+		ensure(CAUSAL_STATEMENT);
+		return super.getCausalStatement();
+	}
+
+	@Override
+	public void setCausalStatement(CausalStatement causalStatement) {
+		touch(CAUSAL_STATEMENT);
+		super.setCausalStatement(causalStatement);
+	}
+
+	@Override
+	public String toString() {
+		ensure(IDENTIFIER);
+		ensure(ID_A);
+		return super.toString();
+	}
+}
@@ -0,0 +1,193 @@
+package org.uichuimi.mitab.io.input;
+
+import org.uichuimi.mitab.io.model.*;
+
+import java.util.List;
+
+import static org.uichuimi.mitab.io.model.MitabColumn.*;
+
+/**
+ * Interactor of a {@link LazyInteraction}. Its columns are parsed by the interaction on first
+ * access.
+ */
+final class LazyInteractor extends Interactor {
+
+	private final LazyInteraction interaction;
+	/**
+	 * true for interactor A, false for interactor B
+	 */
+	private final boolean a;
+
+	LazyInteractor(LazyInteraction interaction, boolean a) {
+		this.interaction = interaction;
+		this.a = a;
+	}
+
+	@Override
+	public Identifier getPrimaryIdentifier() {
+		interaction.ensure(a ? ID_A : ID_B);
+		return super.getPrimaryIdentifier();
+	}
+
+	@Override
+	public void setPrimaryIdentifier(Identifier primaryIdentifier) {
+		interaction.touch(a ? ID_A : ID_B);
+		super.setPrimaryIdentifier(primaryIdentifier);
+	}
+
+	@Override
+	public List<Identifier> getAlternativeIdentifiers() {
+		interaction.ensure(a ? ALT_ID_A : ALT_ID_B);
+		return super.getAlternativeIdentifiers();
+	}
+
+	@Override
+	public void setAlternativeIdentifiers(List<Identifier> alternativeIdentifiers) {
+		interaction.touch(a ? ALT_ID_A : ALT_ID_B);
+		super.setAlternativeIdentifiers(alternativeIdentifiers);
+	}
+
+	@Override
+	public List<Alias> getAliases() {
+		interaction.ensure(a ? ALIAS_A : ALIAS_B);
+		return super.getAliases();
+	}
+
+	@Override
+	public void setAliases(List<Alias> aliases) {
+		interaction.touch(a ? ALIAS_A : ALIAS_B);
+		super.setAliases(aliases);
+	}
+
+	@Override
+	public List<Organism> getOrganisms() {
+		interaction.ensure(a ? TAXID_A : TAXID_B);
+		return super.getOrganisms();
+	}
+
+	@Override
+	public void setOrganisms(List<Organism> organisms) {
+		interaction.touch(a ? TAXID_A : TAXID_B);
+		super.setOrganisms(organisms);
+	}
+
+	@Override
+	public List<BiologicalRole> getBiologicalRoles() {
+		interaction.ensure(a ? BIOLOGICAL_ROLE_A : BIOLOGICAL_ROLE_B);
+		return super.getBiologicalRoles();
+	}
+
+	@Override
+	public void setBiologicalRoles(List<BiologicalRole> biologicalRoles) {
+		interaction.touch(a ? BIOLOGICAL_ROLE_A : BIOLOGICAL_ROLE_B);
+		super.setBiologicalRoles(biologicalRoles);
+	}
+
+	@Override
+	public List<ExperimentalRole> getExperimentalRoles() {
+		interaction.ensure(a ? EXPERIMENTAL_ROLE_A : EXPERIMENTAL_ROLE_B);
+		return super.getExperimentalRoles();
+	}
+
+	@Override
+	public void setExperimentalRoles(List<ExperimentalRole> experimentalRoles) {
+		interaction.touch(a ? EXPERIMENTAL_ROLE_A : EXPERIMENTAL_ROLE_B);
+		super.setExperimentalRoles(experimentalRoles);
+	}
+
+	@Override
+	public List<Type> getTypes() {
+		interaction.ensure(a ? TYPE_A : TYPE_B);
+		return super.getTypes();
+	}
+
+	@Override
+	public void setTypes(List<Type> types) {
+		interaction.touch(a ? TYPE_A : TYPE_B);
+		super.setTypes(types);
+	}
+
+	@Override
+	public List<CrossReference> getCrossReferences() {
+		interaction.ensure(a ? XREF_A : XREF_B);
+		return super.getCrossReferences();
+	}
+
+	@Override
+	public void setCrossReferences(List<CrossReference> crossReferences) {
+		interaction.touch(a ? XREF_A : XREF_B);
+		super.setCrossReferences(crossReferences);
+	}
+
+	@Override
+	public List<Annotation> getAnnotations() {
+		interaction.ensure(a ? ANNOTATION_A : ANNOTATION_B);
+		return super.getAnnotations();
+	}
+
+	@Override
+	public void setAnnotations(List<Annotation> annotations) {
+		interaction.touch(a ? ANNOTATION_A : ANNOTATION_B);
+		super.setAnnotations(annotations);
+	}
+
+	@Override
+	public List<Checksum> getChecksums() {
+		interaction.ensure(a ? CHECKSUM_A : CHECKSUM_B);
+		return super.getChecksums();
+	}
+
+	@Override
+	public void setChecksums(List<Checksum> checksums) {
+		interaction.touch(a ? CHECKSUM_A : CHECKSUM_B);
+		super.setChecksums(checksums);
+	}
+
+	@Override
+	public List<Feature> getFeatures() {
+		interaction.ensure(a ? FEATURE_A : FEATURE_B);
+		return super.getFeatures();
+	}
+
+	@Override
+	public void setFeatures(List<Feature> features) {
+		interaction.touch(a ? FEATURE_A : FEATURE_B);
+		super.setFeatures(features);
+	}
+
+	@Override
+	public List<Stoichiometry> getStoichiometries() {
+		interaction.ensure(a ? STOICHIOMETRY_A : STOICHIOMETRY_B);
+		return super.getStoichiometries();
+	}
+
+	@Override
+	public void setStoichiometries(List<Stoichiometry> stoichiometries) {
+		interaction.touch(a ? STOICHIOMETRY_A : STOICHIOMETRY_B);
+		super.setStoichiometries(stoichiometries);
+	}
+
+	@Override
+	public List<IdentificationMethod> getIdentificationMethods() {
+		interaction.ensure(a ? IDENTIFICATION_METHOD_A : IDENTIFICATION_METHOD_B);
+		return super.getIdentificationMethods();
+	}
+
+	@Override
+	public void setIdentificationMethods(List<IdentificationMethod> identificationMethods) {
+		interaction.touch(a ? IDENTIFICATION_METHOD_A : IDENTIFICATION_METHOD_B);
+		super.setIdentificationMethods(identificationMethods);
+	}
+
+	@Override
+	public List<BiologicalEffect> getBiologicalEffects() {
+		interaction.ensure(a ? BIOLOGICAL_EFFECT_A : BIOLOGICAL_EFFECT_B);
+		return super.getBiologicalEffects();
+	}
+
+	@Override
+	public void setBiologicalEffects(List<BiologicalEffect> biologicalEffects) {
+		interaction.touch(a ? BIOLOGICAL_EFFECT_A : BIOLOGICAL_EFFECT_B);
+		super.setBiologicalEffects(biologicalEffects);
+	}
+}
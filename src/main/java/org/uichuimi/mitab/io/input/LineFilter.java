@@ -0,0 +1,195 @@
+package org.uichuimi.mitab.io.input;
+
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Predicate on raw MITAB lines, checked before parsing, so only matching lines are transformed
+ * into interactions. Lines are tokenized with the same quoting rules as the parser, up to the last
+ * column of the filter, and no string is created. Lines can be any CharSequence, including lines
+ * of undecoded UTF-8 bytes.
+ * <p>
+ * A filter is a conjunction of conditions on columns:
+ * <ul>
+ * <li>{@link LineFilter#equals(MitabColumn, String...)}: any field of the column is equal to any
+ * of the values. A field is equal to a value if its value, its description or its xref:value is
+ * equal, such as <code>taxid:9606(human)</code> for 9606, human or taxid:9606. Fields with only a
+ * xref, such as dates, are compared by their xref.</li>
+ * <li>{@link LineFilter#contains(MitabColumn, String)}: the raw text of the column contains the
+ * text.</li>
+ * </ul>
+ * Comparisons are case sensitive. Escaped quotes (\") in the line are compared as plain quotes, so
+ * values are written without escapes. Lines without the column, and fields that do not match MITAB
+ * syntax, do not match. Filters are immutable and thread safe.
+ */
+public class LineFilter {
+
+	private final List<Condition> conditions;
+
+	private LineFilter(List<Condition> conditions) {
+		final List<Condition> sorted = new ArrayList<>(conditions);
+		sorted.sort(Comparator.comparingInt(condition -> condition.column));
+		this.conditions = List.copyOf(sorted);
+	}
+
+	/**
+	 * @return a filter of lines with any field of column equal to any of values
+	 */
+	public static LineFilter equals(MitabColumn column, String... values) {
+		if (values.length == 0) throw new IllegalArgumentException("at least one value is required");
+		return new LineFilter(List.of(new Condition(column.ordinal(), false, values)));
+	}
+
+	/**
+	 * @return a filter of lines whose column contains text
+	 */
+	public static LineFilter contains(MitabColumn column, String text) {
+		return new LineFilter(List.of(new Condition(column.ordinal(), true, text)));
+	}
+
+	/**
+	 * Parses a condition with the syntax <code>COLUMN=VALUE[|VALUE...]</code> for {@link
+	 * LineFilter#equals(MitabColumn, String...)}, or <code>COLUMN~TEXT</code> for {@link
+	 * LineFilter#contains(MitabColumn, String)}. Column is the name of a {@link MitabColumn},
+	 * ignoring case, such as taxid_a or detection_method.
+	 *
+	 * @throws IllegalArgumentException if expression is not valid
+	 */
+	public static LineFilter parse(String expression) {
+		final int equals = expression.indexOf('=');
+		final int contains = expression.indexOf('~');
+		final int operator = equals == -1 ? contains : contains == -1 ? equals : Math.min(equals, contains);
+		if (operator <= 0 || operator == expression.length() - 1)
+			throw new IllegalArgumentException("expected COLUMN=VALUE or COLUMN~TEXT: " + expression);
+		final String name = expression.substring(0, operator).trim().toUpperCase(Locale.ROOT).replace('-', '_');
+		final MitabColumn column;
+		try {
+			column = MitabColumn.valueOf(name);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("unknown column " + expression.substring(0, operator).trim()
+					+ ", expected one of " + Arrays.toString(MitabColumn.values()).toLowerCase(Locale.ROOT));
+		}
+		final String value = expression.substring(operator + 1);
+		return operator == contains ? contains(column, value) : equals(column, value.split("\\|"));
+	}
+
+	/**
+	 * @return a filter of lines that match this and other
+	 */
+	public LineFilter and(LineFilter other) {
+		final List<Condition> all = new ArrayList<>(conditions);
+		all.addAll(other.conditions);
+		return new LineFilter(all);
+	}
+
+	/**
+	 * @return the columns checked by this filter
+	 */
+	public Set<MitabColumn> getColumns() {
+		final Set<MitabColumn> columns = EnumSet.noneOf(MitabColumn.class);
+		for (Condition condition : conditions) columns.add(MitabColumn.values()[condition.column]);
+		return columns;
+	}
+
+	/**
+	 * @param line a MITAB line, without line separator
+	 * @return true if line matches every condition
+	 */
+	public boolean test(CharSequence line) {
+		final LineTokenizer tokenizer = new LineTokenizer(line);
+		final int[] bounds = new int[FieldParser.BOUNDS];
+		int column = -1;
+		for (Condition condition : conditions) {
+			while (column < condition.column) {
+				if (!tokenizer.nextColumn()) return false;
+				column++;
+			}
+			if (!condition.test(line, tokenizer, bounds)) return false;
+		}
+		return true;
+	}
+
+	private static class Condition {
+
+		private final int column;
+		private final boolean contains;
+		private final String[] values;
+		/**
+		 * UTF-8 bytes of every value as chars, to match {@link ByteView} lines.
+		 */
+		private final String[] byteValues;
+
+		Condition(int column, boolean contains, String... values) {
+			this.column = column;
+			this.contains = contains;
+			this.values = values.clone();
+			this.byteValues = new String[values.length];
+			for (int i = 0; i < values.length; i++) {
+				if (values[i].isEmpty()) throw new IllegalArgumentException("empty value");
+				byteValues[i] = new String(values[i].getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+			}
+		}
+
+		boolean test(CharSequence line, LineTokenizer tokenizer, int[] bounds) {
+			final String[] values = line instanceof ByteView ? byteValues : this.values;
+			if (contains) {
+				for (String value : values)
+					if (indexOf(line, value, tokenizer.columnStart(), tokenizer.columnEnd()) != -1) return true;
+				return false;
+			}
+			int from = tokenizer.columnStart();
+			for (int i = 0; i < tokenizer.fieldCount(); i++) {
+				final int to = tokenizer.fieldEnd(i);
+				if (FieldParser.tryLocate(line, from, to, bounds) == FieldParser.OK)
+					for (String value : values) if (matches(line, bounds, value)) return true;
+				from = to + 1;
+			}
+			return false;
+		}
+
+		private static boolean matches(CharSequence line, int[] bounds, String value) {
+			final int xrefStart = bounds[FieldParser.XREF_START];
+			final int xrefEnd = bounds[FieldParser.XREF_END];
+			final int valueStart = bounds[FieldParser.VALUE_START];
+			if (valueStart == -1) return equals(line, xrefStart, xrefEnd, value, 0, value.length());
+			final int valueEnd = bounds[FieldParser.VALUE_END];
+			if (equals(line, valueStart, valueEnd, value, 0, value.length())) return true;
+			final int descriptionStart = bounds[FieldParser.DESCRIPTION_START];
+			if (descriptionStart != -1
+					&& equals(line, descriptionStart, bounds[FieldParser.DESCRIPTION_END], value, 0, value.length()))
+				return true;
+			// xref:value, where both xref and value may contain colons when quoted
+			for (int colon = value.indexOf(':'); colon != -1; colon = value.indexOf(':', colon + 1))
+				if (equals(line, xrefStart, xrefEnd, value, 0, colon)
+						&& equals(line, valueStart, valueEnd, value, colon + 1, value.length()))
+					return true;
+			return false;
+		}
+
+		private static boolean equals(CharSequence line, int from, int to, String value, int valueFrom, int valueTo) {
+			return to - from >= valueTo - valueFrom && match(line, from, to, value, valueFrom, valueTo) == to;
+		}
+
+		/**
+		 * Matches value with the text of line that starts at from, reading \" in line as ".
+		 *
+		 * @return the end of the text that matches value, or -1 if there is no match before to
+		 */
+		private static int match(CharSequence line, int from, int to, String value, int valueFrom, int valueTo) {
+			int i = from;
+			for (int j = valueFrom; j < valueTo; j++, i++) {
+				if (i < to - 1 && line.charAt(i) == '\\' && line.charAt(i + 1) == '"') i++;
+				if (i >= to || line.charAt(i) != value.charAt(j)) return -1;
+			}
+			return i;
+		}
+
+		private static int indexOf(CharSequence line, String value, int from, int to) {
+			for (int i = from; i < to; i++)
+				if (match(line, i, to, value, 0, value.length()) != -1) return i;
+			return -1;
+		}
+	}
+}
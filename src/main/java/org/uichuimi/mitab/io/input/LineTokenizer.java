@@ -0,0 +1,231 @@
+package org.uichuimi.mitab.io.input;
+
+import org.uichuimi.mitab.io.model.Field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Walks a MITAB line only once, finding the boundaries of columns (tab separated) and of the
+ * fields inside each column (pipe separated). Separators inside quotes are ignored. A quote
+ * preceded by a backslash (\) does not open or close a quoted context.
+ * <p>
+ * Usage:
+ * <pre>
+ * final LineTokenizer tokenizer = new LineTokenizer(line);
+ * while (tokenizer.nextColumn()) {
+ *     final List&lt;Field&gt; fields = tokenizer.fields(Function.identity());
+ * }
+ * </pre>
+ * A tokenizer is not thread safe, but it is cheap to create one per line.
+ */
+final class LineTokenizer {
+
+	private static final char QUOTE = '"';
+	private static final char ESCAPE = '\\';
+	private static final char COLUMN_SEPARATOR = '\t';
+	private static final char FIELD_SEPARATOR = '|';
+	private static final char EMPTY = '-';
+
+	private final CharSequence line;
+	private final int[] bounds = new int[FieldParser.BOUNDS];
+	/**
+	 * Ends (exclusive) of the fields in current column.
+	 */
+	private int[] fieldEnds = new int[8];
+	private int fields;
+	private int position = 0;
+	private int columnStart = -1;
+	private int columnEnd = -1;
+	private int error = FieldParser.OK;
+	private int errorStart;
+	private int errorEnd;
+
+	LineTokenizer(CharSequence line) {
+		this.line = line;
+	}
+
+	/**
+	 * Moves the tokenizer to the next column.
+	 *
+	 * @return true if there was a next column, false if the end of the line was already reached
+	 */
+	boolean nextColumn() {
+		final int length = line.length();
+		if (position > length) return false;
+		columnStart = position;
+		fields = 0;
+		boolean quoted = false;
+		int pos = position;
+		while (pos < length) {
+			final char c = line.charAt(pos);
+			// Context is changed every time a quote " is found that is not preceded by a backslash \.
+			if (c == QUOTE) {
+				if (pos == 0 || line.charAt(pos - 1) != ESCAPE) quoted = !quoted;
+			} else if (!quoted) {
+				if (c == COLUMN_SEPARATOR) break;
+				if (c == FIELD_SEPARATOR) addField(pos);
+			}
+			pos += 1;
+		}
+		addField(pos);
+		columnEnd = pos;
+		position = pos + 1;
+		return true;
+	}
+
+	private void addField(int end) {
+		if (fields == fieldEnds.length) fieldEnds = Arrays.copyOf(fieldEnds, 2 * fields);
+		fieldEnds[fields++] = end;
+	}
+
+	/**
+	 * @return true if current column is the empty string or the empty value (-)
+	 */
+	boolean isEmpty() {
+		return columnStart == columnEnd
+				|| (columnEnd - columnStart == 1 && line.charAt(columnStart) == EMPTY);
+	}
+
+	/**
+	 * Parses the fields of the current column.
+	 *
+	 * @param factory function to convert each generic Field into its specific type
+	 * @return a list with the fields of the current column, or an empty list if the column is empty
+	 * @throws IllegalArgumentException if any of the fields does not match MITAB syntax
+	 */
+	<T> List<T> fields(Function<Field, T> factory) {
+		return fields(factory, null);
+	}
+
+	/**
+	 * Parses the fields of the current column, reusing the instances in cache for fields with the
+	 * same raw text.
+	 *
+	 * @param factory function to convert each generic Field into its specific type
+	 * @param cache   cache of fields, null to always create new fields
+	 * @return a list with the fields of the current column, or an empty list if the column is empty
+	 * @throws IllegalArgumentException if any of the fields does not match MITAB syntax
+	 */
+	<T> List<T> fields(Function<Field, T> factory, FieldCache<T> cache) {
+		final List<T> rtn = tryFields(factory, cache);
+		if (rtn == null) {
+			if (error == FieldParser.EMPTY_FIELD) throw new IllegalArgumentException("field must not be empty");
+			throw new IllegalArgumentException(errorField());
+		}
+		return rtn;
+	}
+
+	/**
+	 * Same as {@link LineTokenizer#fields(Function, FieldCache)}, but without exceptions. When a
+	 * field does not match MITAB syntax, null is returned, and the error and the field are
+	 * available in {@link LineTokenizer#error()} and {@link LineTokenizer#errorField()}.
+	 *
+	 * @return a list with the fields of the current column, an empty list if the column is empty,
+	 * or null if any field is not valid
+	 */
+	<T> List<T> tryFields(Function<Field, T> factory, FieldCache<T> cache) {
+		if (isEmpty()) return Collections.emptyList();
+		final List<T> rtn = new ArrayList<>(fields);
+		int start = columnStart;
+		for (int i = 0; i < fields; i++) {
+			final int end = fieldEnds[i];
+			T field = cache == null ? null : cache.get(line, start, end);
+			if (field == null) {
+				final int error = FieldParser.tryLocate(line, start, end, bounds);
+				if (error != FieldParser.OK) {
+					this.error = error;
+					this.errorStart = start;
+					this.errorEnd = end;
+					return null;
+				}
+				field = factory.apply(FieldParser.field(line, bounds));
+				if (cache != null) cache.put(line, start, end, field);
+			}
+			rtn.add(field);
+			start = end + 1;
+		}
+		return rtn;
+	}
+
+	/**
+	 * Sets the current column as an error, for errors found by the parser instead of by {@link
+	 * LineTokenizer#tryFields(Function, FieldCache)}.
+	 */
+	void fail(int error) {
+		this.error = error;
+		this.errorStart = columnStart;
+		this.errorEnd = columnEnd;
+	}
+
+	/**
+	 * @return the error of the last call to {@link LineTokenizer#tryFields(Function, FieldCache)}
+	 * that returned null, as returned by {@link FieldParser#tryLocate(CharSequence, int, int,
+	 * int[])}
+	 */
+	int error() {
+		return error;
+	}
+
+	/**
+	 * @return the raw text of the field that caused {@link LineTokenizer#error()}
+	 */
+	String errorField() {
+		return line.subSequence(errorStart, errorEnd).toString().trim();
+	}
+
+	/**
+	 * Moves the tokenizer to position, which must be the start of a column. The next call to
+	 * {@link LineTokenizer#nextColumn()} reads the column at position.
+	 */
+	void seek(int position) {
+		this.position = position;
+	}
+
+	/**
+	 * @return the start of the next column. Greater than the line length when the end of the line
+	 * was reached
+	 */
+	int position() {
+		return position;
+	}
+
+	/**
+	 * @return the start of the current column
+	 */
+	int columnStart() {
+		return columnStart;
+	}
+
+	/**
+	 * @return the end (exclusive) of the current column
+	 */
+	int columnEnd() {
+		return columnEnd;
+	}
+
+	/**
+	 * @return number of fields of the current column, 0 if it is empty
+	 */
+	int fieldCount() {
+		return isEmpty() ? 0 : fields;
+	}
+
+	/**
+	 * @return the end (exclusive) of the field at index in the current column. The field starts
+	 * after the end of the previous one, or at the start of the column
+	 */
+	int fieldEnd(int index) {
+		return fieldEnds[index];
+	}
+
+	/**
+	 * @return the raw text of the current column
+	 */
+	String column() {
+		return line.subSequence(columnStart, columnEnd).toString();
+	}
+}
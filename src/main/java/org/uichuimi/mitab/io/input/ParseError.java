@@ -0,0 +1,57 @@
+package org.uichuimi.mitab.io.input;
+
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+/**
+ * Describes why a line could not be parsed by {@link PsiInteractionParser#toInteraction(CharSequence,
+ * ParseError)}. Errors are reported through a reusable instance instead of exceptions, so invalid
+ * lines cost about the same as valid ones. The message is only built when requested. Not thread
+ * safe: use one instance per thread.
+ */
+public class ParseError {
+
+	private MitabColumn column;
+	private String name;
+	private int error;
+	private String field;
+
+	void set(MitabColumn column, String name, int error, String field) {
+		this.column = column;
+		this.name = name;
+		this.error = error;
+		this.field = field;
+	}
+
+	/**
+	 * @return the column with the error
+	 */
+	public MitabColumn getColumn() {
+		return column;
+	}
+
+	/**
+	 * @return the raw text of the invalid field
+	 */
+	public String getField() {
+		return field;
+	}
+
+	/**
+	 * @return a short description of the error, such as <em>unclosed quote</em>
+	 */
+	public String getReason() {
+		return FieldParser.reason(error);
+	}
+
+	/**
+	 * @return a message with the column, the reason and the field
+	 */
+	public String getMessage() {
+		return String.format("For column %s, %s [%s]", name, getReason(), field);
+	}
+
+	@Override
+	public String toString() {
+		return getMessage();
+	}
+}
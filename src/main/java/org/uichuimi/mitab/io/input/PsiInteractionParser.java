@@ -10,161 +10,169 @@ import java.util.stream.Collectors;
 
 public class PsiInteractionParser {
 
-	private static final List<String> RESERVED = Arrays.asList("|", "\t", "(", ")", ":");
 	private static final String COLUMN_SEPARATOR = "\t";
-	private static final String FIELD_SEPARATOR = "|";
+	private static final char COLUMN_SEPARATOR_CHAR = '\t';
+	private static final char FIELD_SEPARATOR = '|';
 	private static final String EMPTY = "-";
 	private static final char QUOTE = '"';
+	/**
+	 * Initial capacity of the builder for a single line.
+	 */
+	private static final int LINE_CAPACITY = 4096;
 
-	private static final List<Column> COLUMNS = List.of(
-			new Column("ID(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setPrimaryIdentifier(fields.isEmpty() ? null : new Identifier(fields.get(0))),
+	private static final List<Column<?>> COLUMNS = List.of(
+			new Column<>(MitabColumn.ID_A, "ID(s) interactor A", Identifier::new,
+					(interaction, fields) -> interaction.getInteractorA().setPrimaryIdentifier(fields.isEmpty() ? null : fields.get(0)),
 					interaction -> interaction.getInteractorA().getPrimaryIdentifier() == null
 							? Collections.emptyList()
 							: List.of(interaction.getInteractorA().getPrimaryIdentifier())),
-			new Column("ID(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setPrimaryIdentifier(fields.isEmpty() ? null : new Identifier(fields.get(0))),
+			new Column<>(MitabColumn.ID_B, "ID(s) interactor B", Identifier::new,
+					(interaction, fields) -> interaction.getInteractorB().setPrimaryIdentifier(fields.isEmpty() ? null : fields.get(0)),
 					interaction -> interaction.getInteractorB().getPrimaryIdentifier() == null
 							? Collections.emptyList()
 							: List.of(interaction.getInteractorB().getPrimaryIdentifier())),
-			new Column("Alt. ID(s) interactor A",
-					((interaction, fields) -> interaction.getInteractorA().setAlternativeIdentifiers(fields.stream().map(Identifier::new).collect(Collectors.toList()))),
+			new Column<>(MitabColumn.ALT_ID_A, "Alt. ID(s) interactor A", Identifier::new,
+					(interaction, fields) -> interaction.getInteractorA().setAlternativeIdentifiers(fields),
 					interaction -> interaction.getInteractorA().getAlternativeIdentifiers()),
-			new Column("Alt. ID(s) interactor B",
-					((interaction, fields) -> interaction.getInteractorB().setAlternativeIdentifiers(fields.stream().map(Identifier::new).collect(Collectors.toList()))),
+			new Column<>(MitabColumn.ALT_ID_B, "Alt. ID(s) interactor B", Identifier::new,
+					(interaction, fields) -> interaction.getInteractorB().setAlternativeIdentifiers(fields),
 					interaction -> interaction.getInteractorB().getAlternativeIdentifiers()),
-			new Column("Alias(es) interactor A",
-					((interaction, fields) -> interaction.getInteractorA().setAliases(fields.stream().map(Alias::new).collect(Collectors.toList()))),
+			new Column<>(MitabColumn.ALIAS_A, "Alias(es) interactor A", Alias::new,
+					(interaction, fields) -> interaction.getInteractorA().setAliases(fields),
 					interaction -> interaction.getInteractorA().getAliases()),
-			new Column("Alias(es) interactor B",
-					((interaction, fields) -> interaction.getInteractorB().setAliases(fields.stream().map(Alias::new).collect(Collectors.toList()))),
+			new Column<>(MitabColumn.ALIAS_B, "Alias(es) interactor B", Alias::new,
+					(interaction, fields) -> interaction.getInteractorB().setAliases(fields),
 					interaction -> interaction.getInteractorB().getAliases()),
-			new Column("Interaction detection method(s)",
-					(interaction, fields) -> interaction.setDetectionMethods(fields.stream().map(DetectionMethod::new).collect(Collectors.toList())),
-					Interaction::getDetectionMethods),
-			new Column("Publication 1st author(s)",
-					(interaction, fields) -> interaction.setAuthors(fields.stream().map(Author::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.DETECTION_METHOD, "Interaction detection method(s)", DetectionMethod::new,
+					(interaction, fields) -> interaction.setDetectionMethods(fields),
+					Interaction::getDetectionMethods).interned(),
+			new Column<>(MitabColumn.AUTHOR, "Publication 1st author(s)", Author::new,
+					(interaction, fields) -> interaction.setAuthors(fields),
 					Interaction::getAuthors),
-			new Column("Publication Identifier(s)",
-					((interaction, fields) -> interaction.setPublications(fields.stream().map(Publication::new).collect(Collectors.toList()))),
+			new Column<>(MitabColumn.PUBLICATION, "Publication Identifier(s)", Publication::new,
+					(interaction, fields) -> interaction.setPublications(fields),
 					Interaction::getPublications),
-			new Column("Taxid interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setOrganisms(fields.stream().map(Organism::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorA().getOrganisms()),
-			new Column("Taxid interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setOrganisms(fields.stream().map(Organism::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorB().getOrganisms()),
-			new Column("Interaction type(s)",
-					(interaction, fields) -> interaction.setTypes(fields.stream().map(Type::new).collect(Collectors.toList())),
-					Interaction::getTypes),
-			new Column("Source database(s)",
-					(interaction, fields) -> interaction.setDatabases(fields.stream().map(Database::new).collect(Collectors.toList())),
-					Interaction::getDatabases),
-			new Column("Interaction identifier(s)",
-					(interaction, fields) -> interaction.setIdentifiers(fields.stream().map(Identifier::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.TAXID_A, "Taxid interactor A", Organism::new,
+					(interaction, fields) -> interaction.getInteractorA().setOrganisms(fields),
+					interaction -> interaction.getInteractorA().getOrganisms()).interned(),
+			new Column<>(MitabColumn.TAXID_B, "Taxid interactor B", Organism::new,
+					(interaction, fields) -> interaction.getInteractorB().setOrganisms(fields),
+					interaction -> interaction.getInteractorB().getOrganisms()).interned(),
+			new Column<>(MitabColumn.TYPE, "Interaction type(s)", Type::new,
+					(interaction, fields) -> interaction.setTypes(fields),
+					Interaction::getTypes).interned(),
+			new Column<>(MitabColumn.DATABASE, "Source database(s)", Database::new,
+					(interaction, fields) -> interaction.setDatabases(fields),
+					Interaction::getDatabases).interned(),
+			new Column<>(MitabColumn.IDENTIFIER, "Interaction identifier(s)", Identifier::new,
+					(interaction, fields) -> interaction.setIdentifiers(fields),
 					Interaction::getIdentifiers),
-			new Column("Confidence value(s)",
-					(interaction, fields) -> interaction.setConfidenceScores(fields.stream().map(ConfidenceScore::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.CONFIDENCE, "Confidence value(s)", ConfidenceScore::new,
+					(interaction, fields) -> interaction.setConfidenceScores(fields),
 					Interaction::getConfidenceScores),
-			new Column("Expansion method(s)",
-					(interaction, fields) -> interaction.setComplexExpansion(fields.stream().map(ComplexExpansion::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.EXPANSION, "Expansion method(s)", ComplexExpansion::new,
+					(interaction, fields) -> interaction.setComplexExpansion(fields),
 					Interaction::getComplexExpansion),
-			new Column("Biological role(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setBiologicalRoles(fields.stream().map(BiologicalRole::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorA().getBiologicalRoles()),
-			new Column("Biological role(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setBiologicalRoles(fields.stream().map(BiologicalRole::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorB().getBiologicalRoles()),
-			new Column("Experimental role(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setExperimentalRoles(fields.stream().map(ExperimentalRole::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorA().getExperimentalRoles()),
-			new Column("Experimental role(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setExperimentalRoles(fields.stream().map(ExperimentalRole::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorB().getExperimentalRoles()),
-			new Column("Type(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setTypes(fields.stream().map(Type::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorA().getTypes()),
-			new Column("Type(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setTypes(fields.stream().map(Type::new).collect(Collectors.toList())),
-					interaction -> interaction.getInteractorB().getTypes()),
-			new Column("Xref(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setCrossReferences(fields.stream().map(CrossReference::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.BIOLOGICAL_ROLE_A, "Biological role(s) interactor A", BiologicalRole::new,
+					(interaction, fields) -> interaction.getInteractorA().setBiologicalRoles(fields),
+					interaction -> interaction.getInteractorA().getBiologicalRoles()).interned(),
+			new Column<>(MitabColumn.BIOLOGICAL_ROLE_B, "Biological role(s) interactor B", BiologicalRole::new,
+					(interaction, fields) -> interaction.getInteractorB().setBiologicalRoles(fields),
+					interaction -> interaction.getInteractorB().getBiologicalRoles()).interned(),
+			new Column<>(MitabColumn.EXPERIMENTAL_ROLE_A, "Experimental role(s) interactor A", ExperimentalRole::new,
+					(interaction, fields) -> interaction.getInteractorA().setExperimentalRoles(fields),
+					interaction -> interaction.getInteractorA().getExperimentalRoles()).interned(),
+			new Column<>(MitabColumn.EXPERIMENTAL_ROLE_B, "Experimental role(s) interactor B", ExperimentalRole::new,
+					(interaction, fields) -> interaction.getInteractorB().setExperimentalRoles(fields),
+					interaction -> interaction.getInteractorB().getExperimentalRoles()).interned(),
+			new Column<>(MitabColumn.TYPE_A, "Type(s) interactor A", Type::new,
+					(interaction, fields) -> interaction.getInteractorA().setTypes(fields),
+					interaction -> interaction.getInteractorA().getTypes()).interned(),
+			new Column<>(MitabColumn.TYPE_B, "Type(s) interactor B", Type::new,
+					(interaction, fields) -> interaction.getInteractorB().setTypes(fields),
+					interaction -> interaction.getInteractorB().getTypes()).interned(),
+			new Column<>(MitabColumn.XREF_A, "Xref(s) interactor A", CrossReference::new,
+					(interaction, fields) -> interaction.getInteractorA().setCrossReferences(fields),
 					interaction -> interaction.getInteractorA().getCrossReferences()),
-			new Column("Xref(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setCrossReferences(fields.stream().map(CrossReference::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.XREF_B, "Xref(s) interactor B", CrossReference::new,
+					(interaction, fields) -> interaction.getInteractorB().setCrossReferences(fields),
 					interaction -> interaction.getInteractorB().getCrossReferences()),
-			new Column("Interaction Xref(s)",
-					(interaction, fields) -> interaction.setCrossReferences(fields.stream().map(CrossReference::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.XREF, "Interaction Xref(s)", CrossReference::new,
+					(interaction, fields) -> interaction.setCrossReferences(fields),
 					Interaction::getCrossReferences),
-			new Column("Annotation(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setAnnotations(fields.stream().map(Annotation::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.ANNOTATION_A, "Annotation(s) interactor A", Annotation::new,
+					(interaction, fields) -> interaction.getInteractorA().setAnnotations(fields),
 					interaction -> interaction.getInteractorA().getAnnotations()),
-			new Column("Annotation(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setAnnotations(fields.stream().map(Annotation::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.ANNOTATION_B, "Annotation(s) interactor B", Annotation::new,
+					(interaction, fields) -> interaction.getInteractorB().setAnnotations(fields),
 					interaction -> interaction.getInteractorB().getAnnotations()),
-			new Column("Interaction annotation(s)",
-					(interaction, fields) -> interaction.setAnnotations(fields.stream().map(Annotation::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.ANNOTATION, "Interaction annotation(s)", Annotation::new,
+					(interaction, fields) -> interaction.setAnnotations(fields),
 					Interaction::getAnnotations),
-			new Column("Host organism(s)",
-					(interaction, fields) -> interaction.setOrganism(fields.stream().map(Organism::new).collect(Collectors.toList())),
-					Interaction::getOrganism),
-			new Column("Interaction parameter(s)",
-					(interaction, fields) -> interaction.setParameters(fields.stream().map(Parameter::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.HOST_ORGANISM, "Host organism(s)", Organism::new,
+					(interaction, fields) -> interaction.setOrganism(fields),
+					Interaction::getOrganism).interned(),
+			new Column<>(MitabColumn.PARAMETER, "Interaction parameter(s)", Parameter::new,
+					(interaction, fields) -> interaction.setParameters(fields),
 					Interaction::getParameters),
-			new Column("Creation date",
-					(interaction, fields) -> interaction.setCreation(fields.stream().map(Date::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.CREATION, "Creation date", Date::new,
+					(interaction, fields) -> interaction.setCreation(fields),
 					Interaction::getCreation),
-			new Column("Update date",
-					(interaction, fields) -> interaction.setUpdate(fields.stream().map(Date::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.UPDATE, "Update date", Date::new,
+					(interaction, fields) -> interaction.setUpdate(fields),
 					Interaction::getUpdate),
-			new Column("Checksum(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setChecksums(fields.stream().map(Checksum::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.CHECKSUM_A, "Checksum(s) interactor A", Checksum::new,
+					(interaction, fields) -> interaction.getInteractorA().setChecksums(fields),
 					interaction -> interaction.getInteractorA().getChecksums()),
-			new Column("Checksum(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setChecksums(fields.stream().map(Checksum::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.CHECKSUM_B, "Checksum(s) interactor B", Checksum::new,
+					(interaction, fields) -> interaction.getInteractorB().setChecksums(fields),
 					interaction -> interaction.getInteractorB().getChecksums()),
-			new Column("Interaction Checksum(s)",
-					(interaction, fields) -> interaction.setChecksums(fields.stream().map(Checksum::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.CHECKSUM, "Interaction Checksum(s)", Checksum::new,
+					(interaction, fields) -> interaction.setChecksums(fields),
 					Interaction::getChecksums),
-			new Column("Negative",
-					(interaction, fields) -> interaction.setNegative(fields.stream().map(Negative::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.NEGATIVE, "Negative", Negative::new,
+					(interaction, fields) -> interaction.setNegative(fields),
 					Interaction::getNegative),
-			new Column("Feature(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setFeatures(fields.stream().map(Feature::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.FEATURE_A, "Feature(s) interactor A", Feature::new,
+					(interaction, fields) -> interaction.getInteractorA().setFeatures(fields),
 					interaction -> interaction.getInteractorA().getFeatures()),
-			new Column("Feature(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setFeatures(fields.stream().map(Feature::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.FEATURE_B, "Feature(s) interactor B", Feature::new,
+					(interaction, fields) -> interaction.getInteractorB().setFeatures(fields),
 					interaction -> interaction.getInteractorB().getFeatures()),
-			new Column("Stoichiometry(s) interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setStoichiometries(fields.stream().map(Stoichiometry::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.STOICHIOMETRY_A, "Stoichiometry(s) interactor A", Stoichiometry::new,
+					(interaction, fields) -> interaction.getInteractorA().setStoichiometries(fields),
 					interaction -> interaction.getInteractorA().getStoichiometries()),
-			new Column("Stoichiometry(s) interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setStoichiometries(fields.stream().map(Stoichiometry::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.STOICHIOMETRY_B, "Stoichiometry(s) interactor B", Stoichiometry::new,
+					(interaction, fields) -> interaction.getInteractorB().setStoichiometries(fields),
 					interaction -> interaction.getInteractorB().getStoichiometries()),
-			new Column("Identification method participant A",
-					(interaction, fields) -> interaction.getInteractorA().setIdentificationMethods(fields.stream().map(IdentificationMethod::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.IDENTIFICATION_METHOD_A, "Identification method participant A", IdentificationMethod::new,
+					(interaction, fields) -> interaction.getInteractorA().setIdentificationMethods(fields),
 					interaction -> interaction.getInteractorA().getIdentificationMethods()),
-			new Column("Identification method participant B",
-					(interaction, fields) -> interaction.getInteractorB().setIdentificationMethods(fields.stream().map(IdentificationMethod::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.IDENTIFICATION_METHOD_B, "Identification method participant B", IdentificationMethod::new,
+					(interaction, fields) -> interaction.getInteractorB().setIdentificationMethods(fields),
 					interaction -> interaction.getInteractorB().getIdentificationMethods()),
-			new Column("Biological effect of interactor A",
-					(interaction, fields) -> interaction.getInteractorA().setBiologicalEffects(fields.stream().map(BiologicalEffect::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.BIOLOGICAL_EFFECT_A, "Biological effect of interactor A", BiologicalEffect::new,
+					(interaction, fields) -> interaction.getInteractorA().setBiologicalEffects(fields),
 					interaction -> interaction.getInteractorA().getBiologicalEffects()),
-			new Column("Biological effect of interactor B",
-					(interaction, fields) -> interaction.getInteractorB().setBiologicalEffects(fields.stream().map(BiologicalEffect::new).collect(Collectors.toList())),
+			new Column<>(MitabColumn.BIOLOGICAL_EFFECT_B, "Biological effect of interactor B", BiologicalEffect::new,
+					(interaction, fields) -> interaction.getInteractorB().setBiologicalEffects(fields),
 					interaction -> interaction.getInteractorB().getBiologicalEffects()),
-			new Column("Causal regulatory mechanism",
+			new Column<>(MitabColumn.CAUSAL_REGULATORY_MECHANISM, "Causal regulatory mechanism", CausalRegulatoryMechanism::new,
 					(interaction, fields) -> {
-						if (fields != null && !fields.isEmpty())
-							interaction.setCausalRegulatoryMechanism(new CausalRegulatoryMechanism(fields.get(0)));
+						if (!fields.isEmpty())
+							interaction.setCausalRegulatoryMechanism(fields.get(0));
 					},
-					interaction -> List.of(interaction.getCausalRegulatoryMechanism())),
-			new Column("Causal statement",
+					interaction -> interaction.getCausalRegulatoryMechanism() == null
+							? Collections.emptyList()
+							: List.of(interaction.getCausalRegulatoryMechanism())),
+			new Column<>(MitabColumn.CAUSAL_STATEMENT, "Causal statement", CausalStatement::new,
 					(interaction, fields) -> {
-						if (fields != null && !fields.isEmpty())
-							interaction.setCausalStatement(new CausalStatement(fields.get(0)));
+						if (!fields.isEmpty())
+							interaction.setCausalStatement(fields.get(0));
 					},
-					interaction -> List.of(interaction.getCausalStatement()))
+					interaction -> interaction.getCausalStatement() == null
+							? Collections.emptyList()
+							: List.of(interaction.getCausalStatement()))
 
 	);
 
@@ -173,15 +181,34 @@ public class PsiInteractionParser {
 	 * at request through {@link PsiInteractionParser#instance()} or {@link
 	 * PsiInteractionParser#instance(PsiMitabVersion)} methods.
 	 */
-	private static final Map<PsiMitabVersion, PsiInteractionParser> parsers = new TreeMap<>();
+	private static final Map<PsiMitabVersion, PsiInteractionParser> parsers = Collections.synchronizedMap(new EnumMap<>(PsiMitabVersion.class));
 
 	/**
 	 * The only difference in MITAB format is the number of columns in the file.
 	 */
 	private final int numberOfColumns;
+	/**
+	 * Columns that are parsed into the interaction.
+	 */
+	private final Set<MitabColumn> columns;
+	/**
+	 * Index of the last column in columns. Columns after it are not even tokenized.
+	 */
+	private final int lastColumn;
+	/**
+	 * Whether columns are parsed on first access.
+	 */
+	private final boolean lazy;
 
 	private PsiInteractionParser(int numberOfColumns) {
+		this(numberOfColumns, EnumSet.allOf(MitabColumn.class), false);
+	}
+
+	private PsiInteractionParser(int numberOfColumns, EnumSet<MitabColumn> columns, boolean lazy) {
 		this.numberOfColumns = numberOfColumns;
+		this.columns = Collections.unmodifiableSet(columns);
+		this.lastColumn = columns.stream().mapToInt(Enum::ordinal).max().orElse(-1);
+		this.lazy = lazy;
 	}
 
 	/**
@@ -202,20 +229,146 @@ public class PsiInteractionParser {
 		return instance(PsiMitabVersion.TAB_27);
 	}
 
-	public Interaction toInteraction(String line) {
+	/**
+	 * Creates a parser for the same version that only parses the given columns. Fields and objects
+	 * are not created for the rest of columns, so the corresponding properties of the interaction
+	 * are left empty. Columns are still tokenized, so separators inside quotes are correctly
+	 * skipped, but the line is not read after the last requested column.
+	 *
+	 * @param columns columns to parse
+	 * @return a new parser with the projection
+	 */
+	public PsiInteractionParser withColumns(Set<MitabColumn> columns) {
+		final EnumSet<MitabColumn> projection = EnumSet.noneOf(MitabColumn.class);
+		projection.addAll(columns);
+		return new PsiInteractionParser(numberOfColumns, projection, lazy);
+	}
+
+	/**
+	 * Creates a parser for the same version that returns lazy interactions. A lazy interaction
+	 * keeps the line, and parses every column the first time any of its getters is called. When a
+	 * lazy interaction is written with {@link PsiInteractionParser#toString(Interaction)}, columns
+	 * that were never accessed nor set are copied from the line. Column projection does not apply
+	 * to lazy interactions.
+	 * <p>
+	 * Syntax errors are not detected by {@link PsiInteractionParser#toInteraction(CharSequence)},
+	 * but by the first getter of the column. The line is kept in memory as long as the interaction.
+	 *
+	 * @return a new lazy parser
+	 */
+	public PsiInteractionParser lazy() {
+		final EnumSet<MitabColumn> projection = EnumSet.noneOf(MitabColumn.class);
+		projection.addAll(columns);
+		return new PsiInteractionParser(numberOfColumns, projection, true);
+	}
+
+	/**
+	 * @return the columns parsed by this parser
+	 */
+	public Set<MitabColumn> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Transforms a MITAB line into an Interaction. This method is thread safe.
+	 *
+	 * @param line a MITAB line, without line separator. Only the parts of the line that end up in
+	 *             the interaction are converted into strings
+	 * @return a new Interaction
+	 * @throws IllegalArgumentException if any of the fields does not match MITAB syntax
+	 */
+	public Interaction toInteraction(CharSequence line) {
+		if (lazy) return new LazyInteraction(this, line);
 		final Interaction interaction = new Interaction();
-		final List<String> columns = splitSafe(line, COLUMN_SEPARATOR);
-		for (int i = 0; i < columns.size(); i++) {
-			try {
-				final List<Field> fields = parseField(columns.get(i));
-				COLUMNS.get(i).getSetter().accept(interaction, fields);
-			} catch (StringIndexOutOfBoundsException ex) {
-				throw new RuntimeException(String.format("For column %s, value [%s]", COLUMNS.get(i).getName(), columns.get(i)), ex);
-			}
-		}
+		final LineTokenizer tokenizer = new LineTokenizer(line);
+		final Column<?> invalid = parse(interaction, tokenizer);
+		if (invalid != null) throw exception(invalid, tokenizer);
 		return interaction;
 	}
 
+	/**
+	 * Same as {@link PsiInteractionParser#toInteraction(CharSequence)}, but syntax errors are
+	 * reported without exceptions: null is returned and error describes the first invalid field.
+	 * Lazy parsers do not detect errors here, so they always return an interaction. This method is
+	 * thread safe, as long as every thread uses its own error.
+	 *
+	 * @param line  a MITAB line, without line separator
+	 * @param error where the error is described when the line is not valid
+	 * @return a new Interaction, or null if any of the fields does not match MITAB syntax
+	 */
+	public Interaction toInteraction(CharSequence line, ParseError error) {
+		if (lazy) return new LazyInteraction(this, line);
+		final Interaction interaction = new Interaction();
+		final LineTokenizer tokenizer = new LineTokenizer(line);
+		final Column<?> invalid = parse(interaction, tokenizer);
+		if (invalid == null) return interaction;
+		error.set(invalid.getColumn(), invalid.getName(), tokenizer.error(), tokenizer.errorField());
+		return null;
+	}
+
+	/**
+	 * Parses the projected columns of the line in tokenizer into interaction. Columns after the
+	 * last projected column are not tokenized, so lines with more columns than MITAB defines are
+	 * only rejected when the last column is projected, as it is by default.
+	 *
+	 * @return the first column with an invalid field, or the last column when more columns follow
+	 * it, or null if the line is valid
+	 */
+	private Column<?> parse(Interaction interaction, LineTokenizer tokenizer) {
+		for (int i = 0; i <= lastColumn && tokenizer.nextColumn(); i++) {
+			final Column<?> column = COLUMNS.get(i);
+			if (columns.contains(column.getColumn()) && !column.tryParse(interaction, tokenizer)) return column;
+		}
+		if (lastColumn == COLUMNS.size() - 1 && tokenizer.nextColumn()) {
+			tokenizer.fail(FieldParser.EXTRA_COLUMN);
+			return COLUMNS.get(lastColumn);
+		}
+		return null;
+	}
+
+	/**
+	 * Parses the current column of tokenizer into interaction.
+	 */
+	void parse(Interaction interaction, MitabColumn column, LineTokenizer tokenizer) {
+		parse(interaction, COLUMNS.get(column.ordinal()), tokenizer);
+	}
+
+	private void parse(Interaction interaction, Column<?> column, LineTokenizer tokenizer) {
+		if (!column.tryParse(interaction, tokenizer)) throw exception(column, tokenizer);
+	}
+
+	private static IllegalArgumentException exception(Column<?> column, LineTokenizer tokenizer) {
+		final String message = tokenizer.error() == FieldParser.EMPTY_FIELD ? "field must not be empty"
+				: tokenizer.error() == FieldParser.EXTRA_COLUMN ? FieldParser.reason(FieldParser.EXTRA_COLUMN)
+				: tokenizer.errorField();
+		return new IllegalArgumentException(String.format("For column %s, value [%s]", column.getName(), tokenizer.column()),
+				new IllegalArgumentException(message));
+	}
+
+	/**
+	 * Parses the MITAB text of a single column into interaction. The lists of fields set into
+	 * interaction are unmodifiable, so they can be shared with other interactions using {@link
+	 * PsiInteractionParser#copyColumn(Interaction, Interaction, MitabColumn)}.
+	 *
+	 * @param text value of the column, as it is written in a MITAB line
+	 * @throws IllegalArgumentException if text does not match MITAB syntax
+	 */
+	public void parseColumn(Interaction interaction, MitabColumn column, CharSequence text) {
+		final LineTokenizer tokenizer = new LineTokenizer(text);
+		tokenizer.nextColumn();
+		final Column<?> col = COLUMNS.get(column.ordinal());
+		parse(interaction, col, tokenizer);
+		col.freeze(interaction);
+	}
+
+	/**
+	 * Sets the fields of column in from into to. The lists of fields are not copied, so they are
+	 * shared by both interactions.
+	 */
+	public void copyColumn(Interaction from, Interaction to, MitabColumn column) {
+		COLUMNS.get(column.ordinal()).copy(from, to);
+	}
+
 	public String headerLine() {
 		return COLUMNS.stream()
 				.limit(numberOfColumns)
@@ -223,28 +376,6 @@ public class PsiInteractionParser {
 				.collect(Collectors.joining(COLUMN_SEPARATOR));
 	}
 
-	private List<String> splitSafe(String line, String separator) {
-		final List<String> rtn = new ArrayList<>();
-		int start = 0;
-		int pos = start;
-		boolean quoted = false;
-		while (pos < line.length()) {
-			// condition to change context.
-			// Only separators out of a quote context are used to split fields.
-			// Context is changed every time a quote " is found in the string that is not preceded by a backslash \.
-			if (line.charAt(pos) == QUOTE && (pos == 0 || line.charAt(pos - 1) != '\\'))
-				quoted = !quoted;
-			if (line.startsWith(separator, pos) && !quoted) {
-				rtn.add(line.substring(start, pos));
-				start = pos + 1;
-			}
-			pos += 1;
-
-		}
-		rtn.add(line.substring(start));
-		return rtn;
-	}
-
 	/**
 	 * Transforms the value inside field into an object of type Field.
 	 *
@@ -254,73 +385,176 @@ public class PsiInteractionParser {
 	 * is returned
 	 */
 	final List<Field> parseField(String field) {
-		if (field.equals("-") || field.isEmpty()) return Collections.emptyList();
-		final List<Field> fields = new LinkedList<>();
-		final List<String> strings = splitSafe(field, FIELD_SEPARATOR);
-		for (String string : strings) fields.add(FieldParser.parse(string));
-		return fields;
+		final LineTokenizer tokenizer = new LineTokenizer(field);
+		tokenizer.nextColumn();
+		return tokenizer.fields(Function.identity());
 	}
 
 	public String toString(Interaction interaction) {
-		return COLUMNS.stream()
-				.limit(numberOfColumns)
-				.map(column -> column.getValue(interaction))
-				.map(this::toString)
-				.collect(Collectors.joining(COLUMN_SEPARATOR));
+		final StringBuilder builder = new StringBuilder(LINE_CAPACITY);
+		append(interaction, builder);
+		return builder.toString();
 	}
 
-	private String toString(List<? extends Field> fields) {
-		if (fields.isEmpty()) return EMPTY;
-		return fields.stream()
-				.map(this::toString)
-				.collect(Collectors.joining(FIELD_SEPARATOR));
+	/**
+	 * Appends the MITAB line of interaction to builder, without line separator. This is the
+	 * allocation free version of {@link PsiInteractionParser#toString(Interaction)}: builder can be
+	 * reused for every line. Columns of lazy interactions that were never touched are copied from
+	 * the original line.
+	 *
+	 * @param interaction interaction to write
+	 * @param builder     where to write the line
+	 */
+	public void append(Interaction interaction, StringBuilder builder) {
+		final LazyInteraction lazy = interaction instanceof LazyInteraction ? (LazyInteraction) interaction : null;
+		for (int i = 0; i < numberOfColumns; i++) {
+			if (i > 0) builder.append(COLUMN_SEPARATOR_CHAR);
+			appendColumn(interaction, lazy, COLUMNS.get(i), builder);
+		}
+	}
+
+	/**
+	 * Appends the MITAB text of a single column of interaction to builder.
+	 *
+	 * @see PsiInteractionParser#append(Interaction, StringBuilder)
+	 */
+	public void appendColumn(Interaction interaction, MitabColumn column, StringBuilder builder) {
+		final LazyInteraction lazy = interaction instanceof LazyInteraction ? (LazyInteraction) interaction : null;
+		appendColumn(interaction, lazy, COLUMNS.get(column.ordinal()), builder);
 	}
 
-	private String toString(Field field) {
+	private void appendColumn(Interaction interaction, LazyInteraction lazy, Column<?> column, StringBuilder builder) {
+		if (lazy != null && !lazy.isTouched(column.getColumn()))
+			builder.append(lazy.raw(column.getColumn()));
+		else append(column.getValue(interaction), builder);
+	}
+
+	/**
+	 * @return the number of columns of the MITAB version of this parser
+	 */
+	public int getNumberOfColumns() {
+		return numberOfColumns;
+	}
+
+	private void append(List<? extends Field> fields, StringBuilder builder) {
+		if (fields.isEmpty()) {
+			builder.append(EMPTY);
+			return;
+		}
+		for (int i = 0; i < fields.size(); i++) {
+			if (i > 0) builder.append(FIELD_SEPARATOR);
+			append(fields.get(i), builder);
+		}
+	}
+
+	private void append(Field field, StringBuilder builder) {
 		if (field.getValue() == null) {
-			return field.getXref();
+			builder.append(field.getXref());
 		} else {
-			String r = quote(field.getXref());
-			if (field.getValue() != null)
-				r += ":" + quote(field.getValue());
-			if (field.getDescription() != null)
-				r += "(" + quote(field.getDescription()) + ")";
-			return r;
+			quote(field.getXref(), builder);
+			builder.append(':');
+			quote(field.getValue(), builder);
+			if (field.getDescription() != null) {
+				builder.append('(');
+				quote(field.getDescription(), builder);
+				builder.append(')');
+			}
 		}
 	}
 
-	private String quote(String value) {
-		if (mustBeQuoted(value))
-			return QUOTE + value + QUOTE;
-		return value;
+	private void quote(String value, StringBuilder builder) {
+		if (mustBeQuoted(value)) builder.append(QUOTE).append(value).append(QUOTE);
+		else builder.append(value);
 	}
 
-	private boolean mustBeQuoted(String value) {
-		return RESERVED.stream().anyMatch(value::contains);
+	/**
+	 * @return true if value contains any reserved symbol: | \t ( ) :
+	 */
+	private static boolean mustBeQuoted(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			switch (value.charAt(i)) {
+				case '|':
+				case '\t':
+				case '(':
+				case ')':
+				case ':':
+					return true;
+			}
+		}
+		return false;
 	}
 
-	private static class Column {
+	private static class Column<T extends Field> {
 
+		private final MitabColumn column;
 		private final String name;
-		private final BiConsumer<Interaction, List<Field>> setter;
+		private final Function<Field, T> factory;
+		private final BiConsumer<Interaction, List<T>> setter;
 		private final Function<Interaction, List<? extends Field>> getter;
+		private final FieldCache<T> cache;
+
+		private Column(MitabColumn column, String name, Function<Field, T> factory, BiConsumer<Interaction, List<T>> setter, Function<Interaction, List<? extends Field>> getter) {
+			this(column, name, factory, setter, getter, null);
+		}
 
-		private Column(String name, BiConsumer<Interaction, List<Field>> setter, Function<Interaction, List<? extends Field>> getter) {
+		private Column(MitabColumn column, String name, Function<Field, T> factory, BiConsumer<Interaction, List<T>> setter, Function<Interaction, List<? extends Field>> getter, FieldCache<T> cache) {
+			this.column = column;
 			this.name = name;
+			this.factory = factory;
 			this.setter = setter;
 			this.getter = getter;
+			this.cache = cache;
+		}
+
+		/**
+		 * Creates a copy of this column that shares the same instance for every occurrence of a
+		 * field. Used only for controlled vocabulary columns (methods, types, databases, roles and
+		 * organisms), which have a small set of values. Free text columns would only churn the
+		 * cache.
+		 */
+		Column<T> interned() {
+			return new Column<>(column, name, factory, setter, getter, new FieldCache<>());
+		}
+
+		MitabColumn getColumn() {
+			return column;
 		}
 
 		String getName() {
 			return name;
 		}
 
-		BiConsumer<Interaction, List<Field>> getSetter() {
-			return setter;
+		/**
+		 * Parses the fields of the current column of tokenizer and sets them into interaction.
+		 *
+		 * @return false if any field does not match MITAB syntax. Interaction is not modified then
+		 */
+		boolean tryParse(Interaction interaction, LineTokenizer tokenizer) {
+			final List<T> fields = tokenizer.tryFields(factory, cache);
+			if (fields == null) return false;
+			setter.accept(interaction, fields);
+			return true;
 		}
 
 		List<? extends Field> getValue(Interaction interaction) {
 			return getter.apply(interaction);
 		}
+
+		/**
+		 * Replaces the fields of interaction with an unmodifiable view.
+		 */
+		@SuppressWarnings("unchecked")
+		void freeze(Interaction interaction) {
+			// fields of a column are always created by the factory of the column, so they are T
+			setter.accept(interaction, (List<T>) Collections.unmodifiableList(getter.apply(interaction)));
+		}
+
+		/**
+		 * Sets the fields of from into to, without copying the list.
+		 */
+		@SuppressWarnings("unchecked")
+		void copy(Interaction from, Interaction to) {
+			setter.accept(to, (List<T>) getter.apply(from));
+		}
 	}
 }
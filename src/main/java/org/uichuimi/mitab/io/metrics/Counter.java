@@ -0,0 +1,31 @@
+package org.uichuimi.mitab.io.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter, that can be incremented from several threads.
+ */
+public class Counter {
+
+	private final LongAdder value = new LongAdder();
+
+	/**
+	 * Creates a counter that is not registered in any {@link Metrics}, to count something that is
+	 * registered later with {@link Metrics#counter(String, String, java.util.function.LongSupplier,
+	 * String...)}.
+	 */
+	public Counter() {
+	}
+
+	public void increment() {
+		value.increment();
+	}
+
+	public void add(long amount) {
+		value.add(amount);
+	}
+
+	public long get() {
+		return value.sum();
+	}
+}
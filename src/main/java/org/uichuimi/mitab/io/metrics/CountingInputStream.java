@@ -0,0 +1,39 @@
+package org.uichuimi.mitab.io.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that adds the number of bytes read to a counter.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+	private final Counter counter;
+
+	public CountingInputStream(InputStream in, Counter counter) {
+		super(in);
+		this.counter = counter;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final int read = in.read();
+		if (read >= 0) counter.increment();
+		return read;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) throws IOException {
+		final int read = in.read(bytes, offset, length);
+		if (read > 0) counter.add(read);
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		final long skipped = in.skip(n);
+		if (skipped > 0) counter.add(skipped);
+		return skipped;
+	}
+}
@@ -0,0 +1,84 @@
+package org.uichuimi.mitab.io.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations, in nanoseconds, with fixed buckets from 1 microsecond to 10 seconds in
+ * steps of 1, 2 and 5. Recording a value is cheap and can be done from several threads.
+ */
+public class Histogram {
+
+	/**
+	 * Upper bounds of the buckets, in nanoseconds. There is one more bucket for larger values.
+	 */
+	static final long[] BOUNDS;
+
+	static {
+		BOUNDS = new long[22];
+		long decade = 1000;
+		for (int i = 0; i < BOUNDS.length; i += 3) {
+			BOUNDS[i] = decade;
+			if (i + 1 < BOUNDS.length) BOUNDS[i + 1] = 2 * decade;
+			if (i + 2 < BOUNDS.length) BOUNDS[i + 2] = 5 * decade;
+			decade *= 10;
+		}
+	}
+
+	private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+	private final LongAdder sum = new LongAdder();
+
+	Histogram() {
+		for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+	}
+
+	/**
+	 * @param nanos duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		int bucket = 0;
+		while (bucket < BOUNDS.length && nanos > BOUNDS[bucket]) bucket++;
+		buckets[bucket].increment();
+		sum.add(nanos);
+	}
+
+	/**
+	 * @return number of recorded values in every bucket, not cumulative
+	 */
+	long[] buckets() {
+		final long[] counts = new long[buckets.length];
+		for (int i = 0; i < counts.length; i++) counts[i] = buckets[i].sum();
+		return counts;
+	}
+
+	public long count() {
+		long count = 0;
+		for (LongAdder bucket : buckets) count += bucket.sum();
+		return count;
+	}
+
+	/**
+	 * @return sum of the recorded values, in nanoseconds
+	 */
+	public long sum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @param quantile between 0 and 1
+	 * @return upper bound, in nanoseconds, of the bucket that contains the quantile, or
+	 * Long.MAX_VALUE if it is over the last bound. 0 if nothing has been recorded.
+	 */
+	public long quantile(double quantile) {
+		final long[] counts = buckets();
+		long total = 0;
+		for (long count : counts) total += count;
+		if (total == 0) return 0;
+		final double rank = quantile * total;
+		long cumulative = 0;
+		for (int i = 0; i < BOUNDS.length; i++) {
+			cumulative += counts[i];
+			if (cumulative >= rank) return BOUNDS[i];
+		}
+		return Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,202 @@
+package org.uichuimi.mitab.io.metrics;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the metrics of a pipeline: counters, histograms of durations and gauges. Metrics are
+ * identified by a name and, optionally, by pairs of label names and values, such as
+ * <code>histogram("mitab_acceptor_seconds", "...", "acceptor", "TsvWriter")</code>. Asking twice
+ * for the same metric returns the same instance.
+ * <p>
+ * Metrics can be read in the Prometheus text format ({@link #write(Appendable)}), served over
+ * HTTP ({@link #serve(int)}), dumped periodically to a file ({@link #dump(File, long)}) or
+ * registered as a JMX MBean ({@link #registerMBean()}). Durations are written in seconds.
+ */
+public class Metrics {
+
+	private final Map<String, Family> families = new LinkedHashMap<>();
+
+	public synchronized Counter counter(String name, String help, String... labels) {
+		return (Counter) family(name, help, "counter").metrics.computeIfAbsent(labels(labels), l -> new Counter());
+	}
+
+	/**
+	 * Registers a counter whose value is kept by another object, such as the bytes read by a
+	 * reader, and is read every time metrics are written. A counter with the same name and labels
+	 * is replaced.
+	 */
+	public synchronized void counter(String name, String help, LongSupplier value, String... labels) {
+		family(name, help, "counter").metrics.put(labels(labels), value);
+	}
+
+	public synchronized Histogram histogram(String name, String help, String... labels) {
+		return (Histogram) family(name, help, "histogram").metrics.computeIfAbsent(labels(labels), l -> new Histogram());
+	}
+
+	/**
+	 * Registers a gauge, whose value is read every time metrics are written. A gauge with the same
+	 * name and labels is replaced.
+	 */
+	public synchronized void gauge(String name, String help, DoubleSupplier value, String... labels) {
+		family(name, help, "gauge").metrics.put(labels(labels), value);
+	}
+
+	private Family family(String name, String help, String type) {
+		final Family family = families.computeIfAbsent(name, n -> new Family(help, type));
+		if (!family.type.equals(type))
+			throw new IllegalArgumentException(name + " is a " + family.type + ", not a " + type);
+		return family;
+	}
+
+	private static String labels(String... labels) {
+		if (labels.length % 2 != 0) throw new IllegalArgumentException("labels must be pairs of name and value");
+		if (labels.length == 0) return "";
+		final StringBuilder builder = new StringBuilder("{");
+		for (int i = 0; i < labels.length; i += 2) {
+			if (i > 0) builder.append(",");
+			builder.append(labels[i]).append("=\"")
+					.append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+					.append("\"");
+		}
+		return builder.append("}").toString();
+	}
+
+	/**
+	 * Writes all the metrics in the Prometheus text format.
+	 */
+	public synchronized void write(Appendable out) throws IOException {
+		for (Map.Entry<String, Family> entry : families.entrySet()) {
+			final String name = entry.getKey();
+			final Family family = entry.getValue();
+			out.append("# HELP ").append(name).append(" ").append(family.help).append("\n");
+			out.append("# TYPE ").append(name).append(" ").append(family.type).append("\n");
+			for (Map.Entry<String, Object> metric : family.metrics.entrySet()) {
+				final String labels = metric.getKey();
+				final Object value = metric.getValue();
+				if (value instanceof Counter)
+					out.append(name).append(labels).append(" ").append(String.valueOf(((Counter) value).get())).append("\n");
+				else if (value instanceof LongSupplier)
+					out.append(name).append(labels).append(" ").append(String.valueOf(((LongSupplier) value).getAsLong())).append("\n");
+				else if (value instanceof DoubleSupplier)
+					out.append(name).append(labels).append(" ").append(String.valueOf(((DoubleSupplier) value).getAsDouble())).append("\n");
+				else writeHistogram(out, name, labels, (Histogram) value);
+			}
+		}
+	}
+
+	private static void writeHistogram(Appendable out, String name, String labels, Histogram histogram) throws IOException {
+		final String prefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+		final long[] buckets = histogram.buckets();
+		long cumulative = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			cumulative += buckets[i];
+			final String bound = i < Histogram.BOUNDS.length ? seconds(Histogram.BOUNDS[i]) : "+Inf";
+			out.append(name).append("_bucket").append(prefix).append("le=\"").append(bound).append("\"} ")
+					.append(String.valueOf(cumulative)).append("\n");
+		}
+		out.append(name).append("_sum").append(labels).append(" ").append(seconds(histogram.sum())).append("\n");
+		out.append(name).append("_count").append(labels).append(" ").append(String.valueOf(cumulative)).append("\n");
+	}
+
+	private static String seconds(long nanos) {
+		return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+	}
+
+	/**
+	 * A flat view of the metrics, used by JMX. Counters and gauges are returned by name and labels.
+	 * Histograms are returned as count, sum, and the 50th and 99th percentiles, in seconds.
+	 */
+	synchronized Map<String, Double> samples() {
+		final Map<String, Double> samples = new LinkedHashMap<>();
+		families.forEach((name, family) -> family.metrics.forEach((labels, value) -> {
+			if (value instanceof Counter) samples.put(name + labels, (double) ((Counter) value).get());
+			else if (value instanceof LongSupplier)
+				samples.put(name + labels, (double) ((LongSupplier) value).getAsLong());
+			else if (value instanceof DoubleSupplier)
+				samples.put(name + labels, ((DoubleSupplier) value).getAsDouble());
+			else {
+				final Histogram histogram = (Histogram) value;
+				samples.put(name + "_count" + labels, (double) histogram.count());
+				samples.put(name + "_sum" + labels, histogram.sum() / 1e9);
+				samples.put(name + "_p50" + labels, histogram.quantile(0.5) / 1e9);
+				samples.put(name + "_p99" + labels, histogram.quantile(0.99) / 1e9);
+			}
+		}));
+		return samples;
+	}
+
+	/**
+	 * Serves the metrics in the Prometheus text format at http://localhost:port/metrics.
+	 *
+	 * @return a handle that stops the server when closed
+	 */
+	public AutoCloseable serve(int port) throws IOException {
+		return MetricsServer.start(this, port);
+	}
+
+	/**
+	 * Writes the metrics to file, in the Prometheus text format, every period seconds and when
+	 * closed. The file is replaced atomically, so it can be read at any time.
+	 *
+	 * @return a handle that stops dumping when closed, after a last dump
+	 */
+	public AutoCloseable dump(File file, long period) {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "mitab-metrics");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleAtFixedRate(() -> {
+			try {
+				dump(file);
+			} catch (IOException e) {
+				System.err.println("cannot write metrics to " + file + ": " + e.getMessage());
+			}
+		}, period, period, TimeUnit.SECONDS);
+		return () -> {
+			executor.shutdownNow();
+			executor.awaitTermination(1, TimeUnit.SECONDS);
+			dump(file);
+		};
+	}
+
+	private void dump(File file) throws IOException {
+		final File tmp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+			write(writer);
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server, with object name
+	 * {@value MetricsMBean#OBJECT_NAME}. Every metric is a read only attribute.
+	 *
+	 * @return a handle that unregisters the MBean when closed
+	 */
+	public AutoCloseable registerMBean() throws IOException {
+		return MetricsMBean.register(this);
+	}
+
+	private static class Family {
+		private final String help;
+		private final String type;
+		private final Map<String, Object> metrics = new LinkedHashMap<>();
+
+		Family(String help, String type) {
+			this.help = help;
+			this.type = type;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package org.uichuimi.mitab.io.metrics;
+
+import javax.management.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * Dynamic MBean with one read only attribute per metric, as returned by {@link Metrics#samples()}.
+ * Attributes are read when requested, so they are always up to date.
+ */
+class MetricsMBean implements DynamicMBean {
+
+	static final String OBJECT_NAME = "org.uichuimi.mitab:type=Metrics";
+
+	private final Metrics metrics;
+
+	private MetricsMBean(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	static AutoCloseable register(Metrics metrics) throws IOException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			server.registerMBean(new MetricsMBean(metrics), name);
+			return () -> server.unregisterMBean(name);
+		} catch (JMException e) {
+			throw new IOException("cannot register " + OBJECT_NAME, e);
+		}
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		final Double value = metrics.samples().get(attribute);
+		if (value == null) throw new AttributeNotFoundException(attribute);
+		return value;
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		final Map<String, Double> samples = metrics.samples();
+		final AttributeList list = new AttributeList();
+		for (String attribute : attributes)
+			if (samples.containsKey(attribute)) list.add(new Attribute(attribute, samples.get(attribute)));
+		return list;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException(attribute.getName() + " is read only");
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		final MBeanAttributeInfo[] attributes = metrics.samples().keySet().stream()
+				.map(name -> new MBeanAttributeInfo(name, Double.class.getName(), name, true, false, false))
+				.toArray(MBeanAttributeInfo[]::new);
+		return new MBeanInfo(getClass().getName(), "mitab pipeline metrics", attributes, null, null, null);
+	}
+}
@@ -0,0 +1,37 @@
+package org.uichuimi.mitab.io.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal HTTP server, bound to the loopback address, that serves metrics in the Prometheus text
+ * format at /metrics.
+ */
+class MetricsServer {
+
+	static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private MetricsServer() {
+	}
+
+	static AutoCloseable start(Metrics metrics, int port) throws IOException {
+		final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/metrics", exchange -> {
+			final StringBuilder builder = new StringBuilder();
+			metrics.write(builder);
+			final byte[] body = builder.toString().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		return () -> server.stop(0);
+	}
+}
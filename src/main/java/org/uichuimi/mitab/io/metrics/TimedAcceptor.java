@@ -0,0 +1,42 @@
+package org.uichuimi.mitab.io.metrics;
+
+import org.uichuimi.mitab.io.consumer.Acceptor;
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+import java.util.Set;
+
+/**
+ * Acceptor that records in a histogram the time spent by another acceptor in every element.
+ */
+public class TimedAcceptor<T> implements Acceptor<T> {
+
+	private final Acceptor<T> acceptor;
+	private final Histogram histogram;
+
+	public TimedAcceptor(Acceptor<T> acceptor, Histogram histogram) {
+		this.acceptor = acceptor;
+		this.histogram = histogram;
+	}
+
+	@Override
+	public void start() {
+		acceptor.start();
+	}
+
+	@Override
+	public Set<MitabColumn> columns() {
+		return acceptor.columns();
+	}
+
+	@Override
+	public void accept(T element) {
+		final long start = System.nanoTime();
+		acceptor.accept(element);
+		histogram.record(System.nanoTime() - start);
+	}
+
+	@Override
+	public void close() {
+		acceptor.close();
+	}
+}
@@ -2,6 +2,16 @@ package org.uichuimi.mitab.io.model;
 
 public class ConfidenceScore extends Field {
 
+	private static final byte UNPARSED = 0;
+	private static final byte NUMERIC = 1;
+	private static final byte NOT_NUMERIC = 2;
+
+	/**
+	 * Fields may be shared by threads, so the score is published by writing the state after it.
+	 */
+	private volatile byte state = UNPARSED;
+	private double score;
+
 	ConfidenceScore(String type, String value) {
 		super(type, value);
 	}
@@ -14,4 +24,35 @@ public class ConfidenceScore extends Field {
 		return getXref();
 	}
 
+	/**
+	 * @return true if the value is a number, such as 0.56 in intact-miscore:0.56
+	 */
+	public boolean isNumeric() {
+		if (state == UNPARSED) parse();
+		return state == NUMERIC;
+	}
+
+	/**
+	 * Gets the value as a number. The value is parsed only once.
+	 *
+	 * @return the value, or NaN if it is not a number
+	 */
+	public double asDouble() {
+		if (state == UNPARSED) parse();
+		return score;
+	}
+
+	private void parse() {
+		final String value = getValue();
+		if (Numbers.maybeDouble(value)) {
+			try {
+				score = Double.parseDouble(value);
+				state = NUMERIC;
+				return;
+			} catch (NumberFormatException ignored) {
+			}
+		}
+		score = Double.NaN;
+		state = NOT_NUMERIC;
+	}
 }
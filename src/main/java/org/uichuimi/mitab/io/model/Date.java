@@ -1,7 +1,21 @@
 package org.uichuimi.mitab.io.model;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
 public class Date extends Field{
 
+	/**
+	 * Returned by {@link Date#toEpochDay()} when the date is not valid.
+	 */
+	public static final long UNKNOWN = Long.MIN_VALUE;
+	private static final long UNPARSED = Long.MAX_VALUE;
+
+	/**
+	 * Parsed on first access. Volatile, since writes of longs may not be atomic.
+	 */
+	private volatile long epochDay = UNPARSED;
+
 	Date(String date) {
 		super(date);
 	}
@@ -11,4 +25,39 @@ public class Date extends Field{
 	}
 
 	public String getDate() {return getXref();}
+
+	/**
+	 * Gets the date, in MITAB format yyyy/mm/dd, as a number of days since 1970-01-01. The date is
+	 * parsed only once, so dates can be compared and filtered as numbers.
+	 *
+	 * @return the epoch day, or {@link Date#UNKNOWN} if the date is not valid
+	 * @see LocalDate#toEpochDay()
+	 */
+	public long toEpochDay() {
+		long day = epochDay;
+		if (day == UNPARSED) epochDay = day = parse(getDate());
+		return day;
+	}
+
+	/**
+	 * @return the date, or null if it is not valid
+	 */
+	public LocalDate toLocalDate() {
+		final long day = toEpochDay();
+		return day == UNKNOWN ? null : LocalDate.ofEpochDay(day);
+	}
+
+	private static long parse(String date) {
+		if (date == null || date.length() != 10 || date.charAt(4) != '/' || date.charAt(7) != '/') return UNKNOWN;
+		final long year = Numbers.parseInt(date, 0, 4);
+		final long month = Numbers.parseInt(date, 5, 7);
+		final long day = Numbers.parseInt(date, 8, 10);
+		if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return UNKNOWN;
+		try {
+			return LocalDate.of((int) year, (int) month, (int) day).toEpochDay();
+		} catch (DateTimeException e) {
+			// such as 2001/02/30
+			return UNKNOWN;
+		}
+	}
 }
@@ -1,6 +1,15 @@
 package org.uichuimi.mitab.io.model;
 
+import java.util.List;
+
 public class Feature extends Field {
+
+	/**
+	 * Parsed on first access. The list is immutable, so threads may parse it more than once, but
+	 * they never see a partial list.
+	 */
+	private List<FeatureRange> ranges;
+
 	public Feature(String type, String range, String text) {
 		super(type, range, text);
 	}
@@ -20,4 +29,16 @@ public class Feature extends Field {
 	public String getText() {
 		return getDescription();
 	}
+
+	/**
+	 * Gets the ranges of the feature, such as [10-15, 20-25] in binding site:10-15,20-25. Ranges
+	 * are parsed only once.
+	 *
+	 * @return the ranges, empty if there is no range
+	 */
+	public List<FeatureRange> getRanges() {
+		List<FeatureRange> ranges = this.ranges;
+		if (ranges == null) this.ranges = ranges = FeatureRange.parse(getRange());
+		return ranges;
+	}
 }
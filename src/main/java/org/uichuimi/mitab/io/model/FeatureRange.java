@@ -0,0 +1,104 @@
+package org.uichuimi.mitab.io.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of a feature, such as 10-15 in binding site:10-15(text). Each position of a range is
+ * either a number, a fuzzy position (10..12, &lt;10, &gt;10) or an undetermined one (? for
+ * unknown, n for N-terminal, c for C-terminal). Positions are reduced to a number: the number
+ * itself, the first number of a fuzzy position, or {@link FeatureRange#UNDEFINED}.
+ */
+public class FeatureRange {
+
+	public static final int UNDEFINED = -1;
+
+	private final int start;
+	private final int end;
+	private final boolean exact;
+
+	public FeatureRange(int start, int end, boolean exact) {
+		this.start = start;
+		this.end = end;
+		this.exact = exact;
+	}
+
+	/**
+	 * @return first position of the range, or {@link FeatureRange#UNDEFINED}
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return last position of the range, or {@link FeatureRange#UNDEFINED}
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return true if both positions are plain numbers
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+
+	/**
+	 * @return length of an exact range, counting both positions, or {@link FeatureRange#UNDEFINED}
+	 */
+	public int length() {
+		return exact ? end - start + 1 : UNDEFINED;
+	}
+
+	/**
+	 * Parses a comma separated list of ranges, such as 10-15,20-25. Ranges without a dash are
+	 * ignored.
+	 */
+	static List<FeatureRange> parse(String ranges) {
+		if (ranges == null || ranges.isEmpty()) return List.of();
+		final List<FeatureRange> list = new ArrayList<>(1);
+		int from = 0;
+		while (from <= ranges.length()) {
+			int to = ranges.indexOf(',', from);
+			if (to == -1) to = ranges.length();
+			// the separator is the first dash after the start position, which is never negative
+			final int dash = ranges.indexOf('-', from + 1);
+			if (dash != -1 && dash < to) {
+				final int start = position(ranges, from, dash);
+				final int end = position(ranges, dash + 1, to);
+				list.add(new FeatureRange(start, end, start != UNDEFINED && end != UNDEFINED
+						&& exact(ranges, from, dash) && exact(ranges, dash + 1, to)));
+			}
+			from = to + 1;
+		}
+		return List.copyOf(list);
+	}
+
+	private static int position(String text, int from, int to) {
+		while (from < to && text.charAt(from) == ' ') from++;
+		while (to > from && text.charAt(to - 1) == ' ') to--;
+		if (from < to && (text.charAt(from) == '<' || text.charAt(from) == '>')) from++;
+		final int interval = text.indexOf("..", from);
+		if (interval != -1 && interval < to) to = interval;
+		final long value = Numbers.parseInt(text, from, to);
+		return value < 0 ? UNDEFINED : (int) value;
+	}
+
+	private static boolean exact(String text, int from, int to) {
+		for (int i = from; i < to; i++) {
+			final char c = text.charAt(i);
+			if ((c < '0' || c > '9') && c != ' ') return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "FeatureRange{" +
+				"start=" + start +
+				", end=" + end +
+				", exact=" + exact +
+				'}';
+	}
+}
@@ -29,6 +29,7 @@ public class Interaction {
 	private List<Negative> negative = Collections.emptyList();
 	private CausalRegulatoryMechanism causalRegulatoryMechanism;
 	private CausalStatement causalStatement;
+	private String source;
 
 	private Interaction(Interactor interactorA, Interactor interactorB) {
 		this.interactorA = interactorA;
@@ -469,6 +470,20 @@ public class Interaction {
 		return causalStatement;
 	}
 
+	/**
+	 * Where the interaction was read from, such as the name of the entry of a zip archive. This
+	 * is not a MITAB column, so it is not written.
+	 *
+	 * @return the source of the interaction, or null if unknown
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	public void setSource(String source) {
+		this.source = source;
+	}
+
 	@Override
 	public String toString() {
 		return "Interaction{" +
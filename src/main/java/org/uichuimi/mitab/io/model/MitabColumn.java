@@ -0,0 +1,56 @@
+package org.uichuimi.mitab.io.model;
+
+/**
+ * Columns of a MITAB line, in file order. The first 15 columns are defined in MITAB 2.5, the
+ * first 36 in 2.6, the first 42 in 2.7 and all of them in 2.8.
+ *
+ * @see PsiMitabVersion
+ */
+public enum MitabColumn {
+	ID_A,
+	ID_B,
+	ALT_ID_A,
+	ALT_ID_B,
+	ALIAS_A,
+	ALIAS_B,
+	DETECTION_METHOD,
+	AUTHOR,
+	PUBLICATION,
+	TAXID_A,
+	TAXID_B,
+	TYPE,
+	DATABASE,
+	IDENTIFIER,
+	CONFIDENCE,
+	EXPANSION,
+	BIOLOGICAL_ROLE_A,
+	BIOLOGICAL_ROLE_B,
+	EXPERIMENTAL_ROLE_A,
+	EXPERIMENTAL_ROLE_B,
+	TYPE_A,
+	TYPE_B,
+	XREF_A,
+	XREF_B,
+	XREF,
+	ANNOTATION_A,
+	ANNOTATION_B,
+	ANNOTATION,
+	HOST_ORGANISM,
+	PARAMETER,
+	CREATION,
+	UPDATE,
+	CHECKSUM_A,
+	CHECKSUM_B,
+	CHECKSUM,
+	NEGATIVE,
+	FEATURE_A,
+	FEATURE_B,
+	STOICHIOMETRY_A,
+	STOICHIOMETRY_B,
+	IDENTIFICATION_METHOD_A,
+	IDENTIFICATION_METHOD_B,
+	BIOLOGICAL_EFFECT_A,
+	BIOLOGICAL_EFFECT_B,
+	CAUSAL_REGULATORY_MECHANISM,
+	CAUSAL_STATEMENT
+}
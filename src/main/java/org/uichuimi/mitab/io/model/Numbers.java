@@ -0,0 +1,57 @@
+package org.uichuimi.mitab.io.model;
+
+/**
+ * Parsing of the numeric values of fields, without exceptions for the common non numeric values.
+ */
+final class Numbers {
+
+	/**
+	 * Returned by {@link Numbers#parseInt(String, int, int)} when the text is not an integer.
+	 */
+	static final long NOT_AN_INT = Long.MIN_VALUE;
+
+	private Numbers() {
+	}
+
+	/**
+	 * @return false if value is certainly not a number for {@link Double#parseDouble(String)}, so
+	 * words such as <em>high</em> or <em>-</em> are rejected without an exception
+	 */
+	static boolean maybeDouble(String value) {
+		if (value == null || value.isEmpty()) return false;
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c >= '0' && c <= '9') return true;
+		}
+		return value.contains("NaN") || value.contains("Infinity");
+	}
+
+	/**
+	 * Parses the decimal integer in text between from (inclusive) and to (exclusive), with an
+	 * optional sign.
+	 *
+	 * @return the integer, or {@link Numbers#NOT_AN_INT} if the region is empty, is not an integer
+	 * or does not fit in an int
+	 */
+	static long parseInt(String text, int from, int to) {
+		if (text == null || from >= to) return NOT_AN_INT;
+		boolean negative = false;
+		if (text.charAt(from) == '-' || text.charAt(from) == '+') {
+			negative = text.charAt(from) == '-';
+			if (++from == to) return NOT_AN_INT;
+		}
+		long value = 0;
+		for (int i = from; i < to; i++) {
+			final char c = text.charAt(i);
+			if (c < '0' || c > '9') return NOT_AN_INT;
+			value = 10 * value + c - '0';
+			if (value > Integer.MAX_VALUE + 1L) return NOT_AN_INT;
+		}
+		value = negative ? -value : value;
+		return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_AN_INT : value;
+	}
+
+	static long parseInt(String text) {
+		return text == null ? NOT_AN_INT : parseInt(text, 0, text.length());
+	}
+}
@@ -2,6 +2,18 @@ package org.uichuimi.mitab.io.model;
 
 public class Organism extends Field {
 
+	/**
+	 * Returned by {@link Organism#taxId()} when the identifier is not a number.
+	 */
+	public static final int UNKNOWN_TAX_ID = 0;
+	private static final int UNPARSED = Integer.MIN_VALUE;
+
+	/**
+	 * Parsed on first access. Like {@link String#hashCode()}, threads may parse it more than once,
+	 * but they never see a partial value.
+	 */
+	private int taxId = UNPARSED;
+
 	/**
 	 * creates a taxid:identifier Species
 	 *
@@ -31,4 +43,18 @@ public class Organism extends Field {
 		return getDescription();
 	}
 
+	/**
+	 * Gets the identifier as a number, such as 9606 in taxid:9606(human). Negative identifiers,
+	 * such as -1 for in vitro, are kept. The identifier is parsed only once.
+	 *
+	 * @return the taxonomy identifier, or {@link Organism#UNKNOWN_TAX_ID} if it is not a number
+	 */
+	public int taxId() {
+		int id = taxId;
+		if (id == UNPARSED) {
+			final long value = Numbers.parseInt(getIdentifier());
+			taxId = id = value == Numbers.NOT_AN_INT || value == UNPARSED ? UNKNOWN_TAX_ID : (int) value;
+		}
+		return id;
+	}
 }
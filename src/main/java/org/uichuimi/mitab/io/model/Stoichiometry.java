@@ -2,6 +2,17 @@ package org.uichuimi.mitab.io.model;
 
 public class Stoichiometry extends Field {
 
+	/**
+	 * Returned by {@link Stoichiometry#asInt()} when the stoichiometry is not a number.
+	 */
+	public static final int UNKNOWN = -1;
+	private static final int UNPARSED = Integer.MIN_VALUE;
+
+	/**
+	 * Parsed on first access, see {@link Organism#taxId()}.
+	 */
+	private int value = UNPARSED;
+
 	public Stoichiometry(String stoichiometry) {
 		super(stoichiometry);
 	}
@@ -13,4 +24,17 @@ public class Stoichiometry extends Field {
 	public String getStoichiometry() {
 		return getXref();
 	}
+
+	/**
+	 * @return the stoichiometry as a number, or {@link Stoichiometry#UNKNOWN} if it is not a non
+	 * negative integer
+	 */
+	public int asInt() {
+		int value = this.value;
+		if (value == UNPARSED) {
+			final long parsed = Numbers.parseInt(getStoichiometry());
+			this.value = value = parsed < 0 ? UNKNOWN : (int) parsed;
+		}
+		return value;
+	}
 }
@@ -3,16 +3,17 @@ package org.uichuimi.mitab.io.output;
 import org.uichuimi.mitab.io.consumer.Acceptor;
 import org.uichuimi.mitab.io.model.Interaction;
 import org.uichuimi.mitab.io.model.Interactor;
+import org.uichuimi.mitab.io.model.MitabColumn;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
 
+import static org.uichuimi.mitab.io.model.MitabColumn.*;
+
 public class TsvWriter implements Acceptor<Interaction>, AutoCloseable {
 
 	private static final String SEPARATOR = "\t";
@@ -42,6 +43,12 @@ public class TsvWriter implements Acceptor<Interaction>, AutoCloseable {
 
 	}
 
+	@Override
+	public Set<MitabColumn> columns() {
+		return EnumSet.of(IDENTIFIER, TYPE, DETECTION_METHOD, HOST_ORGANISM, CONFIDENCE, ID_A, ID_B,
+				BIOLOGICAL_ROLE_A, BIOLOGICAL_ROLE_B, EXPERIMENTAL_ROLE_A, EXPERIMENTAL_ROLE_B);
+	}
+
 	@Override
 	public void accept(Interaction interaction) {
 		writer.accept(interaction);
@@ -0,0 +1,89 @@
+package org.uichuimi.mitab.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ColumnarInteractionReaderTest {
+
+	@Test
+	public void roundTrip() throws Exception {
+		final List<Interaction> interactions = read();
+		// several row groups, the last one incomplete
+		final File file = write(interactions, 7);
+		final PsiInteractionParser parser = PsiInteractionParser.instance();
+		try (ColumnarInteractionReader reader = new ColumnarInteractionReader(file)) {
+			Assert.assertEquals(PsiMitabVersion.TAB_27, reader.getVersion());
+			Assert.assertEquals(interactions.size(), reader.size());
+			final List<Interaction> actual = reader.readAll();
+			Assert.assertEquals(interactions.size(), actual.size());
+			for (int i = 0; i < interactions.size(); i++)
+				Assert.assertEquals(parser.toString(interactions.get(i)), parser.toString(actual.get(i)));
+			Assert.assertTrue(reader.getBytesRead() > 0);
+		}
+	}
+
+	@Test
+	public void columns() throws Exception {
+		final File file = write(read(), 16);
+		try (ColumnarInteractionReader reader = new ColumnarInteractionReader(file).withColumns(EnumSet.of(MitabColumn.ID_A, MitabColumn.TYPE))) {
+			for (Interaction interaction : reader) {
+				Assert.assertNotNull(interaction.getInteractorA().getPrimaryIdentifier());
+				Assert.assertFalse(interaction.getTypes().isEmpty());
+				Assert.assertNull(interaction.getInteractorB().getPrimaryIdentifier());
+				Assert.assertTrue(interaction.getDetectionMethods().isEmpty());
+			}
+		}
+	}
+
+	@Test
+	public void filter() throws Exception {
+		final List<Interaction> interactions = read();
+		final File file = write(interactions, 5);
+		final List<String> expected = interactions.stream()
+				.filter(interaction -> interaction.getInteractorA().getPrimaryIdentifier().getIdentifier().equals("P49418"))
+				.map(interaction -> interaction.getIdentifiers().get(0).getIdentifier())
+				.collect(Collectors.toList());
+		Assert.assertEquals(14, expected.size());
+		try (ColumnarInteractionReader reader = new ColumnarInteractionReader(file)
+				.withColumns(EnumSet.of(MitabColumn.IDENTIFIER))
+				.withFilter(MitabColumn.ID_A, "uniprotkb:P49418")) {
+			Assert.assertEquals(expected, reader.interactions()
+					.map(interaction -> interaction.getIdentifiers().get(0).getIdentifier())
+					.collect(Collectors.toList()));
+		}
+		try (ColumnarInteractionReader reader = new ColumnarInteractionReader(file).withFilter(MitabColumn.ID_A, "uniprotkb:P04637")) {
+			Assert.assertFalse(reader.hasNext());
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void sharedFieldsAreUnmodifiable() throws Exception {
+		final File file = write(read(), 16);
+		try (ColumnarInteractionReader reader = new ColumnarInteractionReader(file)) {
+			reader.next().getTypes().clear();
+		}
+	}
+
+	private List<Interaction> read() throws IOException {
+		return new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27")).readAll();
+	}
+
+	private static File write(List<Interaction> interactions, int rowGroupSize) throws IOException {
+		final File file = File.createTempFile("mitab-columnar-test", ColumnarInteractionReader.EXTENSION);
+		file.deleteOnExit();
+		try (ColumnarInteractionWriter writer = new ColumnarInteractionWriter(file, PsiMitabVersion.TAB_27, rowGroupSize)) {
+			interactions.forEach(writer::write);
+		}
+		return file;
+	}
+}
@@ -0,0 +1,67 @@
+package org.uichuimi.mitab.io;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.compress.BgzfOutputStream;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class IndexedInteractionReaderTest {
+
+	private static final int LINES = 300;
+
+	@Test
+	public void uncompressed() throws IOException {
+		final File file = File.createTempFile("mitab-index-test", ".mitab27");
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(content());
+		}
+		assertIndex(file);
+	}
+
+	@Test
+	public void bgzf() throws IOException {
+		final File file = File.createTempFile("mitab-index-test", ".mitab27.gz");
+		file.deleteOnExit();
+		try (OutputStream out = new BgzfOutputStream(new FileOutputStream(file))) {
+			out.write(content());
+		}
+		assertIndex(file);
+	}
+
+	private void assertIndex(File file) throws IOException {
+		final File index = InteractorIndex.of(file);
+		index.deleteOnExit();
+		InteractorIndex.build(file, index, true, PsiMitabVersion.TAB_27);
+		try (IndexedInteractionReader reader = new IndexedInteractionReader(file)) {
+			final List<Interaction> interactions = reader.findByInteractor("uniprotkb:P3");
+			Assert.assertEquals(LINES / 10, interactions.size());
+			for (Interaction interaction : interactions)
+				Assert.assertEquals("P3", interaction.getInteractorA().getPrimaryIdentifier().getIdentifier());
+			Assert.assertEquals(42, reader.findByInteractor("uniprotkb:Q0").size());
+			// the first line is a homodimer, but it is returned once
+			Assert.assertEquals(LINES / 10, reader.findByInteractor("uniprotkb:P0").size());
+			// alternative identifiers
+			Assert.assertEquals(LINES, reader.findByInteractor("intact:EBI-7121510").size());
+			Assert.assertTrue(reader.findByInteractor("uniprotkb:P04637").isEmpty());
+		}
+	}
+
+	/**
+	 * The test interaction repeated, with the primary identifiers changed.
+	 */
+	private byte[] content() throws IOException {
+		final String[] lines = IOUtils.toString(getClass().getResourceAsStream("/input/test.mitab27"), StandardCharsets.UTF_8).split("\n");
+		final StringBuilder builder = new StringBuilder(lines[0]).append("\n");
+		final String rest = lines[1].substring(lines[1].indexOf('\t', lines[1].indexOf('\t') + 1));
+		for (int i = 0; i < LINES; i++)
+			builder.append("uniprotkb:P").append(i % 10).append("\tuniprotkb:").append(i == 0 ? "P0" : "Q" + i % 7).append(rest).append("\n");
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,81 @@
+package org.uichuimi.mitab.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MappedLineSourceTest {
+
+	@Test
+	public void lines() throws Exception {
+		final List<String> lines = read("first\r\nsecond line\n\nα-synuclein:\"β\"\nlast", 1024);
+		Assert.assertEquals(List.of("first", "second line", "", "α-synuclein:\"β\"", "last"), lines);
+	}
+
+	@Test
+	public void smallWindows() throws Exception {
+		// lines cross window boundaries, so windows must be remapped at line starts
+		final StringBuilder builder = new StringBuilder();
+		final List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final String line = "line" + i + "\tuniprotkb:P" + i * 7919;
+			expected.add(line);
+			builder.append(line).append('\n');
+		}
+		Assert.assertEquals(expected, read(builder.toString(), 64));
+	}
+
+	@Test(expected = java.io.IOException.class)
+	public void lineLongerThanWindow() throws Exception {
+		read("short\n" + "x".repeat(100) + "\nshort\n", 16);
+	}
+
+	@Test
+	public void charSequence() {
+		final byte[] bytes = "taxid:9606(\"α\")".getBytes(StandardCharsets.UTF_8);
+		final ByteLine line = new ByteLine(bytes, 0, bytes.length);
+		Assert.assertEquals(bytes.length, line.length());
+		Assert.assertEquals(':', line.charAt(5));
+		Assert.assertEquals("9606", line.subSequence(6, 10).toString());
+		Assert.assertEquals("\"α\"", line.subSequence(11, bytes.length - 1).toString());
+	}
+
+	@Test
+	public void byteLinesDoNotShareCachedFieldsWithDecodedLines() throws Exception {
+		// the UTF-8 bytes of é read as Latin-1 chars are Ã©, a different decoded text
+		final String[] columns = new String[PsiInteractionParser.instance().getNumberOfColumns()];
+		Arrays.fill(columns, "-");
+		columns[0] = "uniprotkb:P12345";
+		columns[1] = "uniprotkb:P67890";
+		columns[9] = "taxid:9606(Ã©)";
+		final PsiInteractionParser parser = PsiInteractionParser.instance();
+		Assert.assertEquals("Ã©", parser.toInteraction(String.join("\t", columns)).getInteractorA().getOrganisms().get(0).getDescription());
+		columns[9] = "taxid:9606(é)";
+		final byte[] bytes = String.join("\t", columns).getBytes(StandardCharsets.UTF_8);
+		final Interaction interaction = parser.toInteraction(new ByteLine(bytes, 0, bytes.length));
+		Assert.assertEquals("é", interaction.getInteractorA().getOrganisms().get(0).getDescription());
+	}
+
+	private List<String> read(String content, long window) throws Exception {
+		final File file = File.createTempFile("mitab-io-test", ".txt");
+		file.deleteOnExit();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		final List<String> lines = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		     MappedLineSource source = new MappedLineSource(channel, false, 0, Long.MAX_VALUE, window)) {
+			CharSequence line;
+			while ((line = source.readLine()) != null) lines.add(line.toString());
+		}
+		return lines;
+	}
+}
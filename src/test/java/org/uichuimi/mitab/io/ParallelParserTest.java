@@ -0,0 +1,80 @@
+package org.uichuimi.mitab.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+
+public class ParallelParserTest {
+
+	private static final String LINE = "uniprotkb:P49418\tuniprotkb:O43426\t-\t-\t-\t-\tpsi-mi:\"MI:0084\"(phage display)\t-\t-\t-\t-\t-\t-\t-\t-";
+
+	@Test(timeout = 10_000)
+	public void readError() throws Exception {
+		final LineSource source = new Source(List.of(LINE, LINE, LINE), true);
+		try (ParallelParser parser = new ParallelParser(source, PsiInteractionParser.instance(), 2, true, 1)) {
+			int count = 0;
+			try {
+				while (parser.hasNext()) {
+					parser.next();
+					count++;
+				}
+				Assert.fail();
+			} catch (UncheckedIOException e) {
+				Assert.assertEquals("broken", e.getCause().getMessage());
+			}
+			Assert.assertEquals(3, count);
+			Assert.assertTrue(parser.inFlight() >= 0);
+			Assert.assertFalse(parser.hasNext());
+		}
+	}
+
+	@Test(timeout = 10_000)
+	public void parseError() throws Exception {
+		final LineSource source = new Source(List.of(LINE, LINE.replace("(phage display)", "(phage display"), LINE), false);
+		try (ParallelParser parser = new ParallelParser(source, PsiInteractionParser.instance(), 2, true, 1)) {
+			Assert.assertNotNull(parser.next());
+			try {
+				parser.hasNext();
+				Assert.fail();
+			} catch (IllegalArgumentException ignored) {
+			}
+			// the producer was stopped, so this must not wait for the end of the input
+			Assert.assertFalse(parser.hasNext());
+		}
+	}
+
+	/**
+	 * Lines of a list, followed by a read error if broken.
+	 */
+	private static class Source implements LineSource {
+
+		private final Iterator<String> lines;
+		private final boolean broken;
+
+		Source(List<String> lines, boolean broken) {
+			this.lines = lines.iterator();
+			this.broken = broken;
+		}
+
+		@Override
+		public CharSequence readLine() throws IOException {
+			if (lines.hasNext()) return lines.next();
+			if (broken) throw new IOException("broken");
+			return null;
+		}
+
+		@Override
+		public long bytesRead() {
+			return 0;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package org.uichuimi.mitab.io.compress;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+public class BgzfOutputStreamTest {
+
+	@Test
+	public void gzipCompatible() throws IOException {
+		final byte[] data = random(300_000);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BgzfOutputStream out = new BgzfOutputStream(bytes)) {
+			out.write(data, 0, 1000);
+			out.flush();
+			out.write(data, 1000, data.length - 1000);
+		}
+		Assert.assertArrayEquals(data, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		final byte[] compressed = bytes.toByteArray();
+		final byte[] eof = new byte[BgzfOutputStream.EOF.length];
+		System.arraycopy(compressed, compressed.length - eof.length, eof, 0, eof.length);
+		Assert.assertArrayEquals(BgzfOutputStream.EOF, eof);
+	}
+
+	@Test
+	public void seek() throws IOException {
+		final File file = File.createTempFile("bgzf-test", ".gz");
+		file.deleteOnExit();
+		final List<Long> offsets = new ArrayList<>();
+		try (BgzfOutputStream out = new BgzfOutputStream(new FileOutputStream(file))) {
+			for (int i = 0; i < 20_000; i++) {
+				offsets.add(out.getVirtualOffset());
+				out.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		try (BgzfInputStream in = new BgzfInputStream(file)) {
+			for (int i : new int[]{19_999, 0, 12_345, 12_346, 7}) {
+				in.seek(offsets.get(i));
+				Assert.assertEquals(offsets.get(i).longValue(), in.getVirtualOffset());
+				Assert.assertEquals("line " + i, readLine(in));
+			}
+			// reads across blocks until the end, skipping the end of file marker
+			in.seek(offsets.get(0));
+			Assert.assertEquals(offsets.size(), new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8).split("\n").length);
+			Assert.assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void uncompressible() throws IOException {
+		final byte[] data = new byte[200_000];
+		new Random(1).nextBytes(data);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BgzfOutputStream out = new BgzfOutputStream(bytes)) {
+			out.write(data);
+		}
+		Assert.assertArrayEquals(data, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		final StringBuilder builder = new StringBuilder();
+		int c;
+		while ((c = in.read()) != '\n') builder.append((char) c);
+		return builder.toString();
+	}
+
+	private static byte[] random(int length) {
+		final Random random = new Random(42);
+		final StringBuilder builder = new StringBuilder(length);
+		while (builder.length() < length) builder.append("uniprotkb:P").append(random.nextInt(100_000)).append('\t');
+		return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+	}
+}
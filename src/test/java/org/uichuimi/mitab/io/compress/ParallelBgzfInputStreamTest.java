@@ -0,0 +1,48 @@
+package org.uichuimi.mitab.io.compress;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ParallelBgzfInputStreamTest {
+
+	@Test
+	public void blocks() throws IOException {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 100_000; i++) builder.append("uniprotkb:P").append(i).append('\n');
+		final byte[] data = builder.toString().getBytes(StandardCharsets.UTF_8);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BgzfOutputStream out = new BgzfOutputStream(bytes)) {
+			out.write(data, 0, 100);
+			// empty blocks are skipped
+			out.flush();
+			out.flush();
+			out.write(data, 100, data.length - 100);
+		}
+		for (int threads : new int[]{1, 3}) {
+			try (InputStream in = new ParallelBgzfInputStream(new ByteArrayInputStream(bytes.toByteArray()), threads)) {
+				Assert.assertArrayEquals(data, IOUtils.toByteArray(in));
+				Assert.assertEquals(-1, in.read());
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void truncated() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (BgzfOutputStream out = new BgzfOutputStream(bytes)) {
+			out.write(new byte[100_000]);
+		}
+		final byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 40);
+		try (InputStream in = new ParallelBgzfInputStream(new ByteArrayInputStream(truncated), 2)) {
+			IOUtils.toByteArray(in);
+		}
+	}
+}
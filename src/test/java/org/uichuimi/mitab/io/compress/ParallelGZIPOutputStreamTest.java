@@ -0,0 +1,83 @@
+package org.uichuimi.mitab.io.compress;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class ParallelGZIPOutputStreamTest {
+
+	@Test
+	public void empty() throws IOException {
+		Assert.assertArrayEquals(new byte[0], roundTrip(new byte[0], 4));
+	}
+
+	@Test
+	public void blocks() throws IOException {
+		// several blocks, last one partial
+		final byte[] data = text(10 * 32 * 1024 + 123);
+		Assert.assertArrayEquals(data, roundTrip(data, 4));
+		Assert.assertArrayEquals(data, roundTrip(data, 1));
+	}
+
+	@Test
+	public void flush() throws IOException {
+		final byte[] data = text(200_000);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ParallelGZIPOutputStream out = new ParallelGZIPOutputStream(bytes, 3, 32 * 1024, Deflater.DEFAULT_COMPRESSION)) {
+			out.write(data, 0, 1000);
+			out.flush();
+			out.write(data, 1000, 50_000);
+			out.flush();
+			for (int i = 51_000; i < data.length; i++) out.write(data[i]);
+		}
+		Assert.assertArrayEquals(data, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+	}
+
+	@Test
+	public void ratio() throws IOException {
+		// dictionaries keep the compression ratio close to a single deflate stream
+		final byte[] data = text(1 << 20);
+		final ByteArrayOutputStream single = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(single)) {
+			out.write(data);
+		}
+		final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+		try (ParallelGZIPOutputStream out = new ParallelGZIPOutputStream(parallel, 4)) {
+			out.write(data);
+		}
+		Assert.assertTrue(parallel.size() < single.size() * 1.02);
+	}
+
+	private static byte[] roundTrip(byte[] data, int threads) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ParallelGZIPOutputStream out = new ParallelGZIPOutputStream(bytes, threads, 32 * 1024, Deflater.DEFAULT_COMPRESSION)) {
+			out.write(data);
+		}
+		return IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+	/**
+	 * Compressible pseudo random text.
+	 */
+	private static byte[] text(int length) {
+		final String[] words = {"uniprotkb:P49418", "psi-mi:\"MI:0018\"(two hybrid)", "taxid:9606(human)", "intact:EBI-7121510", "|", "\t", "\n"};
+		final Random random = new Random(length);
+		final byte[] data = new byte[length];
+		int i = 0;
+		while (i < length) {
+			final byte[] word = words[random.nextInt(words.length)].getBytes();
+			final int copy = Math.min(word.length, length - i);
+			System.arraycopy(word, 0, data, i, copy);
+			i += copy;
+		}
+		return data;
+	}
+}
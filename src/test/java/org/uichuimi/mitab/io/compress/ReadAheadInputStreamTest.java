@@ -0,0 +1,61 @@
+package org.uichuimi.mitab.io.compress;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class ReadAheadInputStreamTest {
+
+	@Test
+	public void gzip() throws IOException {
+		final byte[] data = new byte[1_000_003];
+		new Random(7).nextBytes(data);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(data);
+		}
+		// small buffers, so the reader waits for the background thread
+		try (InputStream in = new ReadAheadInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())), 1000, 2)) {
+			Assert.assertEquals(data[0] & 0xff, in.read());
+			final byte[] rest = IOUtils.toByteArray(in);
+			Assert.assertEquals(data.length - 1, rest.length);
+			for (int i = 0; i < rest.length; i++) Assert.assertEquals(data[i + 1], rest[i]);
+			Assert.assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	public void empty() throws IOException {
+		try (InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]))) {
+			Assert.assertEquals(-1, in.read());
+			Assert.assertEquals(-1, in.read(new byte[10], 0, 10));
+		}
+	}
+
+	@Test
+	public void errors() throws IOException {
+		final InputStream failing = new InputStream() {
+			private int count;
+
+			@Override
+			public int read() throws IOException {
+				if (count++ == 5000) throw new IOException("broken");
+				return 1;
+			}
+		};
+		try (InputStream in = new ReadAheadInputStream(failing, 1000, 2)) {
+			IOUtils.toByteArray(in);
+			Assert.fail();
+		} catch (IOException e) {
+			Assert.assertEquals("broken", e.getMessage());
+		}
+	}
+}
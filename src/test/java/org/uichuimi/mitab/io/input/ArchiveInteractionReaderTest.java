@@ -0,0 +1,95 @@
+package org.uichuimi.mitab.io.input;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.ArchiveInteractionReader;
+import org.uichuimi.mitab.io.ErrorPolicy;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ArchiveInteractionReaderTest {
+
+	private static final String[] ENTRIES = {"BIOGRID-ORGANISM-Homo_sapiens.mitab.txt", "BIOGRID-ORGANISM-Mus_musculus.mitab.txt", "BIOGRID-ORGANISM-Danio_rerio.mitab.txt"};
+	private static final int[] LINES = {700, 3, 1000};
+
+	@Test
+	public void ordered() throws Exception {
+		try (ArchiveInteractionReader reader = new ArchiveInteractionReader(archive()).withThreads(3, true)) {
+			Assert.assertEquals(List.of(ENTRIES), reader.getEntries());
+			final List<Interaction> interactions = reader.readAll();
+			Assert.assertEquals(LINES[0] + LINES[1] + LINES[2], interactions.size());
+			int i = 0;
+			for (int entry = 0; entry < ENTRIES.length; entry++) {
+				for (int line = 0; line < LINES[entry]; line++, i++) {
+					final Interaction interaction = interactions.get(i);
+					Assert.assertEquals(ENTRIES[entry], interaction.getSource());
+					Assert.assertEquals("P" + line, interaction.getInteractorA().getPrimaryIdentifier().getIdentifier());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void orderedErrors() throws Exception {
+		// the invalid line is in the third batch of the first entry
+		try (ArchiveInteractionReader reader = new ArchiveInteractionReader(archive(600)).withThreads(3, true)) {
+			reader.readAll();
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("line 602: " + ENTRIES[0] + ": For column "));
+		}
+		try (ArchiveInteractionReader reader = new ArchiveInteractionReader(archive(600)).withThreads(3, true)
+				.withErrorPolicy(ErrorPolicy.SKIP, null)) {
+			final List<Interaction> interactions = reader.readAll();
+			Assert.assertEquals(LINES[0] + LINES[1] + LINES[2] - 1, interactions.size());
+			Assert.assertEquals("P599", interactions.get(599).getInteractorA().getPrimaryIdentifier().getIdentifier());
+			Assert.assertEquals("P601", interactions.get(600).getInteractorA().getPrimaryIdentifier().getIdentifier());
+			Assert.assertEquals(1, reader.getRejected());
+		}
+	}
+
+	@Test
+	public void unordered() throws Exception {
+		try (ArchiveInteractionReader reader = new ArchiveInteractionReader(archive()).withThreads(2, false)) {
+			final Map<String, Long> counts = reader.interactions()
+					.collect(Collectors.groupingBy(Interaction::getSource, Collectors.counting()));
+			for (int entry = 0; entry < ENTRIES.length; entry++)
+				Assert.assertEquals(LINES[entry], counts.get(ENTRIES[entry]).intValue());
+		}
+	}
+
+	private File archive() throws IOException {
+		return archive(-1);
+	}
+
+	/**
+	 * @param invalid line of the first entry with an invalid interactor A, or -1
+	 */
+	private File archive(int invalid) throws IOException {
+		final String[] lines = IOUtils.toString(getClass().getResourceAsStream("/input/test.mitab27"), StandardCharsets.UTF_8).split("\n");
+		final String rest = lines[1].substring(lines[1].indexOf('\t'));
+		final File file = File.createTempFile("mitab-archive-test", ".zip");
+		file.deleteOnExit();
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			out.putNextEntry(new ZipEntry("organisms/"));
+			for (int entry = 0; entry < ENTRIES.length; entry++) {
+				out.putNextEntry(new ZipEntry(ENTRIES[entry]));
+				final StringBuilder builder = new StringBuilder(lines[0]).append("\n");
+				for (int line = 0; line < LINES[entry]; line++)
+					builder.append("uniprotkb:P").append(line).append(entry == 0 && line == invalid ? "(unclosed" : "").append(rest).append("\n");
+				out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		return file;
+	}
+}
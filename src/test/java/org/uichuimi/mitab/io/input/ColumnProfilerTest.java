@@ -0,0 +1,67 @@
+package org.uichuimi.mitab.io.input;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.InteractionReader;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.List;
+
+public class ColumnProfilerTest {
+
+	@Test
+	public void profile() throws Exception {
+		final ColumnProfiler profiler = new ColumnProfiler(PsiInteractionParser.instance());
+		long chars = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27")))) {
+			reader.readLine();
+			long number = 1;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				profiler.accept(++number, line);
+				chars += line.length();
+			}
+		}
+		final List<Interaction> interactions = new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27")).readAll();
+		Assert.assertEquals(interactions.size(), profiler.getLines());
+		// every line has every column, and columns cover the whole line except the tabs
+		final int columns = PsiInteractionParser.instance().getNumberOfColumns();
+		long columnChars = 0;
+		for (int i = 0; i < columns; i++) {
+			final ColumnProfiler.ColumnProfile profile = profiler.getProfile(MitabColumn.values()[i]);
+			Assert.assertEquals(interactions.size(), profile.getLines());
+			columnChars += profile.getChars();
+		}
+		Assert.assertEquals(chars - (long) (columns - 1) * interactions.size(), columnChars);
+
+		final ColumnProfiler.ColumnProfile xrefs = profiler.getProfile(MitabColumn.XREF_A);
+		Assert.assertEquals(interactions.stream().mapToInt(interaction -> interaction.getInteractorA().getCrossReferences().size()).sum(), xrefs.getFields());
+		Assert.assertEquals(0, xrefs.getErrors());
+		Assert.assertEquals(ColumnProfiler.SLOWEST, xrefs.getSlowest().size());
+		final List<ColumnProfiler.SlowLine> slowest = xrefs.getSlowest();
+		Assert.assertTrue(slowest.get(0).getNanos() >= slowest.get(1).getNanos());
+		Assert.assertNull(profiler.getProfile(MitabColumn.values()[PsiInteractionParser.instance().getNumberOfColumns()]));
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		profiler.report(new PrintStream(out), 2);
+		final String report = out.toString();
+		Assert.assertTrue(report.startsWith(interactions.size() + " lines"));
+		Assert.assertTrue(report.contains("XREF_A "));
+		Assert.assertEquals(2, report.split("slowest lines of ").length - 1);
+	}
+
+	@Test
+	public void errors() {
+		final ColumnProfiler profiler = new ColumnProfiler(PsiInteractionParser.instance(PsiMitabVersion.TAB_25));
+		profiler.accept(2, "a:b\tc:d\t-\t-\t-\t-\tpsi-mi:x(y\t-\t-\t-\t-\t-\t-\t-\tscore:1");
+		Assert.assertEquals(1, profiler.getProfile(MitabColumn.DETECTION_METHOD).getErrors());
+		Assert.assertEquals(1, profiler.getProfile(MitabColumn.CONFIDENCE).getFields());
+		Assert.assertEquals(0, profiler.getProfile(MitabColumn.AUTHOR).getFields());
+	}
+}
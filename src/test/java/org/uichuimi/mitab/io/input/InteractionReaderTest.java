@@ -1,13 +1,27 @@
 package org.uichuimi.mitab.io.input;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.uichuimi.mitab.io.ErrorPolicy;
 import org.uichuimi.mitab.io.InteractionReader;
+import org.uichuimi.mitab.io.Quarantine;
 import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class InteractionReaderTest {
 
@@ -26,4 +40,203 @@ public class InteractionReaderTest {
 			Assert.fail(e.getMessage());
 		}
 	}
+
+	@Test
+	public void columns() throws Exception {
+		final InputStream resource = getClass().getResourceAsStream("/input/test.mitab27");
+		final List<Interaction> interactions = new InteractionReader(resource)
+				.withColumns(EnumSet.of(MitabColumn.ID_A, MitabColumn.IDENTIFIER))
+				.readAll();
+		final Interaction interaction = interactions.get(0);
+		Assert.assertNotNull(interaction.getInteractorA().getPrimaryIdentifier());
+		Assert.assertNull(interaction.getInteractorB().getPrimaryIdentifier());
+		Assert.assertEquals(2, interaction.getIdentifiers().size());
+		Assert.assertTrue(interaction.getInteractorA().getAlternativeIdentifiers().isEmpty());
+		Assert.assertTrue(interaction.getCreation().isEmpty());
+	}
+
+	@Test
+	public void parallel() throws Exception {
+		final byte[] content = repeatedSample(60);
+		final List<String> expected = identifiers(new InteractionReader(new ByteArrayInputStream(content)));
+		Assert.assertEquals(60 * 49, expected.size());
+		final List<String> actual = identifiers(new InteractionReader(new ByteArrayInputStream(content)).withThreads(4));
+		Assert.assertEquals(expected, actual);
+	}
+
+	@Test
+	public void parallelUnordered() throws Exception {
+		final byte[] content = repeatedSample(60);
+		final List<String> expected = identifiers(new InteractionReader(new ByteArrayInputStream(content)));
+		final List<String> actual = identifiers(new InteractionReader(new ByteArrayInputStream(content)).withThreads(4, false));
+		expected.sort(String::compareTo);
+		actual.sort(String::compareTo);
+		Assert.assertEquals(expected, actual);
+	}
+
+	@Test
+	public void parallelStreamFromFile() throws Exception {
+		final File file = File.createTempFile("mitab-io-test", ".mitab27");
+		file.deleteOnExit();
+		Files.write(file.toPath(), repeatedSample(60));
+		final List<String> expected = identifiers(new InteractionReader(file));
+		try (InteractionReader reader = new InteractionReader(file)) {
+			final Stream<Interaction> stream = reader.interactions(true);
+			Assert.assertTrue(stream.isParallel());
+			final List<String> actual = stream
+					.map(interaction -> interaction.getIdentifiers().get(0).getIdentifier())
+					.collect(Collectors.toList());
+			Assert.assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void utf8FromStreamAndFile() throws Exception {
+		final String[] columns = new String[15];
+		Arrays.fill(columns, "-");
+		columns[0] = "uniprotkb:P12345";
+		columns[1] = "uniprotkb:P67890";
+		columns[4] = "psi-mi:Zürich(gene name)";
+		final byte[] content = ("#header\n" + String.join("\t", columns) + "\n").getBytes(StandardCharsets.UTF_8);
+		final File file = File.createTempFile("mitab-io-test", ".mitab25");
+		file.deleteOnExit();
+		Files.write(file.toPath(), content);
+		try (InteractionReader stream = new InteractionReader(new ByteArrayInputStream(content));
+		     InteractionReader mapped = new InteractionReader(file)) {
+			Assert.assertEquals("Zürich", stream.next().getInteractorA().getAliases().get(0).getValue());
+			Assert.assertEquals("Zürich", mapped.next().getInteractorA().getAliases().get(0).getValue());
+		}
+	}
+
+	@Test
+	public void extraColumns() throws Exception {
+		final String[] columns = new String[MitabColumn.values().length + 1];
+		Arrays.fill(columns, "-");
+		columns[0] = "uniprotkb:P12345";
+		columns[1] = "uniprotkb:P67890";
+		columns[columns.length - 1] = "extra:column";
+		final String line = String.join("\t", columns);
+		final byte[] content = ("#header\n" + line + "\n" + line.substring(0, line.lastIndexOf('\t')) + "\n").getBytes(StandardCharsets.UTF_8);
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content))) {
+			reader.readAll();
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("line 2: For column "));
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("[extra:column]"));
+		}
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content)).withErrorPolicy(ErrorPolicy.SKIP)) {
+			Assert.assertEquals(1, reader.readAll().size());
+			Assert.assertEquals(1, reader.getRejected());
+		}
+		// columns after the last projected column are not read
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content)).withColumns(EnumSet.of(MitabColumn.ID_A))) {
+			Assert.assertEquals(2, reader.readAll().size());
+		}
+	}
+
+	@Test
+	public void skipInvalidLines() throws Exception {
+		final byte[] content = dirtySample(60);
+		final List<String> expected = validIdentifiers(content);
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content)).withErrorPolicy(ErrorPolicy.SKIP)) {
+			Assert.assertEquals(expected, identifiers(reader));
+			Assert.assertEquals(60 * 49 - expected.size(), reader.getRejected());
+		}
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content)).withThreads(4).withErrorPolicy(ErrorPolicy.SKIP)) {
+			Assert.assertEquals(expected, identifiers(reader));
+			Assert.assertEquals(60 * 49 - expected.size(), reader.getRejected());
+		}
+	}
+
+	@Test
+	public void quarantine() throws Exception {
+		final byte[] content = dirtySample(60);
+		final List<String> lines = Arrays.asList(new String(content, StandardCharsets.UTF_8).split("\n"));
+		for (int threads : new int[]{1, 4}) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (Quarantine quarantine = new Quarantine(out);
+			     InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content))
+					     .withThreads(threads).withErrorPolicy(ErrorPolicy.QUARANTINE, quarantine)) {
+				Assert.assertEquals(validIdentifiers(content), identifiers(reader));
+				Assert.assertEquals(reader.getRejected(), quarantine.getLines());
+			}
+			final String[] rejected = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+			Assert.assertEquals("#line\treason\tinteraction", rejected[0]);
+			for (int i = 1; i < rejected.length; i++) {
+				final String[] parts = rejected[i].split("\t", 3);
+				Assert.assertEquals(lines.get(Integer.parseInt(parts[0]) - 1), parts[2]);
+				Assert.assertEquals("For column Interaction detection method(s), unclosed description [psi-mi:\"MI:0018\"(two hybrid]", parts[1]);
+			}
+		}
+	}
+
+	@Test
+	public void quarantineUtf8() throws Exception {
+		final String[] lines = new String(dirtySample(1), StandardCharsets.UTF_8).split("\n");
+		final String line = lines[1].replace("(two hybrid", "(café");
+		final byte[] content = (lines[0] + "\n" + line + "\n").getBytes(StandardCharsets.UTF_8);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (Quarantine quarantine = new Quarantine(out);
+		     InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content))
+				     .withErrorPolicy(ErrorPolicy.QUARANTINE, quarantine)) {
+			Assert.assertTrue(reader.readAll().isEmpty());
+		}
+		final String[] rejected = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+		Assert.assertEquals(line, rejected[1].split("\t", 3)[2]);
+	}
+
+	@Test
+	public void failWithLineNumber() throws Exception {
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(dirtySample(1)))) {
+			reader.readAll();
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("line 2: For column Interaction detection method(s)"));
+		}
+	}
+
+	private static List<String> validIdentifiers(byte[] content) {
+		final List<String> identifiers = new ArrayList<>();
+		final String[] lines = new String(content, StandardCharsets.UTF_8).split("\n");
+		for (int i = 1; i < lines.length; i++)
+			if (!lines[i].contains("(two hybrid\t")) identifiers.add(lines[i].split("\t")[13].split("\\|")[0].split(":", 2)[1]);
+		return identifiers;
+	}
+
+	/**
+	 * Same as {@link InteractionReaderTest#repeatedSample(int)}, with an invalid detection method
+	 * in every 7th interaction.
+	 */
+	static byte[] dirtySample(int times) throws IOException {
+		final String[] lines = new String(repeatedSample(times), StandardCharsets.UTF_8).split("\n");
+		final StringBuilder builder = new StringBuilder(lines[0]).append("\n");
+		for (int i = 1; i < lines.length; i++) {
+			if (i % 7 == 1) {
+				final String[] columns = lines[i].split("\t", -1);
+				columns[MitabColumn.DETECTION_METHOD.ordinal()] = "psi-mi:\"MI:0018\"(two hybrid";
+				builder.append(String.join("\t", columns));
+			} else builder.append(lines[i]);
+			builder.append("\n");
+		}
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private List<String> identifiers(InteractionReader reader) throws Exception {
+		try (reader) {
+			return reader.interactions()
+					.map(interaction -> interaction.getIdentifiers().get(0).getIdentifier())
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Header of sample-interactions.mitab27 followed by its interactions repeated times times.
+	 */
+	static byte[] repeatedSample(int times) throws IOException {
+		final String sample = IOUtils.toString(InteractionReaderTest.class.getResourceAsStream("/input/sample-interactions.mitab27"), StandardCharsets.UTF_8);
+		final int headerEnd = sample.indexOf('\n') + 1;
+		final StringBuilder builder = new StringBuilder(sample.substring(0, headerEnd));
+		for (int i = 0; i < times; i++) builder.append(sample.substring(headerEnd));
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
 }
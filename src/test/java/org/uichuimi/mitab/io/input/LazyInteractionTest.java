@@ -0,0 +1,82 @@
+package org.uichuimi.mitab.io.input;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.model.ConfidenceScore;
+import org.uichuimi.mitab.io.model.Field;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+public class LazyInteractionTest {
+
+	private final PsiInteractionParser parser = PsiInteractionParser.instance();
+	private final PsiInteractionParser lazy = PsiInteractionParser.instance().lazy();
+
+	@Test
+	public void getters() throws IOException {
+		for (String line : lines()) {
+			final Interaction expected = parser.toInteraction(line);
+			final Interaction actual = lazy.toInteraction(line);
+			Assert.assertTrue(actual instanceof LazyInteraction);
+			Assert.assertEquals(expected.getConfidenceScores().toString(), actual.getConfidenceScores().toString());
+			Assert.assertEquals(expected.getInteractorB().getAliases().toString(), actual.getInteractorB().getAliases().toString());
+			Assert.assertEquals(expected.getInteractorA().getPrimaryIdentifier().toString(), actual.getInteractorA().getPrimaryIdentifier().toString());
+			Assert.assertEquals(expected.getCreation().toString(), actual.getCreation().toString());
+			Assert.assertEquals(expected.getTypes().toString(), actual.getTypes().toString());
+			Assert.assertEquals(expected.getInteractorA().getFeatures().toString(), actual.getInteractorA().getFeatures().toString());
+			// parsed columns are serialized again
+			Assert.assertEquals(parser.toString(expected), lazy.toString(actual));
+		}
+	}
+
+	@Test
+	public void untouchedColumnsAreCopied() throws IOException {
+		for (String line : lines()) Assert.assertEquals(line, lazy.toString(lazy.toInteraction(line)));
+	}
+
+	@Test
+	public void setters() throws IOException {
+		final String line = lines().get(0);
+		final Interaction interaction = lazy.toInteraction(line);
+		interaction.setConfidenceScores(Collections.singletonList(new ConfidenceScore(new Field("intact-miscore", "0.9", null))));
+		final String[] expected = line.split("\t");
+		expected[14] = "intact-miscore:0.9";
+		Assert.assertEquals(String.join("\t", expected), lazy.toString(interaction));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void errorsOnAccess() throws IOException {
+		final String[] columns = lines().get(0).split("\t");
+		columns[14] = "intact-miscore:0.9(unclosed";
+		final Interaction interaction = lazy.toInteraction(String.join("\t", columns));
+		Assert.assertNotNull(interaction.getInteractorA().getPrimaryIdentifier());
+		interaction.getConfidenceScores();
+	}
+
+	@Test
+	public void errorsOnEveryAccess() throws IOException {
+		final String[] columns = lines().get(0).split("\t");
+		columns[14] = "intact-miscore:0.9(unclosed";
+		final String line = String.join("\t", columns);
+		final Interaction interaction = lazy.toInteraction(line);
+		for (int i = 0; i < 2; i++) {
+			try {
+				interaction.getConfidenceScores();
+				Assert.fail();
+			} catch (IllegalArgumentException ignored) {
+			}
+		}
+		// the invalid column is not lost
+		Assert.assertEquals(line, lazy.toString(interaction));
+	}
+
+	private List<String> lines() throws IOException {
+		final List<String> lines = IOUtils.readLines(getClass().getResourceAsStream("/input/sample-interactions.mitab27"), StandardCharsets.UTF_8);
+		return lines.subList(1, lines.size());
+	}
+}
@@ -0,0 +1,139 @@
+package org.uichuimi.mitab.io.input;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.InteractionReader;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.MitabColumn;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class LineFilterTest {
+
+	private static String line(MitabColumn column, String value) {
+		final String[] columns = new String[15];
+		Arrays.fill(columns, "-");
+		columns[column.ordinal()] = value;
+		return String.join("\t", columns);
+	}
+
+	@Test
+	public void equals() {
+		final String line = line(MitabColumn.TAXID_A, "taxid:9606(human)|taxid:-2(\"Chemical synthesis (Chemical synthesis)\")");
+		Assert.assertTrue(LineFilter.equals(MitabColumn.TAXID_A, "9606").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.TAXID_A, "human").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.TAXID_A, "taxid:9606").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.TAXID_A, "Chemical synthesis (Chemical synthesis)").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.TAXID_A, "10090", "-2").test(line));
+		Assert.assertFalse(LineFilter.equals(MitabColumn.TAXID_A, "960").test(line));
+		Assert.assertFalse(LineFilter.equals(MitabColumn.TAXID_A, "taxid").test(line));
+		Assert.assertFalse(LineFilter.equals(MitabColumn.TAXID_B, "9606").test(line));
+		Assert.assertFalse(LineFilter.equals(MitabColumn.CONFIDENCE, "9606").test("a:b\tc:d"));
+	}
+
+	@Test
+	public void quotes() {
+		// the tab and the pipe inside quotes do not separate columns nor fields
+		final String line = line(MitabColumn.ALIAS_A, "psi-mi:\"a\tb|c\"(x)") + "\t" + "psi-mi:\"MI:0018\"(two hybrid)";
+		Assert.assertTrue(LineFilter.equals(MitabColumn.ALIAS_A, "a\tb|c").test(line));
+		Assert.assertFalse(LineFilter.equals(MitabColumn.ALIAS_B, "b").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.values()[15], "MI:0018").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.values()[15], "psi-mi:MI:0018").test(line));
+	}
+
+	@Test
+	public void contains() {
+		final String line = line(MitabColumn.TYPE, "psi-mi:\"MI:0915\"(physical association)");
+		Assert.assertTrue(LineFilter.contains(MitabColumn.TYPE, "physical").test(line));
+		Assert.assertTrue(LineFilter.contains(MitabColumn.TYPE, "\"MI:0915\"").test(line));
+		Assert.assertFalse(LineFilter.contains(MitabColumn.TYPE, "direct").test(line));
+		Assert.assertFalse(LineFilter.contains(MitabColumn.DATABASE, "physical").test(line));
+	}
+
+	@Test
+	public void parse() {
+		final String line = line(MitabColumn.DETECTION_METHOD, "psi-mi:\"MI:0018\"(two hybrid)");
+		Assert.assertTrue(LineFilter.parse("detection_method=MI:0084|MI:0018").test(line));
+		Assert.assertTrue(LineFilter.parse("Detection-Method~hybrid").test(line));
+		Assert.assertFalse(LineFilter.parse("detection_method=MI:0084").test(line));
+		Assert.assertFalse(LineFilter.parse("detection_method~hybrid").and(LineFilter.parse("id_a=x")).test(line));
+		Assert.assertEquals(EnumSet.of(MitabColumn.DETECTION_METHOD, MitabColumn.ID_A),
+				LineFilter.parse("id_a=x").and(LineFilter.parse("detection_method~y")).getColumns());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownColumn() {
+		LineFilter.parse("organism=9606");
+	}
+
+	@Test
+	public void reader() throws Exception {
+		final byte[] content = InteractionReaderTest.repeatedSample(20);
+		final LineFilter filter = LineFilter.parse("detection_method=MI:0084").and(LineFilter.parse("taxid_b~9606"));
+		final Predicate<Interaction> predicate = interaction ->
+				interaction.getDetectionMethods().get(0).getIdentifier().equals("MI:0084")
+						&& interaction.getInteractorB().getOrganisms().stream().anyMatch(organism -> organism.taxId() == 9606);
+		final List<String> expected;
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content))) {
+			expected = identifiers(reader.interactions().filter(predicate).collect(Collectors.toList()));
+		}
+		Assert.assertFalse(expected.isEmpty());
+		for (int threads : new int[]{1, 4})
+			try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(content)).withThreads(threads).withFilter(filter)) {
+				Assert.assertEquals(expected, identifiers(reader.readAll()));
+			}
+		// mapped file, with lines of undecoded bytes, and parallel streams
+		final File file = File.createTempFile("mitab-io-test", ".mitab27");
+		file.deleteOnExit();
+		Files.write(file.toPath(), content);
+		try (InteractionReader reader = new InteractionReader(file).withFilter(filter)) {
+			Assert.assertEquals(expected, identifiers(reader.readAll()));
+		}
+		try (InteractionReader reader = new InteractionReader(file).withFilter(filter)) {
+			Assert.assertEquals(expected, identifiers(reader.interactions(true).collect(Collectors.toList())));
+		}
+	}
+
+	@Test
+	public void utf8() throws Exception {
+		final String content = "#header\n" + line(MitabColumn.ALIAS_A, "uniprotkb:Zürich(gene name)") + "\n" + line(MitabColumn.ALIAS_A, "uniprotkb:Zurich(gene name)") + "\n";
+		final File file = File.createTempFile("mitab-io-test", ".mitab25");
+		file.deleteOnExit();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		try (InteractionReader reader = new InteractionReader(file).withFilter(LineFilter.equals(MitabColumn.ALIAS_A, "Zürich"))) {
+			final List<Interaction> interactions = reader.readAll();
+			Assert.assertEquals(1, interactions.size());
+		}
+	}
+
+	@Test
+	public void decodedLinesDoNotMatchByteValues() {
+		// Ã¼ is ü encoded in UTF-8 and read as Latin-1, but in a decoded line it is just Ã¼
+		final String line = line(MitabColumn.ALIAS_A, "uniprotkb:Z\u00c3\u00bcrich(gene name)");
+		Assert.assertFalse(LineFilter.equals(MitabColumn.ALIAS_A, "Zürich").test(line));
+		Assert.assertFalse(LineFilter.contains(MitabColumn.ALIAS_A, "ü").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.ALIAS_A, "Z\u00c3\u00bcrich").test(line));
+	}
+
+	@Test
+	public void escapedQuotes() {
+		final String line = line(MitabColumn.ALIAS_A, "psi-mi:\"5\\\"-nucleotidase\"(gene name)|\"a:b\":c");
+		Assert.assertTrue(LineFilter.equals(MitabColumn.ALIAS_A, "5\"-nucleotidase").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.ALIAS_A, "psi-mi:5\"-nucleotidase").test(line));
+		Assert.assertTrue(LineFilter.contains(MitabColumn.ALIAS_A, "5\"-nuc").test(line));
+		Assert.assertFalse(LineFilter.equals(MitabColumn.ALIAS_A, "5\\\"-nucleotidase").test(line));
+		Assert.assertTrue(LineFilter.equals(MitabColumn.ALIAS_A, "a:b:c").test(line));
+	}
+
+	private static List<String> identifiers(List<Interaction> interactions) {
+		return interactions.stream().map(interaction -> interaction.getIdentifiers().get(0).getIdentifier()).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,72 @@
+package org.uichuimi.mitab.io.input;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.model.Field;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class LineTokenizerTest {
+
+	@Test
+	public void columns() {
+		final LineTokenizer tokenizer = new LineTokenizer("a:b\t-\t\tc:d|e:f");
+		Assert.assertTrue(tokenizer.nextColumn());
+		Assert.assertEquals("a:b", tokenizer.column());
+		Assert.assertTrue(tokenizer.nextColumn());
+		Assert.assertTrue(tokenizer.isEmpty());
+		Assert.assertTrue(tokenizer.fields(Function.identity()).isEmpty());
+		Assert.assertTrue(tokenizer.nextColumn());
+		Assert.assertTrue(tokenizer.isEmpty());
+		Assert.assertTrue(tokenizer.nextColumn());
+		final List<Field> fields = tokenizer.fields(Function.identity());
+		Assert.assertEquals(2, fields.size());
+		Assert.assertEquals("f", fields.get(1).getValue());
+		Assert.assertFalse(tokenizer.nextColumn());
+	}
+
+	@Test
+	public void cachedFields() {
+		final FieldCache<Field> cache = new FieldCache<>(16);
+		final LineTokenizer tokenizer = new LineTokenizer("taxid:9606(human)|taxid:10090(mouse)\ttaxid:9606(human)");
+		Assert.assertTrue(tokenizer.nextColumn());
+		final List<Field> first = tokenizer.fields(Function.identity(), cache);
+		Assert.assertTrue(tokenizer.nextColumn());
+		final List<Field> second = tokenizer.fields(Function.identity(), cache);
+		Assert.assertSame(first.get(0), second.get(0));
+		Assert.assertEquals("9606", second.get(0).getValue());
+		Assert.assertEquals("human", second.get(0).getDescription());
+	}
+
+	@Test
+	public void quotedSeparators() {
+		final LineTokenizer tokenizer = new LineTokenizer("a:\"b\tc|d\"(e)|f\tg");
+		Assert.assertTrue(tokenizer.nextColumn());
+		final List<Field> fields = tokenizer.fields(Function.identity());
+		Assert.assertEquals(2, fields.size());
+		Assert.assertEquals("b\tc|d", fields.get(0).getValue());
+		Assert.assertEquals("e", fields.get(0).getDescription());
+		Assert.assertEquals("f", fields.get(1).getXref());
+		Assert.assertTrue(tokenizer.nextColumn());
+		Assert.assertEquals("g", tokenizer.column());
+	}
+
+	@Test
+	public void escapedQuotes() {
+		final LineTokenizer tokenizer = new LineTokenizer("a:b(\"c \\\"|\\\" d\")|e\tf");
+		Assert.assertTrue(tokenizer.nextColumn());
+		final List<Field> fields = tokenizer.fields(Function.identity());
+		Assert.assertEquals(2, fields.size());
+		Assert.assertEquals("c \\\"|\\\" d", fields.get(0).getDescription());
+		Assert.assertTrue(tokenizer.nextColumn());
+		Assert.assertEquals("f", tokenizer.column());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unclosedDescription() {
+		final LineTokenizer tokenizer = new LineTokenizer("a:b(c");
+		tokenizer.nextColumn();
+		tokenizer.fields(Function.identity());
+	}
+}
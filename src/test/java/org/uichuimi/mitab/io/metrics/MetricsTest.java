@@ -0,0 +1,178 @@
+package org.uichuimi.mitab.io.metrics;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.ArchiveInteractionReader;
+import org.uichuimi.mitab.io.InteractionReader;
+import org.uichuimi.mitab.io.consumer.Stats;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class MetricsTest {
+
+	@Test
+	public void prometheus() throws Exception {
+		final Metrics metrics = new Metrics();
+		metrics.counter("bytes_total", "bytes").add(42);
+		metrics.gauge("depth", "depth", () -> 3, "queue", "a\"b");
+		final Histogram histogram = metrics.histogram("latency_seconds", "latency", "stage", "parse");
+		histogram.record(1500);
+		histogram.record(3_000_000);
+		histogram.record(20_000_000_000L);
+		Assert.assertSame(histogram, metrics.histogram("latency_seconds", "latency", "stage", "parse"));
+
+		final StringBuilder builder = new StringBuilder();
+		metrics.write(builder);
+		final String text = builder.toString();
+		Assert.assertTrue(text.contains("# TYPE bytes_total counter\nbytes_total 42\n"));
+		Assert.assertTrue(text.contains("depth{queue=\"a\\\"b\"} 3.0\n"));
+		Assert.assertTrue(text.contains("# TYPE latency_seconds histogram\n"));
+		Assert.assertTrue(text.contains("latency_seconds_bucket{stage=\"parse\",le=\"0.000001\"} 0\n"));
+		Assert.assertTrue(text.contains("latency_seconds_bucket{stage=\"parse\",le=\"0.000002\"} 1\n"));
+		Assert.assertTrue(text.contains("latency_seconds_bucket{stage=\"parse\",le=\"0.005\"} 2\n"));
+		Assert.assertTrue(text.contains("latency_seconds_bucket{stage=\"parse\",le=\"10\"} 2\n"));
+		Assert.assertTrue(text.contains("latency_seconds_bucket{stage=\"parse\",le=\"+Inf\"} 3\n"));
+		Assert.assertTrue(text.contains("latency_seconds_sum{stage=\"parse\"} 20.0030015\n"));
+		Assert.assertTrue(text.contains("latency_seconds_count{stage=\"parse\"} 3\n"));
+
+		Assert.assertEquals(2000, histogram.quantile(0.3));
+		Assert.assertEquals(5_000_000, histogram.quantile(0.6));
+		Assert.assertEquals(Long.MAX_VALUE, histogram.quantile(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void typeMismatch() {
+		final Metrics metrics = new Metrics();
+		metrics.counter("a", "a");
+		metrics.histogram("a", "a");
+	}
+
+	@Test
+	public void pipeline() throws Exception {
+		final Metrics metrics = new Metrics();
+		final Counter bytes = metrics.counter("bytes_total", "bytes");
+		final Stats stats = new Stats(new PrintStream(new ByteArrayOutputStream()));
+		final TimedAcceptor<Interaction> acceptor = new TimedAcceptor<>(stats, metrics.histogram("acceptor_seconds", "time", "acceptor", "Stats"));
+		final CountingInputStream in = new CountingInputStream(getClass().getResourceAsStream("/input/sample-interactions.mitab27"), bytes);
+		try (InteractionReader reader = new InteractionReader(in).withMetrics(metrics)) {
+			reader.forEach(acceptor);
+		}
+		Assert.assertEquals(new File(getClass().getResource("/input/sample-interactions.mitab27").toURI()).length(), bytes.get());
+		Assert.assertEquals(49, metrics.histogram("mitab_parse_seconds", "").count());
+		Assert.assertEquals(49, metrics.histogram("acceptor_seconds", "", "acceptor", "Stats").count());
+	}
+
+	@Test
+	public void bytesRead() throws Exception {
+		final File file = new File(getClass().getResource("/input/sample-interactions.mitab27").toURI());
+		final byte[] content = Files.readAllBytes(file.toPath());
+		try (InteractionReader reader = new InteractionReader(file)) {
+			reader.readAll();
+			Assert.assertEquals(content.length, reader.getBytesRead());
+		}
+		try (InteractionReader reader = new InteractionReader(new FileInputStream(file)).withThreads(2)) {
+			reader.readAll();
+			Assert.assertEquals(content.length, reader.getBytesRead());
+		}
+		final File gz = File.createTempFile("mitab-metrics", ".mitab27.gz");
+		gz.deleteOnExit();
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gz))) {
+			out.write(content);
+		}
+		try (InteractionReader reader = new InteractionReader(gz)) {
+			reader.readAll();
+			Assert.assertEquals(content.length, reader.getBytesRead());
+		}
+		final File zip = File.createTempFile("mitab-metrics", ".zip");
+		zip.deleteOnExit();
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+			for (String entry : new String[]{"a.mitab27", "b.mitab27"}) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.write(content);
+			}
+		}
+		try (ArchiveInteractionReader reader = new ArchiveInteractionReader(zip)) {
+			reader.readAll();
+			Assert.assertEquals(2L * content.length, reader.getBytesRead());
+		}
+
+		final Metrics metrics = new Metrics();
+		metrics.counter("mitab_input_bytes_total", "bytes", () -> content.length);
+		final StringBuilder builder = new StringBuilder();
+		metrics.write(builder);
+		Assert.assertTrue(builder.toString().contains("# TYPE mitab_input_bytes_total counter\nmitab_input_bytes_total " + content.length + "\n"));
+	}
+
+	@Test
+	public void parallelPipeline() throws Exception {
+		final Metrics metrics = new Metrics();
+		try (InteractionReader reader = new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27"))
+				.withThreads(2).withMetrics(metrics)) {
+			Assert.assertEquals(49, reader.readAll().size());
+		}
+		Assert.assertEquals(49, metrics.histogram("mitab_parse_seconds", "").count());
+		final StringBuilder builder = new StringBuilder();
+		metrics.write(builder);
+		Assert.assertTrue(builder.toString().contains("mitab_parser_batches "));
+	}
+
+	@Test
+	public void jmx() throws Exception {
+		final Metrics metrics = new Metrics();
+		metrics.counter("lines_total", "lines").add(7);
+		metrics.histogram("parse_seconds", "parse").record(1000);
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(MetricsMBean.OBJECT_NAME);
+		try (AutoCloseable ignored = metrics.registerMBean()) {
+			Assert.assertEquals(7.0, server.getAttribute(name, "lines_total"));
+			Assert.assertEquals(1.0, server.getAttribute(name, "parse_seconds_count"));
+			Assert.assertEquals(1e-6, (Double) server.getAttribute(name, "parse_seconds_p99"), 1e-12);
+		}
+		Assert.assertFalse(server.isRegistered(name));
+	}
+
+	@Test
+	public void dump() throws Exception {
+		final Metrics metrics = new Metrics();
+		final Counter counter = metrics.counter("lines_total", "lines");
+		final File file = new File(Files.createTempDirectory("metrics").toFile(), "metrics.prom");
+		try (AutoCloseable ignored = metrics.dump(file, 60)) {
+			counter.add(5);
+		}
+		Assert.assertTrue(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).contains("lines_total 5\n"));
+	}
+
+	@Test
+	public void serve() throws Exception {
+		final int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		final Metrics metrics = new Metrics();
+		metrics.counter("lines_total", "lines").add(3);
+		try (AutoCloseable ignored = metrics.serve(port)) {
+			final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/metrics").openConnection();
+			Assert.assertEquals(200, connection.getResponseCode());
+			Assert.assertEquals(MetricsServer.CONTENT_TYPE, connection.getContentType());
+			Assert.assertTrue(IOUtils.toString(connection.getInputStream(), StandardCharsets.UTF_8).contains("lines_total 3\n"));
+		}
+	}
+}
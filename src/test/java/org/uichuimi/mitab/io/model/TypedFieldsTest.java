@@ -0,0 +1,86 @@
+package org.uichuimi.mitab.io.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.input.PsiInteractionParser;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class TypedFieldsTest {
+
+	@Test
+	public void confidenceScores() {
+		final ConfidenceScore score = new ConfidenceScore("intact-miscore", "0.56");
+		Assert.assertTrue(score.isNumeric());
+		Assert.assertEquals(0.56, score.asDouble(), 0);
+		Assert.assertEquals(1e-3, new ConfidenceScore("score", "1e-3").asDouble(), 0);
+		final ConfidenceScore words = new ConfidenceScore("author score", "High");
+		Assert.assertFalse(words.isNumeric());
+		Assert.assertTrue(Double.isNaN(words.asDouble()));
+		Assert.assertFalse(new ConfidenceScore("score", "0.5.1").isNumeric());
+		Assert.assertFalse(new ConfidenceScore("score", null).isNumeric());
+		Assert.assertTrue(new ConfidenceScore("score", "NaN").isNumeric());
+	}
+
+	@Test
+	public void taxIds() {
+		Assert.assertEquals(9606, new Organism("taxid", "9606", "human").taxId());
+		Assert.assertEquals(-1, new Organism("-1").taxId());
+		Assert.assertEquals(Organism.UNKNOWN_TAX_ID, new Organism("human").taxId());
+		Assert.assertEquals(Organism.UNKNOWN_TAX_ID, new Organism("99999999999").taxId());
+	}
+
+	@Test
+	public void dates() {
+		final Date date = new Date("2001/01/10");
+		Assert.assertEquals(LocalDate.of(2001, 1, 10).toEpochDay(), date.toEpochDay());
+		Assert.assertEquals(LocalDate.of(2001, 1, 10), date.toLocalDate());
+		Assert.assertEquals(Date.UNKNOWN, new Date("2001/02/30").toEpochDay());
+		Assert.assertEquals(Date.UNKNOWN, new Date("2001-01-10").toEpochDay());
+		Assert.assertNull(new Date("-").toLocalDate());
+	}
+
+	@Test
+	public void stoichiometries() {
+		Assert.assertEquals(2, new Stoichiometry("2").asInt());
+		Assert.assertEquals(Stoichiometry.UNKNOWN, new Stoichiometry("-2").asInt());
+		Assert.assertEquals(Stoichiometry.UNKNOWN, new Stoichiometry("1.5").asInt());
+	}
+
+	@Test
+	public void featureRanges() {
+		final List<FeatureRange> ranges = new Feature("binding site", "10-15,20..22->30", null).getRanges();
+		Assert.assertEquals(2, ranges.size());
+		Assert.assertEquals(10, ranges.get(0).getStart());
+		Assert.assertEquals(15, ranges.get(0).getEnd());
+		Assert.assertTrue(ranges.get(0).isExact());
+		Assert.assertEquals(6, ranges.get(0).length());
+		Assert.assertEquals(20, ranges.get(1).getStart());
+		Assert.assertEquals(30, ranges.get(1).getEnd());
+		Assert.assertFalse(ranges.get(1).isExact());
+		final FeatureRange unknown = new Feature("mutation", "?-?", null).getRanges().get(0);
+		Assert.assertEquals(FeatureRange.UNDEFINED, unknown.getStart());
+		Assert.assertEquals(FeatureRange.UNDEFINED, unknown.length());
+		Assert.assertEquals(FeatureRange.UNDEFINED, new Feature("region", "n-c", null).getRanges().get(0).getEnd());
+		Assert.assertTrue(new Feature("tag", null, null).getRanges().isEmpty());
+	}
+
+	@Test
+	public void parsedInteraction() {
+		final String[] columns = new String[42];
+		Arrays.fill(columns, "-");
+		columns[MitabColumn.TAXID_A.ordinal()] = "taxid:9606(human)|taxid:9606(Homo sapiens)";
+		columns[MitabColumn.CONFIDENCE.ordinal()] = "intact-miscore:0.75";
+		columns[MitabColumn.CREATION.ordinal()] = "2008/03/30";
+		columns[MitabColumn.FEATURE_A.ordinal()] = "binding site:5-8(\"a site\")";
+		columns[MitabColumn.STOICHIOMETRY_A.ordinal()] = "3";
+		final Interaction interaction = PsiInteractionParser.instance().toInteraction(String.join("\t", columns));
+		Assert.assertEquals(9606, interaction.getInteractorA().getOrganisms().get(1).taxId());
+		Assert.assertEquals(0.75, interaction.getConfidenceScores().get(0).asDouble(), 0);
+		Assert.assertEquals(LocalDate.of(2008, 3, 30), interaction.getCreation().get(0).toLocalDate());
+		Assert.assertEquals(5, interaction.getInteractorA().getFeatures().get(0).getRanges().get(0).getStart());
+		Assert.assertEquals(3, interaction.getInteractorA().getStoichiometries().get(0).asInt());
+	}
+}
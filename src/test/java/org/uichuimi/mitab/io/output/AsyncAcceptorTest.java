@@ -0,0 +1,72 @@
+package org.uichuimi.mitab.io.output;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.consumer.Acceptor;
+import org.uichuimi.mitab.io.consumer.AsyncAcceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AsyncAcceptorTest {
+
+	@Test
+	public void order() {
+		final Recorder recorder = new Recorder(-1);
+		final AsyncAcceptor<Integer> acceptor = new AsyncAcceptor<>(recorder, 10, 3);
+		acceptor.start();
+		for (int i = 0; i < 1005; i++) acceptor.accept(i);
+		acceptor.close();
+		Assert.assertTrue(recorder.started);
+		Assert.assertTrue(recorder.closed);
+		Assert.assertEquals(1005, recorder.elements.size());
+		for (int i = 0; i < 1005; i++) Assert.assertEquals(i, (int) recorder.elements.get(i));
+		Assert.assertNotEquals(Thread.currentThread(), recorder.thread);
+	}
+
+	@Test
+	public void error() {
+		final Recorder recorder = new Recorder(55);
+		final AsyncAcceptor<Integer> acceptor = new AsyncAcceptor<>(recorder, 10, 2);
+		acceptor.start();
+		try {
+			// the caller does not block even if the acceptor has stopped
+			for (int i = 0; i < 1000; i++) acceptor.accept(i);
+			acceptor.close();
+			Assert.fail("error not thrown");
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals("55", e.getMessage());
+		}
+		Assert.assertEquals(55, recorder.elements.size());
+		Assert.assertFalse(recorder.closed);
+	}
+
+	private static class Recorder implements Acceptor<Integer> {
+		private final List<Integer> elements = new ArrayList<>();
+		private final int fail;
+		private boolean started;
+		private boolean closed;
+		private Thread thread;
+
+		Recorder(int fail) {
+			this.fail = fail;
+		}
+
+		@Override
+		public void start() {
+			started = true;
+		}
+
+		@Override
+		public void accept(Integer element) {
+			if (element == fail) throw new IllegalArgumentException(String.valueOf(element));
+			thread = Thread.currentThread();
+			elements.add(element);
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package org.uichuimi.mitab.io.output;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.InteractionReader;
+import org.uichuimi.mitab.io.InteractionWriter;
+import org.uichuimi.mitab.io.consumer.Acceptor;
+import org.uichuimi.mitab.io.consumer.InteractionClusterer;
+import org.uichuimi.mitab.io.model.DetectionMethod;
+import org.uichuimi.mitab.io.model.Interaction;
+import org.uichuimi.mitab.io.model.Publication;
+import org.uichuimi.mitab.io.model.PsiMitabVersion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class InteractionClustererTest {
+
+	@Test
+	public void cluster() throws Exception {
+		final List<Interaction> interactions = new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27")).readAll();
+		final Map<Set<String>, Set<String>> expected = new LinkedHashMap<>();
+		for (Interaction interaction : interactions) {
+			final Set<String> publications = expected.computeIfAbsent(pair(interaction), p -> new LinkedHashSet<>());
+			for (Publication publication : interaction.getPublications()) publications.add(publication.getIdentifier());
+		}
+
+		final List<Interaction> clusters = new ArrayList<>();
+		final InteractionClusterer clusterer = new InteractionClusterer(new Collector(clusters));
+		clusterer.start();
+		interactions.forEach(clusterer);
+		clusterer.close();
+
+		Assert.assertEquals(expected.size(), clusters.size());
+		Assert.assertEquals(expected.size(), clusterer.getClusters());
+		Assert.assertEquals(0, clusterer.getSkipped());
+		for (Interaction cluster : clusters) {
+			final List<String> publications = cluster.getPublications().stream()
+					.map(Publication::getIdentifier).collect(Collectors.toList());
+			Assert.assertEquals(new ArrayList<>(expected.get(pair(cluster))), publications);
+		}
+	}
+
+	@Test
+	public void reversedPairs() throws Exception {
+		final List<Interaction> interactions = new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27")).readAll();
+		final Interaction first = interactions.get(0);
+		final Interaction reversed = interactions.get(1);
+		reversed.setInteractorA(interactions.get(0).getInteractorB());
+		reversed.setInteractorB(interactions.get(0).getInteractorA());
+
+		final List<Interaction> clusters = new ArrayList<>();
+		final InteractionClusterer clusterer = new InteractionClusterer(new Collector(clusters));
+		clusterer.start();
+		clusterer.accept(first);
+		clusterer.accept(reversed);
+		clusterer.close();
+
+		Assert.assertEquals(1, clusters.size());
+		final Interaction cluster = clusters.get(0);
+		Assert.assertSame(first.getInteractorA().getPrimaryIdentifier(), cluster.getInteractorA().getPrimaryIdentifier());
+		Assert.assertSame(first.getInteractorB().getPrimaryIdentifier(), cluster.getInteractorB().getPrimaryIdentifier());
+		final Set<String> methods = new LinkedHashSet<>();
+		first.getDetectionMethods().forEach(method -> methods.add(method.getIdentifier()));
+		reversed.getDetectionMethods().forEach(method -> methods.add(method.getIdentifier()));
+		Assert.assertEquals(new ArrayList<>(methods), cluster.getDetectionMethods().stream()
+				.map(DetectionMethod::getIdentifier).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void spill() throws Exception {
+		final File tmp = Files.createTempDirectory("cluster-spill").toFile();
+		final String expected = write(null, 0);
+		Assert.assertEquals(expected, write(tmp, 3));
+		Assert.assertEquals(expected, write(tmp, 1));
+		Assert.assertArrayEquals(new String[0], tmp.list());
+	}
+
+	private String write(File directory, int threshold) throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final InteractionClusterer clusterer = new InteractionClusterer(new InteractionWriter(out, PsiMitabVersion.getDefault()));
+		if (threshold > 0) clusterer.withSpill(directory, threshold);
+		try (InteractionReader reader = new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27"))) {
+			clusterer.start();
+			reader.forEach(clusterer);
+			clusterer.close();
+		}
+		return out.toString();
+	}
+
+	private static Set<String> pair(Interaction interaction) {
+		return new HashSet<>(Arrays.asList(
+				interaction.getInteractorA().getPrimaryIdentifier().getIdentifier(),
+				interaction.getInteractorB().getPrimaryIdentifier().getIdentifier()));
+	}
+
+	private static class Collector implements Acceptor<Interaction> {
+		private final List<Interaction> interactions;
+
+		Collector(List<Interaction> interactions) {
+			this.interactions = interactions;
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void accept(Interaction interaction) {
+			interactions.add(interaction);
+		}
+	}
+}
@@ -5,12 +5,16 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.uichuimi.mitab.io.InteractionReader;
 import org.uichuimi.mitab.io.InteractionWriter;
+import org.uichuimi.mitab.io.LineIndex;
+import org.uichuimi.mitab.io.compress.BgzfOutputStream;
 import org.uichuimi.mitab.io.model.Interaction;
 import org.uichuimi.mitab.io.model.PsiMitabVersion;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 public class InteractionWriterTest {
 
@@ -20,9 +24,9 @@ public class InteractionWriterTest {
 	@Test
 	public void test() throws IOException {
 		 final File tempFile = File.createTempFile("mitab-io-test", ".mitab27");
-		try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+		try (OutputStream outputStream = new FileOutputStream(tempFile);
+		     InteractionWriter writer = new InteractionWriter(outputStream, PsiMitabVersion.TAB_27)) {
 			final List<Interaction> interactions = new InteractionReader(getClass().getResourceAsStream(INPUT_NAME)).readAll();
-			final InteractionWriter writer = new InteractionWriter(outputStream, PsiMitabVersion.TAB_27);
 			interactions.forEach(writer::write);
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -38,4 +42,43 @@ public class InteractionWriterTest {
 			e.printStackTrace();
 		}
 	}
+
+	@Test
+	public void bgzfWithIndex() throws Exception {
+		final File file = File.createTempFile("mitab-io-test", ".mitab27.bgz");
+		final File indexFile = LineIndex.of(file);
+		file.deleteOnExit();
+		indexFile.deleteOnExit();
+		final Interaction interaction = new InteractionReader(getClass().getResourceAsStream(INPUT_NAME)).next();
+		final int count = 250;
+		try (InteractionWriter writer = new InteractionWriter(new BgzfOutputStream(new FileOutputStream(file)), PsiMitabVersion.TAB_27)
+				.withIndex(indexFile, 7)) {
+			for (int i = 0; i < count; i++) writer.write(interaction);
+		}
+		// regular gzip readers see the whole file
+		try (InteractionReader reader = new InteractionReader(new GZIPInputStream(new FileInputStream(file)))) {
+			Assert.assertEquals(count, reader.readAll().size());
+		}
+		final LineIndex index = LineIndex.read(indexFile);
+		Assert.assertEquals(7, index.getInterval());
+		for (long line : new long[]{0, 6, 7, 100, 249}) {
+			try (InteractionReader reader = InteractionReader.fromLine(file, line, PsiMitabVersion.TAB_27)) {
+				final List<Interaction> interactions = reader.readAll();
+				Assert.assertEquals(count - line, interactions.size());
+				Assert.assertEquals(interaction.toString(), interactions.get(0).toString());
+			}
+		}
+	}
+
+	@Test
+	public void utf8RoundTrip() throws Exception {
+		final String[] lines = IOUtils.toString(getClass().getResourceAsStream(INPUT_NAME), StandardCharsets.UTF_8).split("\n");
+		final String input = lines[0] + "\n" + lines[1].replace("Cestra et al.", "Cestrá et al.") + "\n";
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InteractionWriter writer = new InteractionWriter(out, PsiMitabVersion.TAB_27);
+		     InteractionReader reader = new InteractionReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))) {
+			reader.forEach(writer::write);
+		}
+		Assert.assertTrue(out.toString(StandardCharsets.UTF_8).contains("Cestrá et al."));
+	}
 }
@@ -7,10 +7,15 @@ import org.uichuimi.mitab.io.FileUtils;
 import org.uichuimi.mitab.io.InteractionReader;
 import org.uichuimi.mitab.io.consumer.Neo4jWriter;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.zip.GZIPInputStream;
 
 public class Neo4jWriterTest {
@@ -32,4 +37,81 @@ public class Neo4jWriterTest {
 		Assert.assertEquals(expected, actual);
 
 	}
+
+	@Test
+	public void spill() throws Exception {
+		final InputStream resource = getClass().getResourceAsStream("/input/sample-interactions.mitab27");
+		final File path = Files.createTempDirectory("output-neo4j").toFile();
+		final File tmp = Files.createTempDirectory("neo4j-spill").toFile();
+		try (InteractionReader reader = new InteractionReader(resource);
+		     Neo4jWriter writer = new Neo4jWriter(path).withSpill(tmp, 3)) {
+			reader.forEach(writer);
+		}
+		Assert.assertArrayEquals(new String[0], tmp.list());
+		Assert.assertEquals(lines(new GZIPInputStream(getClass().getResourceAsStream("/output/nodes.tsv.gz"))),
+				lines(new File(path, "nodes.tsv.gz")));
+		Assert.assertEquals(lines(new GZIPInputStream(getClass().getResourceAsStream("/output/relationships.tsv.gz"))),
+				lines(new File(path, "relationships.tsv.gz")));
+	}
+
+	@Test
+	public void unsorted() throws Exception {
+		final InputStream resource = getClass().getResourceAsStream("/input/sample-interactions.mitab27");
+		final File path = Files.createTempDirectory("output-neo4j").toFile();
+		try (InteractionReader reader = new InteractionReader(resource);
+		     Neo4jWriter writer = new Neo4jWriter(path).withSorting(false)) {
+			reader.forEach(writer);
+		}
+		final List<String> nodes = lines(new File(path, "nodes.tsv.gz"));
+		final List<String> relationships = lines(new File(path, "relationships.tsv.gz"));
+		// first interaction of the sample
+		Assert.assertEquals("P49418", nodes.get(1));
+		Assert.assertEquals("O43426", nodes.get(2));
+		Assert.assertTrue(relationships.get(1).startsWith("P49418\tO43426\t"));
+
+		final List<String> expectedNodes = lines(new GZIPInputStream(getClass().getResourceAsStream("/output/nodes.tsv.gz")));
+		final List<String> expectedRelationships = lines(new GZIPInputStream(getClass().getResourceAsStream("/output/relationships.tsv.gz")));
+		Assert.assertEquals(sorted(expectedNodes), sorted(nodes));
+		Assert.assertEquals(sorted(expectedRelationships), sorted(relationships));
+	}
+
+	@Test
+	public void sortedWithColons() throws Exception {
+		// P49418 is a prefix of P49418:1, so the order of pairs depends on the colon separator
+		final String text = IOUtils.toString(getClass().getResourceAsStream("/input/sample-interactions.mitab27"), Charset.defaultCharset())
+				.replace("uniprotkb:P49418", "chebi:\"P49418:1\"")
+				.replace("uniprotkb:Q99961", "chebi:\"P49418\"");
+		final File path = Files.createTempDirectory("output-neo4j").toFile();
+		try (InteractionReader reader = new InteractionReader(new ByteArrayInputStream(text.getBytes()));
+		     Neo4jWriter writer = new Neo4jWriter(path)) {
+			reader.forEach(writer);
+		}
+		final List<String> nodes = lines(new File(path, "nodes.tsv.gz"));
+		Assert.assertTrue(nodes.contains("P49418:1"));
+		Assert.assertEquals(sorted(nodes.subList(1, nodes.size())), nodes.subList(1, nodes.size()));
+
+		final List<String> relationships = lines(new File(path, "relationships.tsv.gz"));
+		final List<String> keys = new ArrayList<>();
+		for (String relationship : relationships.subList(1, relationships.size())) {
+			final String[] fields = relationship.split("\t");
+			keys.add(fields[0].compareTo(fields[1]) > 0 ? fields[0] + ":" + fields[1] : fields[1] + ":" + fields[0]);
+		}
+		Assert.assertEquals(sorted(keys), keys);
+	}
+
+	private static List<String> lines(File file) throws IOException {
+		return lines(FileUtils.getInputStream(file));
+	}
+
+	private static List<String> lines(InputStream in) throws IOException {
+		try (in) {
+			return IOUtils.readLines(in, Charset.defaultCharset());
+		}
+	}
+
+	private static List<String> sorted(List<String> lines) {
+		final String[] array = lines.toArray(new String[0]);
+		Arrays.sort(array);
+		return Arrays.asList(array);
+	}
 }
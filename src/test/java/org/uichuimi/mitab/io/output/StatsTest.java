@@ -0,0 +1,68 @@
+package org.uichuimi.mitab.io.output;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.uichuimi.mitab.io.InteractionReader;
+import org.uichuimi.mitab.io.consumer.Stats;
+import org.uichuimi.mitab.io.model.Interaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+
+public class StatsTest {
+
+	@Test
+	public void parallel() throws Exception {
+		final List<Interaction> interactions = read();
+		final Stats sequential = new Stats(System.out);
+		interactions.forEach(sequential);
+		final Stats parallel = interactions.parallelStream().collect(Stats.collector(System.out));
+		Assert.assertEquals(sequential.summary(), parallel.summary());
+	}
+
+	@Test
+	public void merge() throws Exception {
+		final List<Interaction> interactions = read();
+		final Stats expected = new Stats(System.out);
+		interactions.forEach(expected);
+		for (int split = 0; split <= interactions.size(); split += 7) {
+			final Stats first = new Stats(System.out);
+			final Stats second = new Stats(System.out);
+			interactions.subList(0, split).forEach(first);
+			interactions.subList(split, interactions.size()).forEach(second);
+			Assert.assertEquals(expected.summary(), first.merge(second).summary());
+		}
+	}
+
+	@Test
+	public void mergeSpilled() throws Exception {
+		final List<Interaction> interactions = read();
+		final Stats expected = new Stats(System.out);
+		interactions.forEach(expected);
+		final File tmp = Files.createTempDirectory("stats-spill").toFile();
+		final PrintStream console = new PrintStream(new ByteArrayOutputStream());
+		final Stats first = new Stats(console).withSpill(tmp, 4);
+		final Stats second = new Stats(console).withSpill(tmp, 4);
+		final int split = interactions.size() / 2;
+		interactions.subList(0, split).forEach(first);
+		interactions.subList(split, interactions.size()).forEach(second);
+		final Stats merged = first.merge(second);
+		final int runs = tmp.list().length;
+		Assert.assertEquals(expected.summary(), merged.summary());
+		// summary does not spill
+		Assert.assertEquals(runs, tmp.list().length);
+		Assert.assertEquals(expected.summary(), merged.summary());
+		merged.close();
+		Assert.assertArrayEquals(new String[0], tmp.list());
+		Assert.assertEquals(expected.summary(), merged.summary());
+	}
+
+	private List<Interaction> read() throws Exception {
+		try (InteractionReader reader = new InteractionReader(getClass().getResourceAsStream("/input/sample-interactions.mitab27"))) {
+			return reader.readAll();
+		}
+	}
+}
@@ -33,4 +33,18 @@ public class TsvWriterTest {
 		}
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void writeWithColumns() throws Exception {
+		final InputStream resource = getClass().getResourceAsStream("/input/sample-interactions.mitab27");
+		final File tempFile = File.createTempFile("tsv", ".tsv");
+		tempFile.deleteOnExit();
+		try (final TsvWriter writer = new TsvWriter(tempFile);
+		     final InteractionReader reader = new InteractionReader(resource).withColumns(writer.columns())) {
+			reader.forEach(writer);
+		}
+		final String expected = IOUtils.toString(getClass().getResourceAsStream("/output/expected_output.tsv"), Charset.defaultCharset());
+		final String actual = IOUtils.toString(new FileInputStream(tempFile), Charset.defaultCharset());
+		Assert.assertEquals(expected, actual);
+	}
+}